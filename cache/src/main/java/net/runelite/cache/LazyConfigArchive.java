@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+
+/**
+ * On demand access to the definitions in a config archive. The archive is read once, keeping only
+ * the file ids in a sorted array and the encoded contents of each file. A definition is decoded
+ * when it is first requested, and kept in a cache bounded by the encoded size of what it holds.
+ *
+ * @param <T> definition type
+ */
+public class LazyConfigArchive<T>
+{
+	@FunctionalInterface
+	public interface Decoder<T>
+	{
+		T decode(int id, byte[] data);
+	}
+
+	public static final long DEFAULT_MAX_WEIGHT = 1024 * 1024;
+
+	private final Decoder<T> decoder;
+	private final Cache<Integer, T> definitions;
+
+	private final int[] ids;
+	private final byte[][] contents;
+
+	private LazyConfigArchive(Decoder<T> decoder, long maxWeight, int[] ids, byte[][] contents)
+	{
+		this.decoder = decoder;
+		this.ids = ids;
+		this.contents = contents;
+		this.definitions = CacheBuilder.newBuilder()
+			.maximumWeight(maxWeight)
+			.weigher((Integer id, T def) -> contents[Arrays.binarySearch(ids, id)].length)
+			.build();
+	}
+
+	public static <T> LazyConfigArchive<T> load(Store store, ConfigType type, Decoder<T> decoder) throws IOException
+	{
+		return load(store, type, decoder, DEFAULT_MAX_WEIGHT);
+	}
+
+	/**
+	 * Read a config archive
+	 *
+	 * @param maxWeight the total encoded size of the definitions to keep decoded
+	 */
+	public static <T> LazyConfigArchive<T> load(Store store, ConfigType type, Decoder<T> decoder, long maxWeight) throws IOException
+	{
+		Storage storage = store.getStorage();
+		Index index = store.getIndex(IndexType.CONFIGS);
+		Archive archive = index.getArchive(type.getId());
+
+		byte[] archiveData = storage.loadArchive(archive);
+		ArchiveFiles files = archive.getFiles(archiveData);
+
+		List<FSFile> fileList = new ArrayList<>(files.getFiles());
+		fileList.sort((a, b) -> Integer.compare(a.getFileId(), b.getFileId()));
+
+		int[] ids = new int[fileList.size()];
+		byte[][] contents = new byte[fileList.size()][];
+		for (int i = 0; i < ids.length; ++i)
+		{
+			FSFile file = fileList.get(i);
+			ids[i] = file.getFileId();
+			contents[i] = file.getContents();
+		}
+
+		return new LazyConfigArchive<>(decoder, maxWeight, ids, contents);
+	}
+
+	/**
+	 * @return the definition, or null if there is no definition with the id
+	 */
+	public T get(int id)
+	{
+		int idx = Arrays.binarySearch(ids, id);
+		if (idx < 0)
+		{
+			return null;
+		}
+
+		try
+		{
+			return definitions.get(id, () -> decoder.decode(id, contents[idx]));
+		}
+		catch (ExecutionException ex)
+		{
+			throw new RuntimeException(ex.getCause());
+		}
+	}
+
+	/**
+	 * Decode every definition in the archive. The definitions are not cached.
+	 */
+	public List<T> getAll()
+	{
+		List<T> all = new ArrayList<>(ids.length);
+		for (int i = 0; i < ids.length; ++i)
+		{
+			T def = definitions.getIfPresent(ids[i]);
+			all.add(def != null ? def : decoder.decode(ids[i], contents[i]));
+		}
+		return all;
+	}
+
+	public int[] getIds()
+	{
+		return ids.clone();
+	}
+
+	public int size()
+	{
+		return ids.length;
+	}
+}
@@ -28,9 +28,24 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import javax.imageio.ImageIO;
 import lombok.Getter;
 import lombok.Setter;
 import net.runelite.cache.definitions.AreaDefinition;
@@ -153,11 +168,208 @@ public class MapImageDumper
 
 		drawMap(image, 0, 0, z, region);
 		drawObjects(image, 0, 0, region, z);
+		drawNeighbourMapIcons(image, region, z);
 		drawMapIcons(image, 0, 0, region, z);
 
 		return image;
 	}
 
+	/**
+	 * Draw each region on plane {@code z} to its own png in {@code outDir}. Regions are drawn
+	 * concurrently, and since ground blending and map icons take the neighbouring regions into
+	 * account the tiles line up with the image from {@link #drawMap(int)}.
+	 *
+	 * @param z plane to draw
+	 * @param outDir directory to write the tiles to
+	 * @param parallelism number of threads to draw with
+	 * @throws IOException
+	 */
+	public void drawTiles(int z, File outDir, int parallelism) throws IOException
+	{
+		drawTiles(z, outDir, regionLoader.getRegions(), parallelism);
+	}
+
+	/**
+	 * Same as {@link #drawTiles(int, File, int)}, but only draws the given regions
+	 */
+	public void drawTiles(int z, File outDir, Collection<Region> regions, int parallelism) throws IOException
+	{
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try
+		{
+			// parallel streams run in the pool of the task that starts them
+			invoke(pool, () ->
+			{
+				regions.parallelStream().forEach(region ->
+				{
+					BufferedImage image = drawRegion(region, z);
+					try
+					{
+						ImageIO.write(image, "png", getTileFile(outDir, z, region.getRegionID()));
+					}
+					catch (IOException ex)
+					{
+						throw new UncheckedIOException(ex);
+					}
+				});
+				return null;
+			});
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Redraw the tiles of the regions which changed since {@code previous}, which is an older
+	 * revision of the cache this dumper was loaded from. Tiles of removed regions are deleted.
+	 * Only the map archives are compared, changes to definitions require a full redraw.
+	 *
+	 * @param z plane to draw
+	 * @param outDir directory containing the tiles drawn from {@code previous}
+	 * @param previous the older cache
+	 * @param parallelism number of threads to draw with
+	 * @return ids of the regions whose tiles were redrawn or deleted
+	 * @throws IOException
+	 */
+	public Set<Integer> drawChangedTiles(int z, File outDir, Store previous, int parallelism) throws IOException
+	{
+		Set<Region> redraw = new HashSet<>();
+		Set<Integer> updated = new HashSet<>();
+
+		for (int regionId : RegionLoader.findChangedRegions(previous, store))
+		{
+			int regionX = regionId >> 8;
+			int regionY = regionId & 0xFF;
+
+			if (regionLoader.findRegionForWorldCoordinates(regionX * Region.X, regionY * Region.Y) == null)
+			{
+				File tile = getTileFile(outDir, z, regionId);
+				if (tile.exists() && !tile.delete())
+				{
+					throw new IOException("unable to delete " + tile);
+				}
+				updated.add(regionId);
+			}
+
+			// ground blending and map icons reach into the neighbouring regions, so redraw those too
+			for (int dx = -1; dx <= 1; ++dx)
+			{
+				for (int dy = -1; dy <= 1; ++dy)
+				{
+					Region region = regionLoader.findRegionForWorldCoordinates((regionX + dx) * Region.X, (regionY + dy) * Region.Y);
+					if (region != null)
+					{
+						redraw.add(region);
+						updated.add(region.getRegionID());
+					}
+				}
+			}
+		}
+
+		logger.info("Redrawing {} tiles", redraw.size());
+
+		drawTiles(z, outDir, redraw, parallelism);
+		return updated;
+	}
+
+	/**
+	 * Write the same image as {@link #drawMap(int)} to a png file without holding the whole image
+	 * in memory. The map is drawn one row of regions at a time, with the regions of each row drawn
+	 * concurrently.
+	 *
+	 * @param z plane to draw
+	 * @param file file to write the png to
+	 * @param parallelism number of threads to draw with
+	 * @throws IOException
+	 */
+	public void writeMap(int z, File file, int parallelism) throws IOException
+	{
+		final int lowRegionX = regionLoader.getLowestX().getRegionX();
+		final int lowRegionY = regionLoader.getLowestY().getRegionY();
+		final int highRegionY = regionLoader.getHighestY().getRegionY();
+
+		final int regionsX = regionLoader.getHighestX().getRegionX() - lowRegionX + 1;
+		final int regionsY = highRegionY - lowRegionY + 1;
+
+		final int tileWidth = Region.X * MAP_SCALE;
+		final int tileHeight = Region.Y * MAP_SCALE;
+		final int pixelsX = regionsX * tileWidth;
+		final int pixelsY = regionsY * tileHeight;
+
+		logger.info("Map image dimensions: {}px x {}px, {}px per map square", pixelsX, pixelsY, MAP_SCALE);
+
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+			PngStreamWriter png = new PngStreamWriter(out, pixelsX, pixelsY))
+		{
+			int[] row = new int[pixelsX];
+
+			// the top of the image is the north most row of regions
+			for (int regionY = highRegionY; regionY >= lowRegionY; --regionY)
+			{
+				final int baseY = regionY * Region.Y;
+				BufferedImage[] tiles = invoke(pool, () -> IntStream.range(0, regionsX)
+					.parallel()
+					.mapToObj(i ->
+					{
+						Region region = regionLoader.findRegionForWorldCoordinates((lowRegionX + i) * Region.X, baseY);
+						return region != null ? drawRegion(region, z) : null;
+					})
+					.toArray(BufferedImage[]::new));
+
+				for (int y = 0; y < tileHeight; ++y)
+				{
+					for (int i = 0; i < regionsX; ++i)
+					{
+						if (tiles[i] != null)
+						{
+							tiles[i].getRGB(0, y, tileWidth, 1, row, i * tileWidth, tileWidth);
+						}
+						else
+						{
+							Arrays.fill(row, i * tileWidth, (i + 1) * tileWidth, 0);
+						}
+					}
+
+					png.writeRow(row, 0);
+				}
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	static File getTileFile(File outDir, int z, int regionId)
+	{
+		return new File(outDir, "img-" + z + "-" + regionId + ".png");
+	}
+
+	private static <T> T invoke(ForkJoinPool pool, Callable<T> task) throws IOException
+	{
+		try
+		{
+			return pool.submit(task).get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted drawing map");
+		}
+		catch (ExecutionException ex)
+		{
+			final Throwable cause = ex.getCause();
+			if (cause instanceof UncheckedIOException)
+			{
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			throw new IOException(cause);
+		}
+	}
+
 	private void drawMap(BufferedImage image, int drawBaseX, int drawBaseY, int z, Region region)
 	{
 		int[][] map = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
@@ -733,6 +945,31 @@ public class MapImageDumper
 		graphics.dispose();
 	}
 
+	private void drawNeighbourMapIcons(BufferedImage image, Region region, int z)
+	{
+		// map icons are larger than a map square, so icons near the edge of a neighbouring region overhang into this one
+		Graphics2D graphics = image.createGraphics();
+
+		for (int dx = -1; dx <= 1; ++dx)
+		{
+			for (int dy = -1; dy <= 1; ++dy)
+			{
+				if (dx == 0 && dy == 0)
+				{
+					continue;
+				}
+
+				Region neighbour = regionLoader.findRegionForWorldCoordinates(region.getBaseX() + dx * Region.X, region.getBaseY() + dy * Region.Y);
+				if (neighbour != null)
+				{
+					drawMapIcons(graphics, neighbour, z, dx * Region.X, -dy * Region.Y);
+				}
+			}
+		}
+
+		graphics.dispose();
+	}
+
 	private void drawMapIcons(BufferedImage image, int z)
 	{
 		// map icons
@@ -974,8 +1211,12 @@ public class MapImageDumper
 					BufferedImage spriteImage = new BufferedImage(sprite.getWidth(), sprite.getHeight(), BufferedImage.TYPE_INT_ARGB);
 					spriteImage.setRGB(0, 0, sprite.getWidth(), sprite.getHeight(), sprite.getPixels(), 0, sprite.getWidth());
 
-					// scale image down so it fits
-					Image scaledImage = spriteImage.getScaledInstance(MAPICON_MAX_WIDTH, MAPICON_MAX_HEIGHT, 0);
+					// scale image down so it fits. this is drawn up front instead of using getScaledInstance(),
+					// whose image is produced lazily, so the icons can be shared between drawing threads
+					BufferedImage scaledImage = new BufferedImage(MAPICON_MAX_WIDTH, MAPICON_MAX_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+					Graphics2D graphics = scaledImage.createGraphics();
+					graphics.drawImage(spriteImage, 0, 0, MAPICON_MAX_WIDTH, MAPICON_MAX_HEIGHT, null);
+					graphics.dispose();
 
 					assert scaledMapIcons.containsKey(sprite.getFrame()) == false;
 					scaledMapIcons.put(sprite.getFrame(), scaledImage);
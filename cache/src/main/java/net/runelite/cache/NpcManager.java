@@ -28,50 +28,33 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import net.runelite.cache.definitions.NpcDefinition;
 import net.runelite.cache.definitions.exporters.NpcExporter;
 import net.runelite.cache.definitions.loaders.NpcLoader;
-import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
-import net.runelite.cache.fs.Index;
-import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.util.IDClass;
 
 public class NpcManager
 {
 	private final Store store;
-	private final Map<Integer, NpcDefinition> npcs = new HashMap<>();
+	private LazyConfigArchive<NpcDefinition> npcs;
 
 	public NpcManager(Store store)
 	{
 		this.store = store;
 	}
 
+	/**
+	 * Read the npc archive. Definitions are decoded on demand.
+	 */
 	public void load() throws IOException
 	{
-		NpcLoader loader = new NpcLoader();
-
-		Storage storage = store.getStorage();
-		Index index = store.getIndex(IndexType.CONFIGS);
-		Archive archive = index.getArchive(ConfigType.NPC.getId());
-
-		byte[] archiveData = storage.loadArchive(archive);
-		ArchiveFiles files = archive.getFiles(archiveData);
-
-		for (FSFile f : files.getFiles())
-		{
-			NpcDefinition npc = loader.load(f.getFileId(), f.getContents());
-			npcs.put(f.getFileId(), npc);
-		}
+		npcs = LazyConfigArchive.load(store, ConfigType.NPC, new NpcLoader()::load);
 	}
 
 	public Collection<NpcDefinition> getNpcs()
 	{
-		return Collections.unmodifiableCollection(npcs.values());
+		return Collections.unmodifiableCollection(npcs.getAll());
 	}
 
 	public NpcDefinition get(int npcId)
@@ -83,7 +66,7 @@ public class NpcManager
 	{
 		out.mkdirs();
 
-		for (NpcDefinition def : npcs.values())
+		for (NpcDefinition def : npcs.getAll())
 		{
 			NpcExporter exporter = new NpcExporter(def);
 
@@ -97,7 +80,7 @@ public class NpcManager
 		java.mkdirs();
 		try (IDClass ids = IDClass.create(java, "NpcID"))
 		{
-			for (NpcDefinition def : npcs.values())
+			for (NpcDefinition def : npcs.getAll())
 			{
 				if (def.name.equalsIgnoreCase("NULL"))
 				{
@@ -28,50 +28,33 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import net.runelite.cache.definitions.ObjectDefinition;
 import net.runelite.cache.definitions.exporters.ObjectExporter;
 import net.runelite.cache.definitions.loaders.ObjectLoader;
-import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
-import net.runelite.cache.fs.Index;
-import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.util.IDClass;
 
 public class ObjectManager
 {
 	private final Store store;
-	private final Map<Integer, ObjectDefinition> objects = new HashMap<>();
+	private LazyConfigArchive<ObjectDefinition> objects;
 
 	public ObjectManager(Store store)
 	{
 		this.store = store;
 	}
 
+	/**
+	 * Read the object archive. Definitions are decoded on demand.
+	 */
 	public void load() throws IOException
 	{
-		ObjectLoader loader = new ObjectLoader();
-
-		Storage storage = store.getStorage();
-		Index index = store.getIndex(IndexType.CONFIGS);
-		Archive archive = index.getArchive(ConfigType.OBJECT.getId());
-
-		byte[] archiveData = storage.loadArchive(archive);
-		ArchiveFiles files = archive.getFiles(archiveData);
-
-		for (FSFile f : files.getFiles())
-		{
-			ObjectDefinition def = loader.load(f.getFileId(), f.getContents());
-			objects.put(f.getFileId(), def);
-		}
+		objects = LazyConfigArchive.load(store, ConfigType.OBJECT, new ObjectLoader()::load);
 	}
 
 	public Collection<ObjectDefinition> getObjects()
 	{
-		return Collections.unmodifiableCollection(objects.values());
+		return Collections.unmodifiableCollection(objects.getAll());
 	}
 
 	public ObjectDefinition getObject(int id)
@@ -83,7 +66,7 @@ public class ObjectManager
 	{
 		out.mkdirs();
 
-		for (ObjectDefinition def : objects.values())
+		for (ObjectDefinition def : objects.getAll())
 		{
 			ObjectExporter exporter = new ObjectExporter(def);
 
@@ -99,7 +82,7 @@ public class ObjectManager
 		{
 			try (IDClass nulls = IDClass.create(java, "NullObjectID"))
 			{
-				for (ObjectDefinition def : objects.values())
+				for (ObjectDefinition def : objects.getAll())
 				{
 					if ("null".equals(def.getName()))
 					{
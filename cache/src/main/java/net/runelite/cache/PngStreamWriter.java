@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes an 8 bit RGB png one row at a time, so images larger than the heap can be written.
+ */
+class PngStreamWriter implements Closeable
+{
+	private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+	private static final int CHUNK_SIZE = 64 * 1024; // max size of each IDAT chunk
+
+	private final DataOutputStream out;
+	private final int width;
+	private final int height;
+	private final byte[] row;
+	private final ByteArrayOutputStream idat = new ByteArrayOutputStream(CHUNK_SIZE);
+	// DeflaterOutputStream only ends deflaters it created itself
+	private final Deflater def = new Deflater(Deflater.DEFAULT_COMPRESSION);
+	private final DeflaterOutputStream deflater;
+	private int rows;
+
+	PngStreamWriter(OutputStream out, int width, int height) throws IOException
+	{
+		this.out = new DataOutputStream(out);
+		this.width = width;
+		this.height = height;
+		// filter type byte + rgb
+		this.row = new byte[1 + width * 3];
+		this.deflater = new DeflaterOutputStream(new ChunkStream(), def, CHUNK_SIZE);
+
+		this.out.write(SIGNATURE);
+
+		ByteArrayOutputStream ihdr = new ByteArrayOutputStream(13);
+		DataOutputStream header = new DataOutputStream(ihdr);
+		header.writeInt(width);
+		header.writeInt(height);
+		header.writeByte(8); // bit depth
+		header.writeByte(2); // color type, truecolor
+		header.writeByte(0); // compression method
+		header.writeByte(0); // filter method
+		header.writeByte(0); // interlace method
+		writeChunk("IHDR", ihdr.toByteArray(), 13);
+	}
+
+	/**
+	 * Write the next row of the image
+	 *
+	 * @param rgb  packed rgb pixels, the alpha component is ignored
+	 * @param off  offset of the first pixel of the row in {@code rgb}
+	 * @throws IOException
+	 */
+	void writeRow(int[] rgb, int off) throws IOException
+	{
+		if (rows >= height)
+		{
+			throw new IOException("image already has " + height + " rows");
+		}
+
+		row[0] = 0; // no filter
+		for (int i = 0, pos = 1; i < width; ++i)
+		{
+			int pixel = rgb[off + i];
+			row[pos++] = (byte) (pixel >> 16);
+			row[pos++] = (byte) (pixel >> 8);
+			row[pos++] = (byte) pixel;
+		}
+
+		deflater.write(row);
+		++rows;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			if (rows != height)
+			{
+				throw new IOException("wrote " + rows + " of " + height + " rows");
+			}
+
+			deflater.finish();
+			flushIdat();
+			writeChunk("IEND", new byte[0], 0);
+			out.flush();
+		}
+		finally
+		{
+			def.end();
+		}
+	}
+
+	private void flushIdat() throws IOException
+	{
+		if (idat.size() > 0)
+		{
+			writeChunk("IDAT", idat.toByteArray(), idat.size());
+			idat.reset();
+		}
+	}
+
+	private void writeChunk(String type, byte[] data, int len) throws IOException
+	{
+		byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+
+		CRC32 crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(data, 0, len);
+
+		out.writeInt(len);
+		out.write(typeBytes);
+		out.write(data, 0, len);
+		out.writeInt((int) crc.getValue());
+	}
+
+	/**
+	 * Collects deflated data, emitting an IDAT chunk each time {@link #CHUNK_SIZE} bytes are buffered
+	 */
+	private class ChunkStream extends OutputStream
+	{
+		@Override
+		public void write(int b) throws IOException
+		{
+			idat.write(b);
+			if (idat.size() >= CHUNK_SIZE)
+			{
+				flushIdat();
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			idat.write(b, off, len);
+			if (idat.size() >= CHUNK_SIZE)
+			{
+				flushIdat();
+			}
+		}
+	}
+}
@@ -24,13 +24,18 @@
  */
 package net.runelite.cache;
 
-import com.google.common.collect.LinkedListMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import net.runelite.cache.definitions.SpriteDefinition;
 import net.runelite.cache.definitions.exporters.SpriteExporter;
 import net.runelite.cache.definitions.loaders.SpriteLoader;
@@ -42,41 +47,86 @@ import net.runelite.cache.fs.Store;
 
 public class SpriteManager implements SpriteProvider
 {
+	/**
+	 * Maximum number of decoded pixels to keep
+	 */
+	private static final long MAX_PIXELS = 4 * 1024 * 1024;
+
 	private final Store store;
-	private final Multimap<Integer, SpriteDefinition> sprites = LinkedListMultimap.create();
+	private final Cache<Integer, SpriteDefinition[]> sprites = CacheBuilder.newBuilder()
+		.maximumWeight(MAX_PIXELS)
+		.weigher((Integer id, SpriteDefinition[] frames) -> weigh(frames))
+		.build();
+	// sorted ids of the sprites in the store
+	private int[] spriteIds = new int[0];
 
 	public SpriteManager(Store store)
 	{
 		this.store = store;
 	}
 
+	/**
+	 * Read the ids of the sprites in the store. Sprites are decoded on demand.
+	 */
 	public void load() throws IOException
 	{
-		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.SPRITES);
 
+		int[] ids = new int[index.getArchives().size()];
+		int i = 0;
 		for (Archive a : index.getArchives())
 		{
-			byte[] contents = a.decompress(storage.loadArchive(a));
-
-			SpriteLoader loader = new SpriteLoader();
-			SpriteDefinition[] defs = loader.load(a.getArchiveId(), contents);
-
-			for (SpriteDefinition sprite : defs)
-			{
-				sprites.put(sprite.getId(), sprite);
-			}
+			ids[i++] = a.getArchiveId();
 		}
+		Arrays.sort(ids);
+
+		spriteIds = ids;
+		sprites.invalidateAll();
 	}
 
+	/**
+	 * Decode every sprite in the store. The sprites are not cached.
+	 */
 	public Collection<SpriteDefinition> getSprites()
 	{
-		return Collections.unmodifiableCollection(sprites.values());
+		List<SpriteDefinition> all = new ArrayList<>();
+		for (int spriteId : spriteIds)
+		{
+			SpriteDefinition[] frames = sprites.getIfPresent(spriteId);
+			if (frames == null)
+			{
+				try
+				{
+					frames = loadSprite(spriteId);
+				}
+				catch (IOException ex)
+				{
+					throw new UncheckedIOException(ex);
+				}
+			}
+			Collections.addAll(all, frames);
+		}
+		return Collections.unmodifiableCollection(all);
 	}
 
 	public SpriteDefinition findSprite(int spriteId, int frameId)
 	{
-		for (SpriteDefinition sprite : sprites.get(spriteId))
+		if (Arrays.binarySearch(spriteIds, spriteId) < 0)
+		{
+			return null;
+		}
+
+		SpriteDefinition[] frames;
+		try
+		{
+			frames = sprites.get(spriteId, () -> loadSprite(spriteId));
+		}
+		catch (ExecutionException ex)
+		{
+			throw new RuntimeException(ex.getCause());
+		}
+
+		for (SpriteDefinition sprite : frames)
 		{
 			if (sprite.getFrame() == frameId)
 			{
@@ -95,7 +145,7 @@ public class SpriteManager implements SpriteProvider
 
 	public void export(File outDir) throws IOException
 	{
-		for (SpriteDefinition sprite : sprites.values())
+		for (SpriteDefinition sprite : getSprites())
 		{
 			// I don't know why this happens
 			if (sprite.getHeight() <= 0 || sprite.getWidth() <= 0)
@@ -115,4 +165,26 @@ public class SpriteManager implements SpriteProvider
 	{
 		return findSprite(spriteId, frameId);
 	}
+
+	private SpriteDefinition[] loadSprite(int spriteId) throws IOException
+	{
+		Storage storage = store.getStorage();
+		Index index = store.getIndex(IndexType.SPRITES);
+		Archive a = index.getArchive(spriteId);
+
+		byte[] contents = a.decompress(storage.loadArchive(a));
+
+		SpriteLoader loader = new SpriteLoader();
+		return loader.load(a.getArchiveId(), contents);
+	}
+
+	private static int weigh(SpriteDefinition[] frames)
+	{
+		int pixels = 1;
+		for (SpriteDefinition frame : frames)
+		{
+			pixels += frame.getWidth() * frame.getHeight();
+		}
+		return pixels;
+	}
 }
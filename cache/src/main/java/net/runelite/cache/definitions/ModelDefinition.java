@@ -13,7 +13,14 @@ public class ModelDefinition
 	public int[] vertexPositionsX;
 	public int[] vertexPositionsY;
 	public int[] vertexPositionsZ;
-	public transient VertexNormal[] vertexNormals;
+	/**
+	 * Sum of the normals of the smooth shaded faces around each vertex, and the number of
+	 * faces summed in vertexNormalsMagnitude. See {@link #computeNormals()}
+	 */
+	public transient int[] vertexNormalsX;
+	public transient int[] vertexNormalsY;
+	public transient int[] vertexNormalsZ;
+	public transient int[] vertexNormalsMagnitude;
 
 	public int faceCount;
 	public int[] faceVertexIndices1;
@@ -23,14 +30,23 @@ public class ModelDefinition
 	public short[] faceColors;
 	public byte[] faceRenderPriorities;
 	public byte[] faceRenderTypes;
-	public transient FaceNormal[] faceNormals;
+	/**
+	 * Normals of the flat shaded faces, null if the model has none
+	 */
+	public transient int[] faceNormalsX;
+	public transient int[] faceNormalsY;
+	public transient int[] faceNormalsZ;
 
 	public int textureTriangleCount;
 	public short[] textureTriangleVertexIndices1;
 	public short[] textureTriangleVertexIndices2;
 	public short[] textureTriangleVertexIndices3;
-	public transient float[][] faceTextureUCoordinates;
-	public transient float[][] faceTextureVCoordinates;
+	/**
+	 * Texture coordinates of the vertices of each face, the coordinates of face i are at i * 3 to i * 3 + 2.
+	 * Null if the model has no textured faces. See {@link #computeTextureUVCoordinates()}
+	 */
+	public transient float[] faceTextureU;
+	public transient float[] faceTextureV;
 	public short[] texturePrimaryColors;
 	public short[] faceTextures;
 	public byte[] textureCoordinates;
@@ -60,20 +76,17 @@ public class ModelDefinition
 
 	public void computeNormals()
 	{
-		if (this.vertexNormals != null)
+		if (this.vertexNormalsX != null)
 		{
 			return;
 		}
 
-		this.vertexNormals = new VertexNormal[this.vertexCount];
+		final int[] normalsX = this.vertexNormalsX = new int[this.vertexCount];
+		final int[] normalsY = this.vertexNormalsY = new int[this.vertexCount];
+		final int[] normalsZ = this.vertexNormalsZ = new int[this.vertexCount];
+		final int[] magnitudes = this.vertexNormalsMagnitude = new int[this.vertexCount];
 
-		int var1;
-		for (var1 = 0; var1 < this.vertexCount; ++var1)
-		{
-			this.vertexNormals[var1] = new VertexNormal();
-		}
-
-		for (var1 = 0; var1 < this.faceCount; ++var1)
+		for (int var1 = 0; var1 < this.faceCount; ++var1)
 		{
 			int vertexA = this.faceVertexIndices1[var1];
 			int vertexB = this.faceVertexIndices2[var1];
@@ -121,35 +134,33 @@ public class ModelDefinition
 
 			if (var15 == 0)
 			{
-				VertexNormal var16 = this.vertexNormals[vertexA];
-				var16.x += var11;
-				var16.y += var12;
-				var16.z += var13;
-				++var16.magnitude;
-
-				var16 = this.vertexNormals[vertexB];
-				var16.x += var11;
-				var16.y += var12;
-				var16.z += var13;
-				++var16.magnitude;
-
-				var16 = this.vertexNormals[vertexC];
-				var16.x += var11;
-				var16.y += var12;
-				var16.z += var13;
-				++var16.magnitude;
+				normalsX[vertexA] += var11;
+				normalsY[vertexA] += var12;
+				normalsZ[vertexA] += var13;
+				++magnitudes[vertexA];
+
+				normalsX[vertexB] += var11;
+				normalsY[vertexB] += var12;
+				normalsZ[vertexB] += var13;
+				++magnitudes[vertexB];
+
+				normalsX[vertexC] += var11;
+				normalsY[vertexC] += var12;
+				normalsZ[vertexC] += var13;
+				++magnitudes[vertexC];
 			}
 			else if (var15 == 1)
 			{
-				if (this.faceNormals == null)
+				if (this.faceNormalsX == null)
 				{
-					this.faceNormals = new FaceNormal[this.faceCount];
+					this.faceNormalsX = new int[this.faceCount];
+					this.faceNormalsY = new int[this.faceCount];
+					this.faceNormalsZ = new int[this.faceCount];
 				}
 
-				FaceNormal var17 = this.faceNormals[var1] = new FaceNormal();
-				var17.x = var11;
-				var17.y = var12;
-				var17.z = var13;
+				this.faceNormalsX[var1] = var11;
+				this.faceNormalsY[var1] = var12;
+				this.faceNormalsZ[var1] = var13;
 			}
 		}
 	}
@@ -160,8 +171,16 @@ public class ModelDefinition
 	 */
 	public void computeTextureUVCoordinates()
 	{
-		this.faceTextureUCoordinates = new float[faceCount][];
-		this.faceTextureVCoordinates = new float[faceCount][];
+		if (faceTextures == null)
+		{
+			// no face has a texture
+			this.faceTextureU = null;
+			this.faceTextureV = null;
+			return;
+		}
+
+		final float[] u = this.faceTextureU = new float[faceCount * 3];
+		final float[] v = this.faceTextureV = new float[faceCount * 3];
 
 		for (int i = 0; i < faceCount; i++)
 		{
@@ -187,19 +206,18 @@ public class ModelDefinition
 
 			if (textureIdx != -1)
 			{
-				float[] u = new float[3];
-				float[] v = new float[3];
+				final int pos = i * 3;
 
 				if (textureCoordinate == -1)
 				{
-					u[0] = 0.0F;
-					v[0] = 1.0F;
+					u[pos] = 0.0F;
+					v[pos] = 1.0F;
 
-					u[1] = 1.0F;
-					v[1] = 1.0F;
+					u[pos + 1] = 1.0F;
+					v[pos + 1] = 1.0F;
 
-					u[2] = 0.0F;
-					v[2] = 0.0F;
+					u[pos + 2] = 0.0F;
+					v[pos + 2] = 0.0F;
 				}
 				else
 				{
@@ -249,27 +267,109 @@ public class ModelDefinition
 						float f_902_ = f_885_ * f_898_ - f_886_ * f_897_;
 						float f_903_ = 1.0F / (f_900_ * f_882_ + f_901_ * f_883_ + f_902_ * f_884_);
 
-						u[0] = (f_900_ * f_888_ + f_901_ * f_889_ + f_902_ * f_890_) * f_903_;
-						u[1] = (f_900_ * f_891_ + f_901_ * f_892_ + f_902_ * f_893_) * f_903_;
-						u[2] = (f_900_ * f_894_ + f_901_ * f_895_ + f_902_ * f_896_) * f_903_;
+						u[pos] = (f_900_ * f_888_ + f_901_ * f_889_ + f_902_ * f_890_) * f_903_;
+						u[pos + 1] = (f_900_ * f_891_ + f_901_ * f_892_ + f_902_ * f_893_) * f_903_;
+						u[pos + 2] = (f_900_ * f_894_ + f_901_ * f_895_ + f_902_ * f_896_) * f_903_;
 
 						f_900_ = f_883_ * f_899_ - f_884_ * f_898_;
 						f_901_ = f_884_ * f_897_ - f_882_ * f_899_;
 						f_902_ = f_882_ * f_898_ - f_883_ * f_897_;
 						f_903_ = 1.0F / (f_900_ * f_885_ + f_901_ * f_886_ + f_902_ * f_887_);
 
-						v[0] = (f_900_ * f_888_ + f_901_ * f_889_ + f_902_ * f_890_) * f_903_;
-						v[1] = (f_900_ * f_891_ + f_901_ * f_892_ + f_902_ * f_893_) * f_903_;
-						v[2] = (f_900_ * f_894_ + f_901_ * f_895_ + f_902_ * f_896_) * f_903_;
+						v[pos] = (f_900_ * f_888_ + f_901_ * f_889_ + f_902_ * f_890_) * f_903_;
+						v[pos + 1] = (f_900_ * f_891_ + f_901_ * f_892_ + f_902_ * f_893_) * f_903_;
+						v[pos + 2] = (f_900_ * f_894_ + f_901_ * f_895_ + f_902_ * f_896_) * f_903_;
 					}
 				}
 
-				this.faceTextureUCoordinates[i] = u;
-				this.faceTextureVCoordinates[i] = v;
 			}
 		}
 	}
 
+	/**
+	 * Copy the vertex normals into {@link VertexNormal}s. Prefer reading the vertexNormals arrays directly.
+	 *
+	 * @return the vertex normals, or null if they have not been computed
+	 */
+	public VertexNormal[] getVertexNormals()
+	{
+		if (vertexNormalsX == null)
+		{
+			return null;
+		}
+
+		VertexNormal[] normals = new VertexNormal[vertexCount];
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			VertexNormal normal = normals[i] = new VertexNormal();
+			normal.x = vertexNormalsX[i];
+			normal.y = vertexNormalsY[i];
+			normal.z = vertexNormalsZ[i];
+			normal.magnitude = vertexNormalsMagnitude[i];
+		}
+		return normals;
+	}
+
+	/**
+	 * Copy the face normals into {@link FaceNormal}s. Prefer reading the faceNormals arrays directly.
+	 *
+	 * @return the face normals, which are null for faces which are not flat shaded, or null if no face is
+	 */
+	public FaceNormal[] getFaceNormals()
+	{
+		if (faceNormalsX == null)
+		{
+			return null;
+		}
+
+		FaceNormal[] normals = new FaceNormal[faceCount];
+		for (int i = 0; i < faceCount; ++i)
+		{
+			if (faceRenderTypes != null && faceRenderTypes[i] == 1)
+			{
+				FaceNormal normal = normals[i] = new FaceNormal();
+				normal.x = faceNormalsX[i];
+				normal.y = faceNormalsY[i];
+				normal.z = faceNormalsZ[i];
+			}
+		}
+		return normals;
+	}
+
+	/**
+	 * Copy the u texture coordinates into an array of three coordinates per face. Faces without a
+	 * texture have null coordinates, as do all faces of a model without textures.
+	 */
+	public float[][] getFaceTextureUCoordinates()
+	{
+		return splitFaceCoordinates(faceTextureU);
+	}
+
+	/**
+	 * Copy the v texture coordinates into an array of three coordinates per face. Faces without a
+	 * texture have null coordinates, as do all faces of a model without textures.
+	 */
+	public float[][] getFaceTextureVCoordinates()
+	{
+		return splitFaceCoordinates(faceTextureV);
+	}
+
+	private float[][] splitFaceCoordinates(float[] coordinates)
+	{
+		float[][] faces = new float[faceCount][];
+		if (coordinates != null && faceTextures != null)
+		{
+			for (int i = 0; i < faceCount; ++i)
+			{
+				if (faceTextures[i] != -1)
+				{
+					faces[i] = Arrays.copyOfRange(coordinates, i * 3, i * 3 + 3);
+				}
+			}
+		}
+		return faces;
+	}
+
 	public void computeAnimationTables()
 	{
 		if (this.vertexSkins != null)
@@ -560,9 +660,9 @@ public class ModelDefinition
 
 	private void reset()
 	{
-		vertexNormals = null;
-		faceNormals = null;
-		faceTextureUCoordinates = faceTextureVCoordinates = null;
+		vertexNormalsX = vertexNormalsY = vertexNormalsZ = vertexNormalsMagnitude = null;
+		faceNormalsX = faceNormalsY = faceNormalsZ = null;
+		faceTextureU = faceTextureV = null;
 	}
 
 	public void resize(int var1, int var2, int var3)
@@ -24,6 +24,7 @@
  */
 package net.runelite.cache.definitions.loaders;
 
+import java.nio.ByteBuffer;
 import net.runelite.cache.definitions.LocationsDefinition;
 import net.runelite.cache.io.InputStream;
 import net.runelite.cache.region.Location;
@@ -32,6 +33,11 @@ import net.runelite.cache.region.Position;
 public class LocationsLoader
 {
 	public LocationsDefinition load(int regionX, int regionY, byte[] b)
+	{
+		return load(regionX, regionY, ByteBuffer.wrap(b));
+	}
+
+	public LocationsDefinition load(int regionX, int regionY, ByteBuffer b)
 	{
 		LocationsDefinition loc = new LocationsDefinition();
 		loc.setRegionX(regionX);
@@ -40,7 +46,7 @@ public class LocationsLoader
 		return loc;
 	}
 
-	private void loadLocations(LocationsDefinition loc, byte[] b)
+	private void loadLocations(LocationsDefinition loc, ByteBuffer b)
 	{
 		InputStream buf = new InputStream(b);
 
@@ -24,6 +24,7 @@
  */
 package net.runelite.cache.definitions.loaders;
 
+import java.nio.ByteBuffer;
 import net.runelite.cache.definitions.MapDefinition;
 import net.runelite.cache.definitions.MapDefinition.Tile;
 import net.runelite.cache.io.InputStream;
@@ -34,6 +35,11 @@ import static net.runelite.cache.region.Region.Z;
 public class MapLoader
 {
 	public MapDefinition load(int regionX, int regionY, byte[] b)
+	{
+		return load(regionX, regionY, ByteBuffer.wrap(b));
+	}
+
+	public MapDefinition load(int regionX, int regionY, ByteBuffer b)
 	{
 		MapDefinition map = new MapDefinition();
 		map.setRegionX(regionX);
@@ -42,7 +48,7 @@ public class MapLoader
 		return map;
 	}
 
-	private void loadTerrain(MapDefinition map, byte[] buf)
+	private void loadTerrain(MapDefinition map, ByteBuffer buf)
 	{
 		Tile[][][] tiles = map.getTiles();
 
@@ -1,16 +1,25 @@
 package net.runelite.cache.definitions.loaders;
 
+import java.nio.ByteBuffer;
 import net.runelite.cache.definitions.ModelDefinition;
 import net.runelite.cache.io.InputStream;
 
 public class ModelLoader
 {
 	public ModelDefinition load(int modelId, byte[] b)
+	{
+		return load(modelId, ByteBuffer.wrap(b));
+	}
+
+	public ModelDefinition load(int modelId, ByteBuffer b)
 	{
 		ModelDefinition def = new ModelDefinition();
 		def.id = modelId;
 
-		if (b[b.length - 1] == -1 && b[b.length - 2] == -1)
+		// offsets are relative to the position of b, like InputStream
+		b = b.slice();
+
+		if (b.get(b.limit() - 1) == -1 && b.get(b.limit() - 2) == -1)
 		{
 			this.load1(def, b);
 		}
@@ -26,7 +35,7 @@ public class ModelLoader
 		return def;
 	}
 
-	private void load1(ModelDefinition model, byte[] var1)
+	private void load1(ModelDefinition model, ByteBuffer var1)
 	{
 		InputStream var2 = new InputStream(var1);
 		InputStream var24 = new InputStream(var1);
@@ -35,7 +44,7 @@ public class ModelLoader
 		InputStream var6 = new InputStream(var1);
 		InputStream var55 = new InputStream(var1);
 		InputStream var51 = new InputStream(var1);
-		var2.setOffset(var1.length - 23);
+		var2.setOffset(var1.limit() - 23);
 		int verticeCount = var2.readUnsignedShort();
 		int triangleCount = var2.readUnsignedShort();
 		int textureTriangleCount = var2.readUnsignedByte();
@@ -426,7 +435,7 @@ public class ModelLoader
 		}
 	}
 
-	private void load2(ModelDefinition model, byte[] var1)
+	private void load2(ModelDefinition model, ByteBuffer var1)
 	{
 		boolean var2 = false;
 		boolean var43 = false;
@@ -435,7 +444,7 @@ public class ModelLoader
 		InputStream var26 = new InputStream(var1);
 		InputStream var9 = new InputStream(var1);
 		InputStream var3 = new InputStream(var1);
-		var5.setOffset(var1.length - 18);
+		var5.setOffset(var1.limit() - 18);
 		int var10 = var5.readUnsignedShort();
 		int var11 = var5.readUnsignedShort();
 		int var12 = var5.readUnsignedByte();
@@ -145,7 +145,14 @@ public class Archive
 	public ArchiveFiles getFiles(byte[] data, int[] keys) throws IOException
 	{
 		byte[] decompressedData = decompress(data, keys);
+		return split(decompressedData);
+	}
 
+	/**
+	 * Splits decompressed archive data into the archive's files
+	 */
+	ArchiveFiles split(byte[] decompressedData)
+	{
 		ArchiveFiles files = new ArchiveFiles();
 		for (FileData fileEntry : fileData)
 		{
@@ -28,9 +28,16 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.fs.jagex.DiskStorage;
 import org.slf4j.Logger;
@@ -126,6 +133,116 @@ public final class Store implements Closeable
 		storage.save(this);
 	}
 
+	/**
+	 * Reads, decompresses and splits every archive of every loaded index on the calling thread. Archives
+	 * which can't be read or decrypted are left out.
+	 *
+	 * @return files of each archive, keyed by archive identity
+	 * @throws IOException
+	 */
+	public Map<Archive, ArchiveFiles> loadArchiveFiles() throws IOException
+	{
+		final Map<Archive, ArchiveFiles> files = new IdentityHashMap<>();
+
+		for (Index index : indexes)
+		{
+			for (Archive archive : index.getArchives())
+			{
+				final ArchiveFiles archiveFiles = loadArchiveFiles(archive);
+				if (archiveFiles != null)
+				{
+					files.put(archive, archiveFiles);
+				}
+			}
+		}
+
+		return files;
+	}
+
+	/**
+	 * Same as {@link #loadArchiveFiles()}, but archives are read, decompressed and split on a fork join
+	 * pool. The storage must support concurrent {@link Storage#loadArchive(Archive)} calls.
+	 *
+	 * @param parallelism number of threads to use
+	 * @return files of each archive, keyed by archive identity
+	 * @throws IOException
+	 */
+	public Map<Archive, ArchiveFiles> loadArchiveFiles(int parallelism) throws IOException
+	{
+		final List<Archive> archives = indexes.stream()
+			.flatMap(index -> index.getArchives().stream())
+			.collect(Collectors.toList());
+
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		final List<ArchiveFiles> loaded;
+
+		try
+		{
+			// parallel streams run in the pool of the task that starts them
+			loaded = pool.submit(() -> archives.parallelStream()
+				.map(archive ->
+				{
+					try
+					{
+						return loadArchiveFiles(archive);
+					}
+					catch (IOException ex)
+					{
+						throw new UncheckedIOException(ex);
+					}
+				})
+				.collect(Collectors.toList()))
+				.get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted loading archives");
+		}
+		catch (ExecutionException ex)
+		{
+			final Throwable cause = ex.getCause();
+			if (cause instanceof UncheckedIOException)
+			{
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			throw new IOException(cause);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+
+		final Map<Archive, ArchiveFiles> files = new IdentityHashMap<>();
+		for (int i = 0; i < archives.size(); ++i)
+		{
+			if (loaded.get(i) != null)
+			{
+				files.put(archives.get(i), loaded.get(i));
+			}
+		}
+
+		return files;
+	}
+
+	private ArchiveFiles loadArchiveFiles(Archive archive) throws IOException
+	{
+		final byte[] data = storage.loadArchive(archive);
+		if (data == null)
+		{
+			logger.debug("Unable to read archive {}/{}", archive.getIndex().getId(), archive.getArchiveId());
+			return null;
+		}
+
+		final byte[] decompressedData = archive.decompress(data);
+		if (decompressedData == null)
+		{
+			return null;
+		}
+
+		return archive.split(decompressedData);
+	}
+
 	public List<Index> getIndexes()
 	{
 		return indexes;
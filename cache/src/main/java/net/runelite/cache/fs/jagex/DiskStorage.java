@@ -121,6 +121,11 @@ public class DiskStorage implements Storage
 		logger.trace("Loading index {}", index.getId());
 
 		byte[] indexData = readIndex(index.getId());
+		loadIndex(index, indexData);
+	}
+
+	static void loadIndex(Index index, byte[] indexData) throws IOException
+	{
 		Container res = Container.decompress(indexData, null);
 		byte[] data = res.data;
 
@@ -147,8 +152,9 @@ public class DiskStorage implements Storage
 		assert res.revision == -1;
 	}
 
+	// synchronized as DataFile and IndexFile readers share a file pointer
 	@Override
-	public byte[] loadArchive(Archive archive) throws IOException
+	public synchronized byte[] loadArchive(Archive archive) throws IOException
 	{
 		Index index = archive.getIndex();
 		IndexFile indexFile = getIndex(index.getId());
@@ -200,7 +206,7 @@ public class DiskStorage implements Storage
 	}
 
 	@Override
-	public void saveArchive(Archive a, byte[] archiveData) throws IOException
+	public synchronized void saveArchive(Archive a, byte[] archiveData) throws IOException
 	{
 		Index index = a.getIndex();
 		IndexFile indexFile = getIndex(index.getId());
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read only {@link Storage} for the Jagex disk cache which memory maps the data and index files. Reads use
+ * absolute offsets into the mappings, so archives can be loaded from many threads at once without locking.
+ * The cache files must not be modified while they are mapped.
+ */
+public class MappedDiskStorage implements Storage
+{
+	private static final Logger logger = LoggerFactory.getLogger(MappedDiskStorage.class);
+
+	private static final String MAIN_FILE_CACHE_DAT = "main_file_cache.dat2";
+	private static final String MAIN_FILE_CACHE_IDX = "main_file_cache.idx";
+
+	private static final int SECTOR_SIZE = 520;
+	private static final int INDEX_ENTRY_LEN = 6;
+	private static final int INDEX_255 = 255;
+
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+	private final File folder;
+
+	private final ByteBuffer data;
+	private final ByteBuffer index255;
+	private final ByteBuffer[] indexFiles = new ByteBuffer[INDEX_255];
+
+	public MappedDiskStorage(File folder) throws IOException
+	{
+		this.folder = folder;
+
+		this.data = map(new File(folder, MAIN_FILE_CACHE_DAT));
+		this.index255 = map(new File(folder, MAIN_FILE_CACHE_IDX + INDEX_255));
+	}
+
+	private static ByteBuffer map(File file) throws IOException
+	{
+		if (!file.exists())
+		{
+			return EMPTY;
+		}
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			if (channel.size() > Integer.MAX_VALUE)
+			{
+				throw new IOException("Unable to map " + file + ", file is too large");
+			}
+
+			// the mapping remains valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	@Override
+	public void init(Store store) throws IOException
+	{
+		int indexCount = index255.limit() / INDEX_ENTRY_LEN;
+		for (int i = 0; i < indexCount; ++i)
+		{
+			store.addIndex(i);
+			indexFiles[i] = map(new File(folder, MAIN_FILE_CACHE_IDX + i));
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		// mapped buffers are released once they are garbage collected
+	}
+
+	@Override
+	public void load(Store store) throws IOException
+	{
+		for (Index index : store.getIndexes())
+		{
+			logger.trace("Loading index {}", index.getId());
+
+			byte[] indexData = read(index255, INDEX_255, index.getId());
+			if (indexData == null)
+			{
+				throw new IOException("Unable to read index " + index.getId());
+			}
+
+			DiskStorage.loadIndex(index, indexData);
+		}
+	}
+
+	@Override
+	public byte[] loadArchive(Archive archive) throws IOException
+	{
+		int indexId = archive.getIndex().getId();
+		ByteBuffer indexFile = indexId < indexFiles.length ? indexFiles[indexId] : null;
+
+		if (indexFile == null)
+		{
+			logger.debug("can't read archive {} from unknown index {}", archive.getArchiveId(), indexId);
+			return null;
+		}
+
+		return read(indexFile, indexId, archive.getArchiveId());
+	}
+
+	@Override
+	public void save(Store store) throws IOException
+	{
+		throw new UnsupportedOperationException("MappedDiskStorage is read only");
+	}
+
+	@Override
+	public void saveArchive(Archive archive, byte[] data) throws IOException
+	{
+		throw new UnsupportedOperationException("MappedDiskStorage is read only");
+	}
+
+	private byte[] read(ByteBuffer indexFile, int indexId, int archiveId)
+	{
+		int pos = archiveId * INDEX_ENTRY_LEN;
+		if (archiveId < 0 || pos + INDEX_ENTRY_LEN > indexFile.limit())
+		{
+			logger.debug("short read for id {} on index {}", archiveId, indexId);
+			return null;
+		}
+
+		int length = getMedium(indexFile, pos);
+		int sector = getMedium(indexFile, pos + 3);
+
+		if (length <= 0 || sector <= 0)
+		{
+			logger.debug("invalid length or sector {}/{}", length, sector);
+			return null;
+		}
+
+		logger.trace("Loading archive {} for index {} from sector {} length {}", archiveId, indexId, sector, length);
+
+		return readSectors(indexId, archiveId, sector, length);
+	}
+
+	/**
+	 * Follows the sector chain of an archive, see {@link DataFile#read(int, int, int, int)}
+	 */
+	private byte[] readSectors(int indexId, int archiveId, int sector, int size)
+	{
+		final int sectors = data.limit() / SECTOR_SIZE;
+
+		if (sector > sectors)
+		{
+			logger.warn("bad read, dat length {}, requested sector {}", data.limit(), sector);
+			return null;
+		}
+
+		// the duplicate is only used for the bulk copy out of the mapping, which needs a position
+		final ByteBuffer buffer = data.duplicate();
+		final byte[] out = new byte[size];
+		final int headerSize = archiveId > 0xFFFF ? 10 : 8;
+
+		for (int part = 0, readBytesCount = 0, nextSector;
+			size > readBytesCount;
+			sector = nextSector)
+		{
+			if (sector == 0)
+			{
+				logger.warn("Unexpected end of file");
+				return null;
+			}
+
+			final int pos = sector * SECTOR_SIZE;
+			final int dataBlockSize = Math.min(size - readBytesCount, SECTOR_SIZE - headerSize);
+
+			if (pos + headerSize + dataBlockSize > buffer.limit())
+			{
+				logger.warn("Short read when reading file data for {}/{}", indexId, archiveId);
+				return null;
+			}
+
+			int currentArchive;
+			int currentPart;
+			int currentIndex;
+			if (headerSize == 10)
+			{
+				currentArchive = buffer.getInt(pos);
+				currentPart = buffer.getShort(pos + 4) & 0xFFFF;
+				nextSector = getMedium(buffer, pos + 6);
+				currentIndex = buffer.get(pos + 9) & 0xFF;
+			}
+			else
+			{
+				currentArchive = buffer.getShort(pos) & 0xFFFF;
+				currentPart = buffer.getShort(pos + 2) & 0xFFFF;
+				nextSector = getMedium(buffer, pos + 4);
+				currentIndex = buffer.get(pos + 7) & 0xFF;
+			}
+
+			if (archiveId != currentArchive || currentPart != part || indexId != currentIndex)
+			{
+				logger.warn("data mismatch {} != {}, {} != {}, {} != {}",
+					archiveId, currentArchive,
+					part, currentPart,
+					indexId, currentIndex);
+				return null;
+			}
+
+			if (nextSector > sectors)
+			{
+				logger.warn("Invalid next sector");
+				return null;
+			}
+
+			buffer.position(pos + headerSize);
+			buffer.get(out, readBytesCount, dataBlockSize);
+			readBytesCount += dataBlockSize;
+
+			++part;
+		}
+
+		return out;
+	}
+
+	private static int getMedium(ByteBuffer buffer, int pos)
+	{
+		return ((buffer.get(pos) & 0xFF) << 16)
+			| ((buffer.get(pos + 1) & 0xFF) << 8)
+			| (buffer.get(pos + 2) & 0xFF);
+	}
+}
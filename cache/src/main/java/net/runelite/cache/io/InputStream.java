@@ -25,19 +25,12 @@
 package net.runelite.cache.io;
 
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 
 public class InputStream extends java.io.InputStream
 {
-	private static final char[] CHARACTERS = new char[]
-		{
-			'\u20ac', '\u0000', '\u201a', '\u0192', '\u201e', '\u2026',
-			'\u2020', '\u2021', '\u02c6', '\u2030', '\u0160', '\u2039',
-			'\u0152', '\u0000', '\u017d', '\u0000', '\u0000', '\u2018',
-			'\u2019', '\u201c', '\u201d', '\u2022', '\u2013', '\u2014',
-			'\u02dc', '\u2122', '\u0161', '\u203a', '\u0153', '\u0000',
-			'\u017e', '\u0178'
-		};
+	private static final StringTable STRINGS = new StringTable();
 
 	private final ByteBuffer buffer;
 
@@ -46,9 +39,29 @@ public class InputStream extends java.io.InputStream
 		this.buffer = ByteBuffer.wrap(buffer);
 	}
 
+	/**
+	 * Read from the remaining bytes of {@code buffer} without copying them. The buffer may be
+	 * direct or memory mapped. Offsets are relative to the buffer's position, and its position
+	 * is not changed by reading from the stream.
+	 *
+	 * @param buffer buffer to read
+	 */
+	public InputStream(ByteBuffer buffer)
+	{
+		// slice() is always big endian
+		this.buffer = buffer.slice();
+	}
+
+	/**
+	 * Get the array backing this stream, only supported for streams over a whole heap array
+	 */
 	public byte[] getArray()
 	{
-		assert buffer.hasArray();
+		if (!buffer.hasArray() || buffer.arrayOffset() != 0)
+		{
+			throw new UnsupportedOperationException("stream is not backed by an array");
+		}
+
 		return buffer.array();
 	}
 
@@ -173,31 +186,37 @@ public class InputStream extends java.io.InputStream
 
 	public String readString()
 	{
-		StringBuilder sb = new StringBuilder();
-
-		for (; ; )
+		final int start = buffer.position();
+		final int limit = buffer.limit();
+
+		// find the terminator and hash the string in one pass, with the bounds check hoisted
+		// out of the byte reads
+		int end = start;
+		int hash = 0;
+		if (buffer.hasArray())
 		{
-			int ch = this.readUnsignedByte();
-
-			if (ch == 0)
+			final byte[] array = buffer.array();
+			final int offset = buffer.arrayOffset();
+			for (int b; end < limit && (b = array[offset + end]) != 0; ++end)
 			{
-				break;
+				hash = StringTable.hash(hash, b);
 			}
-
-			if (ch >= 128 && ch < 160)
+		}
+		else
+		{
+			for (int b; end < limit && (b = buffer.get(end)) != 0; ++end)
 			{
-				char var7 = CHARACTERS[ch - 128];
-				if (0 == var7)
-				{
-					var7 = '?';
-				}
-
-				ch = var7;
+				hash = StringTable.hash(hash, b);
 			}
+		}
 
-			sb.append((char) ch);
+		if (end >= limit)
+		{
+			throw new BufferUnderflowException();
 		}
-		return sb.toString();
+
+		buffer.position(end + 1);
+		return STRINGS.decode(buffer, start, end, hash);
 	}
 
 	public String readStringOrNull()
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes the cp1252 strings of the cache, interning short strings in a direct mapped table.
+ * Names and options repeat across thousands of definitions, so once a string is in the table
+ * reading it again does not allocate. A collision replaces the entry in its slot. Strings are
+ * immutable, so the table can be shared between threads without locking.
+ */
+final class StringTable
+{
+	private static final char[] CHARACTERS = new char[]
+		{
+			'\u20ac', '\u0000', '\u201a', '\u0192', '\u201e', '\u2026',
+			'\u2020', '\u2021', '\u02c6', '\u2030', '\u0160', '\u2039',
+			'\u0152', '\u0000', '\u017d', '\u0000', '\u0000', '\u2018',
+			'\u2019', '\u201c', '\u201d', '\u2022', '\u2013', '\u2014',
+			'\u02dc', '\u2122', '\u0161', '\u203a', '\u0153', '\u0000',
+			'\u017e', '\u0178'
+		};
+
+	private static final int SIZE = 8192; // must be a power of 2
+	private static final int MAX_LENGTH = 64; // longer strings are not interned
+
+	private final String[] strings = new String[SIZE];
+
+	/**
+	 * Decode the string in {@code buffer} between {@code start} and {@code end}
+	 *
+	 * @param buffer buffer containing the string
+	 * @param start absolute position of the first byte of the string
+	 * @param end absolute position of the terminator
+	 * @param hash hash of the bytes of the string, as computed by {@link #hash(int, int)}
+	 * @return the string
+	 */
+	String decode(ByteBuffer buffer, int start, int end, int hash)
+	{
+		final int length = end - start;
+		if (length > MAX_LENGTH)
+		{
+			return decode(buffer, start, length);
+		}
+
+		final int slot = (hash ^ hash >>> 16) & (SIZE - 1);
+		String string = strings[slot];
+		if (string != null && matches(string, buffer, start, length))
+		{
+			return string;
+		}
+
+		string = decode(buffer, start, length);
+		strings[slot] = string;
+		return string;
+	}
+
+	static int hash(int hash, int b)
+	{
+		return 31 * hash + b;
+	}
+
+	private static boolean matches(String string, ByteBuffer buffer, int start, int length)
+	{
+		if (string.length() != length)
+		{
+			return false;
+		}
+
+		for (int i = 0; i < length; ++i)
+		{
+			if (string.charAt(i) != decodeChar(buffer.get(start + i) & 0xFF))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static String decode(ByteBuffer buffer, int start, int length)
+	{
+		final char[] chars = new char[length];
+		for (int i = 0; i < length; ++i)
+		{
+			chars[i] = decodeChar(buffer.get(start + i) & 0xFF);
+		}
+		return new String(chars);
+	}
+
+	private static char decodeChar(int ch)
+	{
+		if (ch >= 128 && ch < 160)
+		{
+			char c = CHARACTERS[ch - 128];
+			return c == 0 ? '?' : c;
+		}
+
+		return (char) ch;
+	}
+}
@@ -24,31 +24,164 @@
  */
 package net.runelite.cache.item;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import net.runelite.cache.definitions.ItemDefinition;
 import net.runelite.cache.definitions.ModelDefinition;
 import net.runelite.cache.definitions.providers.ItemProvider;
 import net.runelite.cache.definitions.providers.ModelProvider;
 import net.runelite.cache.definitions.providers.SpriteProvider;
 import net.runelite.cache.definitions.providers.TextureProvider;
-import net.runelite.cache.models.FaceNormal;
-import net.runelite.cache.models.VertexNormal;
 
+/**
+ * Draws item icons. A factory can be shared between threads, each draw borrows a rasterizer from a
+ * small pool while the textures, color palette and lit item models are shared.
+ */
 public class ItemSpriteFactory
 {
-	public static final BufferedImage createSprite(ItemProvider itemProvider, ModelProvider modelProvider,
-		SpriteProvider spriteProvider, TextureProvider textureProvider,
-		int itemId, int quantity, int border, int shadowColor,
+	public static final int SPRITE_WIDTH = 36;
+	public static final int SPRITE_HEIGHT = 32;
+
+	private static final int MAX_MODELS = 4096; // max number of lit models to keep
+	private static final int[] COLOR_PALETTE = new ColorPalette(0.6d, 0, 512).getColorPalette();
+
+	private final ItemProvider itemProvider;
+	private final ModelProvider modelProvider;
+	private final RSTextureProvider textureProvider;
+	// idle contexts, only as many as there are cores are kept so a busy server doesn't pin one per thread
+	private final BlockingQueue<RenderContext> contexts = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+	private final Cache<Integer, Model> models = CacheBuilder.newBuilder()
+		.maximumSize(MAX_MODELS)
+		.build();
+
+	public ItemSpriteFactory(ItemProvider itemProvider, ModelProvider modelProvider,
+		SpriteProvider spriteProvider, TextureProvider textureProvider)
+	{
+		this.itemProvider = itemProvider;
+		this.modelProvider = modelProvider;
+		this.textureProvider = new RSTextureProvider(textureProvider, spriteProvider);
+		this.textureProvider.loadTextures();
+	}
+
+	public BufferedImage createSprite(int itemId, int quantity, int border, int shadowColor,
 		boolean noted) throws IOException
 	{
-		SpritePixels spritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
-			itemId, quantity, border, shadowColor, noted);
+		SpritePixels spritePixels = draw(itemId, quantity, border, shadowColor, noted);
 		return spritePixels == null ? null : spritePixels.toBufferedImage();
 	}
 
-	private static final SpritePixels createSpritePixels(ItemProvider itemProvider, ModelProvider modelProvider,
-		SpriteProvider spriteProvider, TextureProvider textureProvider,
+	/**
+	 * Draw the icons of many items into one image, using a fork join pool. The icon of
+	 * {@code itemIds[i]} is at column {@code i % columns}, row {@code i / columns}, each cell being
+	 * {@link #SPRITE_WIDTH} by {@link #SPRITE_HEIGHT}. Items without a model leave their cell empty.
+	 *
+	 * @param itemIds items to draw
+	 * @param columns number of icons per row
+	 * @param parallelism number of threads to draw with
+	 * @return the atlas
+	 * @throws IOException
+	 */
+	public BufferedImage createAtlas(int[] itemIds, int columns, int quantity, int border, int shadowColor,
+		int parallelism) throws IOException
+	{
+		final int rows = (itemIds.length + columns - 1) / columns;
+		final int width = columns * SPRITE_WIDTH;
+		final int height = Math.max(rows, 1) * SPRITE_HEIGHT;
+		final int[] pixels = new int[width * height];
+
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try
+		{
+			// parallel streams run in the pool of the task that starts them
+			pool.submit(() -> IntStream.range(0, itemIds.length).parallel().forEach(i ->
+			{
+				SpritePixels sprite;
+				try
+				{
+					sprite = draw(itemIds[i], quantity, border, shadowColor, false);
+				}
+				catch (IOException ex)
+				{
+					throw new UncheckedIOException(ex);
+				}
+
+				if (sprite == null)
+				{
+					return;
+				}
+
+				// each cell is only written by one task
+				int pos = (i / columns) * SPRITE_HEIGHT * width + (i % columns) * SPRITE_WIDTH;
+				for (int y = 0; y < SPRITE_HEIGHT; ++y, pos += width)
+				{
+					for (int x = 0; x < SPRITE_WIDTH; ++x)
+					{
+						int pixel = sprite.pixels[y * SPRITE_WIDTH + x];
+						pixels[pos + x] = pixel != 0 ? pixel | 0xff000000 : 0;
+					}
+				}
+			})).get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted drawing items");
+		}
+		catch (ExecutionException ex)
+		{
+			final Throwable cause = ex.getCause();
+			if (cause instanceof UncheckedIOException)
+			{
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			throw new IOException(cause);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+
+		BufferedImage atlas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		atlas.setRGB(0, 0, width, height, pixels, 0, width);
+		return atlas;
+	}
+
+	@VisibleForTesting
+	int getIdleContexts()
+	{
+		return contexts.size();
+	}
+
+	private SpritePixels draw(int itemId, int quantity, int border, int shadowColor, boolean noted) throws IOException
+	{
+		RenderContext context = contexts.poll();
+		if (context == null)
+		{
+			context = new RenderContext();
+		}
+
+		try
+		{
+			return createSpritePixels(context, itemId, quantity, border, shadowColor, noted);
+		}
+		finally
+		{
+			// dropped if the pool is already full
+			contexts.offer(context);
+		}
+	}
+
+	private SpritePixels createSpritePixels(RenderContext context,
 		int itemId, int quantity, int border, int shadowColor,
 		boolean noted) throws IOException
 	{
@@ -74,19 +207,26 @@ public class ItemSpriteFactory
 
 		if (item.notedTemplate != -1)
 		{
-			item.updateNote(itemProvider.provide(item.notedTemplate), itemProvider.provide(item.notedID));
+			item = noted(item);
 		}
 
-		Model itemModel = getModel(modelProvider, item);
-		if (itemModel == null)
+		Model litModel = models.getIfPresent(item.id);
+		if (litModel == null)
 		{
-			return null;
+			litModel = getModel(modelProvider, item);
+			if (litModel == null)
+			{
+				return null;
+			}
+			models.put(item.id, litModel);
 		}
 
+		Model itemModel = new Model(litModel, context.modelBuffers);
+
 		SpritePixels auxSpritePixels = null;
 		if (item.notedTemplate != -1)
 		{
-			auxSpritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
+			auxSpritePixels = createSpritePixels(context,
 				item.notedID, 10, 1, 0, true);
 			if (auxSpritePixels == null)
 			{
@@ -95,7 +235,7 @@ public class ItemSpriteFactory
 		}
 		else if (item.boughtTemplateId != -1)
 		{
-			auxSpritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
+			auxSpritePixels = createSpritePixels(context,
 				item.boughtId, quantity, border, shadowColor, false);
 			if (auxSpritePixels == null)
 			{
@@ -104,7 +244,7 @@ public class ItemSpriteFactory
 		}
 		else if (item.placeholderTemplateId != -1)
 		{
-			auxSpritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
+			auxSpritePixels = createSpritePixels(context,
 				item.placeholderId, quantity, 0, 0, false);
 			if (auxSpritePixels == null)
 			{
@@ -112,12 +252,9 @@ public class ItemSpriteFactory
 			}
 		}
 
-		RSTextureProvider rsTextureProvider = new RSTextureProvider(textureProvider, spriteProvider);
-
-		SpritePixels spritePixels = new SpritePixels(36, 32);
-		Graphics3D graphics = new Graphics3D(rsTextureProvider);
-		graphics.setBrightness(0.6d);
-		graphics.setRasterBuffer(spritePixels.pixels, 36, 32);
+		SpritePixels spritePixels = new SpritePixels(SPRITE_WIDTH, SPRITE_HEIGHT);
+		Graphics3D graphics = context.graphics;
+		graphics.setRasterBuffer(spritePixels.pixels, SPRITE_WIDTH, SPRITE_HEIGHT);
 		graphics.reset();
 		graphics.setRasterClipping();
 		graphics.setOffset(16, 16);
@@ -168,7 +305,7 @@ public class ItemSpriteFactory
 			spritePixels.drawShadow(shadowColor);
 		}
 
-		graphics.setRasterBuffer(spritePixels.pixels, 36, 32);
+		graphics.setRasterBuffer(spritePixels.pixels, SPRITE_WIDTH, SPRITE_HEIGHT);
 		if (item.notedTemplate != -1)
 		{
 			auxSpritePixels.drawAtOn(graphics, 0, 0);
@@ -183,6 +320,42 @@ public class ItemSpriteFactory
 		return spritePixels;
 	}
 
+	/**
+	 * Apply the note template to a copy of the definition, the one from the provider is shared with
+	 * other threads and callers. Only the fields used for drawing are copied.
+	 */
+	private ItemDefinition noted(ItemDefinition item) throws IOException
+	{
+		ItemDefinition noted = new ItemDefinition(item.id);
+		noted.resizeX = item.resizeX;
+		noted.resizeY = item.resizeY;
+		noted.resizeZ = item.resizeZ;
+		noted.ambient = item.ambient;
+		noted.contrast = item.contrast;
+		noted.notedID = item.notedID;
+		noted.notedTemplate = item.notedTemplate;
+		noted.boughtId = item.boughtId;
+		noted.boughtTemplateId = item.boughtTemplateId;
+		noted.placeholderId = item.placeholderId;
+		noted.placeholderTemplateId = item.placeholderTemplateId;
+		noted.updateNote(itemProvider.provide(item.notedTemplate), itemProvider.provide(item.notedID));
+		return noted;
+	}
+
+	/**
+	 * Rasterizer and model scratch space, used by one drawing thread at a time
+	 */
+	private class RenderContext
+	{
+		private final Graphics3D graphics = new Graphics3D(textureProvider);
+		private final ModelBuffers modelBuffers = new ModelBuffers();
+
+		private RenderContext()
+		{
+			graphics.colorPalette = COLOR_PALETTE;
+		}
+	}
+
 	private static Model getModel(ModelProvider modelProvider, ItemDefinition item) throws IOException
 	{
 		Model itemModel;
@@ -328,17 +501,15 @@ public class ItemSpriteFactory
 				faceType = 2;
 			}
 
-			VertexNormal vertexNormal;
+			int vertex;
 			int tmp;
-			FaceNormal faceNormal;
 			if (faceTexture == -1)
 			{
 				if (faceType != 0)
 				{
 					if (faceType == 1)
 					{
-						faceNormal = def.faceNormals[faceIdx];
-						tmp = (y * faceNormal.y + z * faceNormal.z + x * faceNormal.x) / (var7 / 2 + var7) + ambient;
+						tmp = (y * def.faceNormalsY[faceIdx] + z * def.faceNormalsZ[faceIdx] + x * def.faceNormalsX[faceIdx]) / (var7 / 2 + var7) + ambient;
 						litModel.field1856[faceIdx] = method2608(def.faceColors[faceIdx] & '\uffff', tmp);
 						litModel.field1823[faceIdx] = -1;
 					}
@@ -355,17 +526,17 @@ public class ItemSpriteFactory
 				else
 				{
 					int var15 = def.faceColors[faceIdx] & '\uffff';
-					vertexNormal = def.vertexNormals[def.faceVertexIndices1[faceIdx]];
+					vertex = def.faceVertexIndices1[faceIdx];
 
-					tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+					tmp = (y * def.vertexNormalsY[vertex] + z * def.vertexNormalsZ[vertex] + x * def.vertexNormalsX[vertex]) / (var7 * def.vertexNormalsMagnitude[vertex]) + ambient;
 					litModel.field1856[faceIdx] = method2608(var15, tmp);
-					vertexNormal = def.vertexNormals[def.faceVertexIndices2[faceIdx]];
+					vertex = def.faceVertexIndices2[faceIdx];
 
-					tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+					tmp = (y * def.vertexNormalsY[vertex] + z * def.vertexNormalsZ[vertex] + x * def.vertexNormalsX[vertex]) / (var7 * def.vertexNormalsMagnitude[vertex]) + ambient;
 					litModel.field1854[faceIdx] = method2608(var15, tmp);
-					vertexNormal = def.vertexNormals[def.faceVertexIndices3[faceIdx]];
+					vertex = def.faceVertexIndices3[faceIdx];
 
-					tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+					tmp = (y * def.vertexNormalsY[vertex] + z * def.vertexNormalsZ[vertex] + x * def.vertexNormalsX[vertex]) / (var7 * def.vertexNormalsMagnitude[vertex]) + ambient;
 					litModel.field1823[faceIdx] = method2608(var15, tmp);
 				}
 			}
@@ -373,8 +544,7 @@ public class ItemSpriteFactory
 			{
 				if (faceType == 1)
 				{
-					faceNormal = def.faceNormals[faceIdx];
-					tmp = (y * faceNormal.y + z * faceNormal.z + x * faceNormal.x) / (var7 / 2 + var7) + ambient;
+					tmp = (y * def.faceNormalsY[faceIdx] + z * def.faceNormalsZ[faceIdx] + x * def.faceNormalsX[faceIdx]) / (var7 / 2 + var7) + ambient;
 					litModel.field1856[faceIdx] = bound2to126(tmp);
 					litModel.field1823[faceIdx] = -1;
 				}
@@ -385,17 +555,17 @@ public class ItemSpriteFactory
 			}
 			else
 			{
-				vertexNormal = def.vertexNormals[def.faceVertexIndices1[faceIdx]];
+				vertex = def.faceVertexIndices1[faceIdx];
 
-				tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+				tmp = (y * def.vertexNormalsY[vertex] + z * def.vertexNormalsZ[vertex] + x * def.vertexNormalsX[vertex]) / (var7 * def.vertexNormalsMagnitude[vertex]) + ambient;
 				litModel.field1856[faceIdx] = bound2to126(tmp);
-				vertexNormal = def.vertexNormals[def.faceVertexIndices2[faceIdx]];
+				vertex = def.faceVertexIndices2[faceIdx];
 
-				tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+				tmp = (y * def.vertexNormalsY[vertex] + z * def.vertexNormalsZ[vertex] + x * def.vertexNormalsX[vertex]) / (var7 * def.vertexNormalsMagnitude[vertex]) + ambient;
 				litModel.field1854[faceIdx] = bound2to126(tmp);
-				vertexNormal = def.vertexNormals[def.faceVertexIndices3[faceIdx]];
+				vertex = def.faceVertexIndices3[faceIdx];
 
-				tmp = (y * vertexNormal.y + z * vertexNormal.z + x * vertexNormal.x) / (var7 * vertexNormal.magnitude) + ambient;
+				tmp = (y * def.vertexNormalsY[vertex] + z * def.vertexNormalsZ[vertex] + x * def.vertexNormalsX[vertex]) / (var7 * def.vertexNormalsMagnitude[vertex]) + ambient;
 				litModel.field1823[faceIdx] = bound2to126(tmp);
 			}
 		}
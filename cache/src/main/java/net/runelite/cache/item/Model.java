@@ -26,24 +26,25 @@ package net.runelite.cache.item;
 
 class Model extends Renderable
 {
-	boolean[] field1887 = new boolean[4700];
-	boolean[] field1885 = new boolean[4700];
-	int[] modelViewportYs = new int[4700];
-	int[] modelViewportXs = new int[4700];
-	int[] modelViewportZs = new int[4700];
-	int[] yViewportBuffer = new int[4700];
-	int[] field1839 = new int[4700];
-	int[] field1869 = new int[4700];
-	int[] field1871 = new int[1600];
-	int[][] field1868 = new int[1600][512];
-	int[] field1872 = new int[12];
-	int[][] field1874 = new int[12][2000];
-	int[] field1857 = new int[2000];
-	int[] field1863 = new int[2000];
-	int[] field1877 = new int[12];
-	int[] field1831 = new int[10];
-	int[] field1837 = new int[10];
-	int[] xViewportBuffer = new int[10];
+	// scratch space from ModelBuffers, only set on models which are being drawn
+	boolean[] field1887;
+	boolean[] field1885;
+	int[] modelViewportYs;
+	int[] modelViewportXs;
+	int[] modelViewportZs;
+	int[] yViewportBuffer;
+	int[] field1839;
+	int[] field1869;
+	int[] field1871;
+	int[][] field1868;
+	int[] field1872;
+	int[][] field1874;
+	int[] field1857;
+	int[] field1863;
+	int[] field1877;
+	int[] field1831;
+	int[] field1837;
+	int[] xViewportBuffer;
 	static int[] Model_sine;
 	static int[] Model_cosine;
 	static int[] field1890;
@@ -96,6 +97,54 @@ class Model extends Renderable
 		this.extremeZ = -1;
 	}
 
+	/**
+	 * Create a model sharing the lit geometry of {@code model}, which draws using {@code buffers}
+	 */
+	Model(Model model, ModelBuffers buffers)
+	{
+		this();
+		this.verticesCount = model.verticesCount;
+		this.verticesX = model.verticesX;
+		this.verticesY = model.verticesY;
+		this.verticesZ = model.verticesZ;
+		this.indicesCount = model.indicesCount;
+		this.indices1 = model.indices1;
+		this.indices2 = model.indices2;
+		this.indices3 = model.indices3;
+		this.field1856 = model.field1856;
+		this.field1854 = model.field1854;
+		this.field1823 = model.field1823;
+		this.field1838 = model.field1838;
+		this.field1882 = model.field1882;
+		this.field1840 = model.field1840;
+		this.field1841 = model.field1841;
+		this.field1842 = model.field1842;
+		this.field1852 = model.field1852;
+		this.field1844 = model.field1844;
+		this.field1865 = model.field1865;
+		this.field1846 = model.field1846;
+		this.isItemModel = model.isItemModel;
+
+		this.field1887 = buffers.field1887;
+		this.field1885 = buffers.field1885;
+		this.modelViewportYs = buffers.modelViewportYs;
+		this.modelViewportXs = buffers.modelViewportXs;
+		this.modelViewportZs = buffers.modelViewportZs;
+		this.yViewportBuffer = buffers.yViewportBuffer;
+		this.field1839 = buffers.field1839;
+		this.field1869 = buffers.field1869;
+		this.field1871 = buffers.field1871;
+		this.field1868 = buffers.field1868;
+		this.field1872 = buffers.field1872;
+		this.field1874 = buffers.field1874;
+		this.field1857 = buffers.field1857;
+		this.field1863 = buffers.field1863;
+		this.field1877 = buffers.field1877;
+		this.field1831 = buffers.field1831;
+		this.field1837 = buffers.field1837;
+		this.xViewportBuffer = buffers.xViewportBuffer;
+	}
+
 	public void calculateBoundsCylinder()
 	{
 		if (this.boundsType != 1)
@@ -64,6 +64,18 @@ public class RSTextureProvider
 		}
 	}
 
+	/**
+	 * Generate the pixels of every texture up front. Otherwise they are generated on first use
+	 * and stored on the texture definitions, which is not safe while drawing from multiple threads.
+	 */
+	public void loadTextures()
+	{
+		for (int i = 0; i < textures.length; ++i)
+		{
+			load(i);
+		}
+	}
+
 	public int[] load(int var1)
 	{
 		TextureDefinition var2 = this.textures[var1];
@@ -27,7 +27,9 @@ package net.runelite.cache.region;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.LocationsDefinition;
 import net.runelite.cache.definitions.MapDefinition;
@@ -37,6 +39,7 @@ import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.util.Djb2;
 import net.runelite.cache.util.XteaKeyManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -116,6 +119,61 @@ public class RegionLoader
 		return region;
 	}
 
+	/**
+	 * Find the regions whose map or location archives differ between two caches,
+	 * including regions which were added or removed.
+	 *
+	 * @param from the old cache
+	 * @param to the new cache
+	 * @return ids of the changed regions
+	 */
+	public static Set<Integer> findChangedRegions(Store from, Store to)
+	{
+		Map<Integer, Archive> fromArchives = archivesByName(from.getIndex(IndexType.MAPS));
+		Map<Integer, Archive> toArchives = archivesByName(to.getIndex(IndexType.MAPS));
+
+		Set<Integer> changed = new HashSet<>();
+		for (int i = 0; i < MAX_REGION; ++i)
+		{
+			int x = i >> 8;
+			int y = i & 0xFF;
+
+			int mapHash = Djb2.hash("m" + x + "_" + y);
+			int landHash = Djb2.hash("l" + x + "_" + y);
+
+			if (archiveChanged(fromArchives.get(mapHash), toArchives.get(mapHash))
+				|| archiveChanged(fromArchives.get(landHash), toArchives.get(landHash)))
+			{
+				changed.add(i);
+			}
+		}
+
+		return changed;
+	}
+
+	private static Map<Integer, Archive> archivesByName(Index index)
+	{
+		Map<Integer, Archive> archives = new HashMap<>();
+		if (index != null)
+		{
+			for (Archive archive : index.getArchives())
+			{
+				archives.put(archive.getNameHash(), archive);
+			}
+		}
+		return archives;
+	}
+
+	private static boolean archiveChanged(Archive from, Archive to)
+	{
+		if (from == null || to == null)
+		{
+			return from != to;
+		}
+
+		return from.getCrc() != to.getCrc() || from.getRevision() != to.getRevision();
+	}
+
 	public void calculateBounds()
 	{
 		for (Region region : regions.values())
@@ -27,10 +27,15 @@ package net.runelite.cache;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
 import javax.imageio.ImageIO;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.region.Region;
 import net.runelite.cache.region.RegionLoader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
@@ -97,4 +102,60 @@ public class MapImageDumperTest
 			}
 		}
 	}
+
+	@Test
+	@Ignore
+	public void dumpTiles() throws IOException
+	{
+		File base = StoreLocation.LOCATION,
+			outDir = folder.newFolder();
+
+		try (Store store = new Store(base))
+		{
+			store.load();
+
+			MapImageDumper dumper = new MapImageDumper(store);
+			dumper.load();
+
+			for (int i = 0; i < Region.Z; ++i)
+			{
+				File imageFile = new File(outDir, "img-" + i + ".png");
+
+				dumper.writeMap(i, imageFile, Runtime.getRuntime().availableProcessors());
+				logger.info("Wrote image {}", imageFile);
+
+				dumper.drawTiles(i, outDir, Runtime.getRuntime().availableProcessors());
+				logger.info("Wrote tiles for plane {} to {}", i, outDir);
+			}
+		}
+	}
+
+	@Test
+	@Ignore
+	public void drawChangedTiles() throws IOException
+	{
+		File base = StoreLocation.LOCATION,
+			outDir = folder.newFolder();
+
+		try (Store store = new Store(base);
+			Store empty = new Store(folder.newFolder()))
+		{
+			store.load();
+
+			MapImageDumper dumper = new MapImageDumper(store);
+			dumper.load();
+
+			// every region is new compared to an empty cache
+			Set<Integer> drawn = dumper.drawChangedTiles(0, outDir, empty, Runtime.getRuntime().availableProcessors());
+			assertFalse(drawn.isEmpty());
+			for (int regionId : drawn)
+			{
+				assertTrue(MapImageDumper.getTileFile(outDir, 0, regionId).exists());
+			}
+			logger.info("Drew {} tiles to {}", drawn.size(), outDir);
+
+			// and nothing changed compared to itself
+			assertEquals(Collections.emptySet(), dumper.drawChangedTiles(0, outDir, store, 1));
+		}
+	}
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class PngStreamWriterTest
+{
+	@Test
+	public void testWrite() throws IOException
+	{
+		// large enough to span several IDAT chunks
+		final int width = 300, height = 200;
+
+		int[] pixels = new int[width * height];
+		for (int i = 0; i < pixels.length; ++i)
+		{
+			pixels[i] = i * 0x9E37_79B9 & 0xFF_FFFF;
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PngStreamWriter png = new PngStreamWriter(out, width, height))
+		{
+			for (int y = 0; y < height; ++y)
+			{
+				png.writeRow(pixels, y * width);
+			}
+		}
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(width, image.getWidth());
+		assertEquals(height, image.getHeight());
+
+		for (int y = 0; y < height; ++y)
+		{
+			for (int x = 0; x < width; ++x)
+			{
+				assertEquals(pixels[y * width + x], image.getRGB(x, y) & 0xFF_FFFF);
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingRows() throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PngStreamWriter png = new PngStreamWriter(out, 2, 2))
+		{
+			png.writeRow(new int[2], 0);
+		}
+	}
+}
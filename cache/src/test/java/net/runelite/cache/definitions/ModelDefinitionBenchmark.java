@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.definitions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.definitions.loaders.ModelLoader;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures computing normals and texture coordinates of the models in the test cache, and
+ * copying them into the object based views. Not run as part of the test suite, run
+ * {@link #main(String[])} from the test classpath instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ModelDefinitionBenchmark
+{
+	/**
+	 * Use every nth model of the index
+	 */
+	@Param({"1", "10"})
+	private int step;
+
+	private final List<byte[]> data = new ArrayList<>();
+	private final List<ModelDefinition> models = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException
+	{
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			Index index = store.getIndex(IndexType.MODELS);
+			List<Archive> archives = index.getArchives();
+			for (int i = 0; i < archives.size(); i += step)
+			{
+				Archive archive = archives.get(i);
+				byte[] contents = archive.decompress(store.getStorage().loadArchive(archive));
+				data.add(contents);
+				models.add(new ModelLoader().load(archive.getArchiveId(), contents));
+			}
+		}
+	}
+
+	@Benchmark
+	public void load(Blackhole blackhole)
+	{
+		ModelLoader loader = new ModelLoader();
+		for (int i = 0; i < data.size(); ++i)
+		{
+			blackhole.consume(loader.load(i, data.get(i)));
+		}
+	}
+
+	@Benchmark
+	public void computeNormals(Blackhole blackhole)
+	{
+		for (ModelDefinition model : models)
+		{
+			// computeNormals() does nothing if the normals exist
+			model.vertexNormalsX = null;
+			model.computeNormals();
+			blackhole.consume(model.vertexNormalsX);
+		}
+	}
+
+	@Benchmark
+	public void computeTextureUVCoordinates(Blackhole blackhole)
+	{
+		for (ModelDefinition model : models)
+		{
+			model.computeTextureUVCoordinates();
+			blackhole.consume(model.faceTextureU);
+		}
+	}
+
+	@Benchmark
+	public void objectViews(Blackhole blackhole)
+	{
+		for (ModelDefinition model : models)
+		{
+			blackhole.consume(model.getVertexNormals());
+			blackhole.consume(model.getFaceNormals());
+			blackhole.consume(model.getFaceTextureUCoordinates());
+			blackhole.consume(model.getFaceTextureVCoordinates());
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(ModelDefinitionBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
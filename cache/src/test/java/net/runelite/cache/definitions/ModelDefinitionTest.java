@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.definitions;
+
+import net.runelite.cache.models.FaceNormal;
+import net.runelite.cache.models.VertexNormal;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+public class ModelDefinitionTest
+{
+	private static ModelDefinition triangles()
+	{
+		// the same triangle twice, smooth and then flat shaded
+		ModelDefinition def = new ModelDefinition();
+		def.vertexCount = 3;
+		def.vertexPositionsX = new int[]{0, 1, 0};
+		def.vertexPositionsY = new int[]{0, 0, 1};
+		def.vertexPositionsZ = new int[]{0, 0, 0};
+		def.faceCount = 2;
+		def.faceVertexIndices1 = new int[]{0, 0};
+		def.faceVertexIndices2 = new int[]{1, 1};
+		def.faceVertexIndices3 = new int[]{2, 2};
+		def.faceRenderTypes = new byte[]{0, 1};
+		return def;
+	}
+
+	@Test
+	public void testComputeNormals()
+	{
+		ModelDefinition def = triangles();
+		def.computeNormals();
+
+		assertArrayEquals(new int[]{0, 0, 0}, def.vertexNormalsX);
+		assertArrayEquals(new int[]{0, 0, 0}, def.vertexNormalsY);
+		assertArrayEquals(new int[]{256, 256, 256}, def.vertexNormalsZ);
+		assertArrayEquals(new int[]{1, 1, 1}, def.vertexNormalsMagnitude);
+		assertArrayEquals(new int[]{0, 256}, def.faceNormalsZ);
+
+		VertexNormal[] vertexNormals = def.getVertexNormals();
+		assertEquals(3, vertexNormals.length);
+		assertEquals(256, vertexNormals[2].z);
+		assertEquals(1, vertexNormals[2].magnitude);
+
+		FaceNormal[] faceNormals = def.getFaceNormals();
+		assertNull(faceNormals[0]);
+		assertEquals(256, faceNormals[1].z);
+	}
+
+	@Test
+	public void testComputeTextureUVCoordinates()
+	{
+		ModelDefinition def = triangles();
+		def.computeTextureUVCoordinates();
+		assertNull(def.faceTextureU);
+
+		def.faceTextures = new short[]{1, 1};
+		def.computeTextureUVCoordinates();
+
+		assertArrayEquals(new float[]{0f, 1f, 0f, 0f, 1f, 0f}, def.faceTextureU, 0f);
+		assertArrayEquals(new float[]{1f, 1f, 0f, 1f, 1f, 0f}, def.faceTextureV, 0f);
+
+		float[][] u = def.getFaceTextureUCoordinates();
+		assertEquals(2, u.length);
+		assertArrayEquals(new float[]{0f, 1f, 0f}, u[1], 0f);
+	}
+
+	@Test
+	public void testFaceTextureCoordinatesUntextured()
+	{
+		// a model without textures has no coordinates for any face
+		ModelDefinition def = triangles();
+		def.computeTextureUVCoordinates();
+
+		float[][] u = def.getFaceTextureUCoordinates();
+		float[][] v = def.getFaceTextureVCoordinates();
+		assertEquals(2, u.length);
+		assertEquals(2, v.length);
+		assertNull(u[0]);
+		assertNull(u[1]);
+		assertNull(v[0]);
+		assertNull(v[1]);
+
+		// and only the textured faces of a model mixing textured and untextured faces have them
+		def.faceTextures = new short[]{-1, 1};
+		def.computeTextureUVCoordinates();
+
+		u = def.getFaceTextureUCoordinates();
+		v = def.getFaceTextureVCoordinates();
+		assertNull(u[0]);
+		assertNull(v[0]);
+		assertArrayEquals(new float[]{0f, 1f, 0f}, u[1], 0f);
+		assertArrayEquals(new float[]{1f, 1f, 0f}, v[1], 0f);
+	}
+}
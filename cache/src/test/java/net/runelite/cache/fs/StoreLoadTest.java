@@ -27,7 +27,11 @@ package net.runelite.cache.fs;
 import com.google.common.io.Files;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.jagex.MappedDiskStorage;
+import net.runelite.cache.util.Crc32;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -47,6 +51,46 @@ public class StoreLoadTest
 		}
 	}
 
+	@Test
+	public void testLoadArchiveFilesParallel() throws IOException
+	{
+		try (Store store = new Store(StoreLocation.LOCATION);
+			Store parallelStore = new Store(new MappedDiskStorage(StoreLocation.LOCATION)))
+		{
+			store.load();
+			parallelStore.load();
+
+			Map<Archive, ArchiveFiles> files = store.loadArchiveFiles();
+			Map<Archive, ArchiveFiles> parallelFiles = parallelStore.loadArchiveFiles(4);
+
+			Assert.assertTrue(store.equals(parallelStore));
+			Assert.assertEquals(files.size(), parallelFiles.size());
+
+			for (Map.Entry<Archive, ArchiveFiles> entry : parallelFiles.entrySet())
+			{
+				Archive parallelArchive = entry.getKey();
+				Archive archive = store.findIndex(parallelArchive.getIndex().getId())
+					.getArchive(parallelArchive.getArchiveId());
+
+				List<FSFile> expected = files.get(archive).getFiles();
+				List<FSFile> actual = entry.getValue().getFiles();
+				Assert.assertEquals(expected.size(), actual.size());
+
+				for (int i = 0; i < expected.size(); ++i)
+				{
+					Assert.assertEquals(crc(expected.get(i).getContents()), crc(actual.get(i).getContents()));
+				}
+			}
+		}
+	}
+
+	private static int crc(byte[] data)
+	{
+		Crc32 crc = new Crc32();
+		crc.update(data, 0, data.length);
+		return crc.getHash();
+	}
+
 	@Test
 	public void testSave() throws IOException
 	{
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.io;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+public class InputStreamTest
+{
+	private static final byte[] STRINGS = {
+		'T', 'a', 'k', 'e', 0,
+		(byte) 0x80, (byte) 0x81, 'x', 0, // euro sign, undefined character
+		0, // null string
+		'T', 'a', 'k', 'e', 0,
+	};
+
+	@Test
+	public void testReadString()
+	{
+		InputStream is = new InputStream(STRINGS);
+		String take = is.readString();
+		assertEquals("Take", take);
+		assertEquals("\u20ac?x", is.readString());
+		assertNull(is.readStringOrNull());
+		// repeated strings are interned
+		assertSame(take, is.readString());
+		assertEquals(0, is.remaining());
+	}
+
+	@Test
+	public void testReadDirectBuffer()
+	{
+		ByteBuffer direct = ByteBuffer.allocateDirect(STRINGS.length + 4);
+		direct.putShort((short) 0x1234);
+		direct.put(STRINGS);
+		direct.putShort((short) 0x5678);
+		direct.flip();
+		direct.position(2);
+
+		InputStream is = new InputStream(direct);
+		assertEquals(0, is.getOffset());
+		assertEquals(STRINGS.length + 2, is.getLength());
+		assertEquals("Take", is.readString());
+		assertEquals("\u20ac?x", is.readString());
+		assertNull(is.readStringOrNull());
+		assertEquals("Take", is.readString());
+		assertEquals(0x5678, is.readUnsignedShort());
+
+		// the buffer passed in is not read from
+		assertEquals(2, direct.position());
+	}
+
+	@Test(expected = BufferUnderflowException.class)
+	public void testUnterminatedString()
+	{
+		new InputStream(new byte[]{'a', 'b'}).readString();
+	}
+}
@@ -27,6 +27,9 @@ package net.runelite.cache.item;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import javax.imageio.ImageIO;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.IndexType;
@@ -36,11 +39,14 @@ import net.runelite.cache.StoreLocation;
 import net.runelite.cache.TextureManager;
 import net.runelite.cache.definitions.ItemDefinition;
 import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.TextureDefinition;
 import net.runelite.cache.definitions.loaders.ModelLoader;
 import net.runelite.cache.definitions.providers.ModelProvider;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Store;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
@@ -49,6 +55,11 @@ import org.junit.rules.TemporaryFolder;
 @Slf4j
 public class ItemSpriteFactoryTest
 {
+	private static final int ITEM = 1;
+	private static final int TEMPLATE = 2;
+	private static final int NOTED_ITEM = 3;
+	private static final int SHADOW = 3153952;
+
 	@Rule
 	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
 
@@ -88,6 +99,8 @@ public class ItemSpriteFactoryTest
 			TextureManager textureManager = new TextureManager(store);
 			textureManager.load();
 
+			ItemSpriteFactory itemSpriteFactory = new ItemSpriteFactory(itemManager, modelProvider, spriteManager, textureManager);
+
 			for (ItemDefinition itemDef : itemManager.getItems())
 			{
 				if (itemDef.name == null || itemDef.name.equalsIgnoreCase("null"))
@@ -97,8 +110,7 @@ public class ItemSpriteFactoryTest
 
 				try
 				{
-					BufferedImage sprite = ItemSpriteFactory.createSprite(itemManager, modelProvider, spriteManager, textureManager,
-						itemDef.id, 1, 1, 3153952, false);
+					BufferedImage sprite = itemSpriteFactory.createSprite(itemDef.id, 1, 1, 3153952, false);
 
 					File out = new File(outDir, itemDef.id + ".png");
 					BufferedImage img = sprite;
@@ -115,4 +127,202 @@ public class ItemSpriteFactoryTest
 
 		log.info("Dumped {} item images to {}", count, outDir);
 	}
-}
\ No newline at end of file
+
+	@Test
+	@Ignore
+	public void testAtlas() throws IOException
+	{
+		File base = StoreLocation.LOCATION,
+			outDir = folder.newFolder();
+
+		try (Store store = new Store(base))
+		{
+			store.load();
+
+			ItemManager itemManager = new ItemManager(store);
+			itemManager.load();
+
+			ModelProvider modelProvider = modelId ->
+			{
+				Index models = store.getIndex(IndexType.MODELS);
+				Archive archive = models.getArchive(modelId);
+
+				byte[] data = archive.decompress(store.getStorage().loadArchive(archive));
+				return new ModelLoader().load(modelId, data);
+			};
+
+			SpriteManager spriteManager = new SpriteManager(store);
+			spriteManager.load();
+
+			TextureManager textureManager = new TextureManager(store);
+			textureManager.load();
+
+			ItemSpriteFactory itemSpriteFactory = new ItemSpriteFactory(itemManager, modelProvider, spriteManager, textureManager);
+
+			int[] itemIds = itemManager.getItems().stream()
+				.filter(itemDef -> itemDef.name != null && !itemDef.name.equalsIgnoreCase("null"))
+				.mapToInt(itemDef -> itemDef.id)
+				.sorted()
+				.toArray();
+
+			BufferedImage atlas = itemSpriteFactory.createAtlas(itemIds, 64, 1, 1, 3153952,
+				Runtime.getRuntime().availableProcessors());
+
+			File out = new File(outDir, "atlas.png");
+			ImageIO.write(atlas, "PNG", out);
+
+			log.info("Dumped {} item images to {}", itemIds.length, out);
+		}
+	}
+
+	@Test
+	public void testConcurrentDraw() throws IOException
+	{
+		final int[] itemIds = new int[256];
+		for (int i = 0; i < itemIds.length; ++i)
+		{
+			itemIds[i] = i % 2 == 0 ? ITEM : NOTED_ITEM;
+		}
+
+		BufferedImage item = syntheticFactory().createSprite(ITEM, 1, 1, SHADOW, false);
+		BufferedImage noted = syntheticFactory().createSprite(NOTED_ITEM, 1, 1, SHADOW, false);
+		assertTrue(hasPixels(item));
+		assertTrue(hasPixels(noted));
+
+		// draw on many threads at once with a cold model cache, each icon must match the one drawn alone
+		BufferedImage atlas = syntheticFactory().createAtlas(itemIds, 16, 1, 1, SHADOW, 8);
+		for (int i = 0; i < itemIds.length; ++i)
+		{
+			BufferedImage expected = itemIds[i] == ITEM ? item : noted;
+			int cellX = (i % 16) * ItemSpriteFactory.SPRITE_WIDTH;
+			int cellY = (i / 16) * ItemSpriteFactory.SPRITE_HEIGHT;
+			for (int y = 0; y < ItemSpriteFactory.SPRITE_HEIGHT; ++y)
+			{
+				for (int x = 0; x < ItemSpriteFactory.SPRITE_WIDTH; ++x)
+				{
+					assertEquals("icon " + i + " at " + x + "," + y, expected.getRGB(x, y), atlas.getRGB(cellX + x, cellY + y));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testContextPool() throws IOException
+	{
+		final int processors = Runtime.getRuntime().availableProcessors();
+		ItemSpriteFactory factory = syntheticFactory();
+		assertEquals(0, factory.getIdleContexts());
+
+		factory.createSprite(ITEM, 1, 1, SHADOW, false);
+		assertEquals(1, factory.getIdleContexts());
+
+		// more threads than cores may each create a context, but only a core's worth are kept
+		int[] itemIds = new int[1024];
+		Arrays.fill(itemIds, ITEM);
+		factory.createAtlas(itemIds, 32, 1, 1, SHADOW, processors * 4);
+		assertTrue(factory.getIdleContexts() >= 1);
+		assertTrue(factory.getIdleContexts() <= processors);
+	}
+
+	@Test
+	public void testNotedDefinitionUnchanged() throws IOException
+	{
+		Map<Integer, ItemDefinition> items = syntheticItems();
+		ItemDefinition noted = items.get(NOTED_ITEM);
+		new ItemSpriteFactory(items::get, ItemSpriteFactoryTest::cube, (spriteId, frameId) -> null, () -> new TextureDefinition[0])
+			.createSprite(NOTED_ITEM, 1, 1, SHADOW, false);
+
+		// the note template is applied to a copy, not the definition shared through the provider
+		assertEquals(0, noted.inventoryModel);
+		assertEquals(2000, noted.zoom2d);
+		assertEquals("null", noted.name);
+	}
+
+	private static ItemSpriteFactory syntheticFactory()
+	{
+		return new ItemSpriteFactory(syntheticItems()::get, ItemSpriteFactoryTest::cube, (spriteId, frameId) -> null, () -> new TextureDefinition[0]);
+	}
+
+	/**
+	 * An item, a note template and the noted item, drawn with cube models
+	 */
+	private static Map<Integer, ItemDefinition> syntheticItems()
+	{
+		ItemDefinition item = new ItemDefinition(ITEM);
+		item.name = "Cube";
+		item.inventoryModel = 1;
+		item.zoom2d = 900;
+		item.xan2d = 300;
+		item.yan2d = 400;
+
+		ItemDefinition template = new ItemDefinition(TEMPLATE);
+		template.inventoryModel = 2;
+		template.zoom2d = 1500;
+		template.xan2d = 200;
+
+		ItemDefinition noted = new ItemDefinition(NOTED_ITEM);
+		noted.notedID = ITEM;
+		noted.notedTemplate = TEMPLATE;
+
+		Map<Integer, ItemDefinition> items = new HashMap<>();
+		items.put(ITEM, item);
+		items.put(TEMPLATE, template);
+		items.put(NOTED_ITEM, noted);
+		return items;
+	}
+
+	/**
+	 * A new cube for each lookup, as models are modified when lit. The model id picks the size and colors.
+	 */
+	private static ModelDefinition cube(int modelId)
+	{
+		final int size = 40 * modelId;
+		final int[][] faces = {
+			{0, 1, 2}, {1, 3, 2}, {4, 6, 5}, {5, 6, 7},
+			{0, 4, 1}, {1, 4, 5}, {2, 3, 6}, {3, 7, 6},
+			{0, 2, 4}, {2, 6, 4}, {1, 5, 3}, {3, 5, 7}
+		};
+
+		ModelDefinition model = new ModelDefinition();
+		model.id = modelId;
+		model.vertexCount = 8;
+		model.vertexPositionsX = new int[8];
+		model.vertexPositionsY = new int[8];
+		model.vertexPositionsZ = new int[8];
+		for (int i = 0; i < 8; ++i)
+		{
+			model.vertexPositionsX[i] = (i & 1) == 0 ? -size : size;
+			model.vertexPositionsY[i] = (i & 2) == 0 ? -size : size;
+			model.vertexPositionsZ[i] = (i & 4) == 0 ? -size : size;
+		}
+
+		model.faceCount = faces.length;
+		model.faceVertexIndices1 = new int[faces.length];
+		model.faceVertexIndices2 = new int[faces.length];
+		model.faceVertexIndices3 = new int[faces.length];
+		model.faceColors = new short[faces.length];
+		for (int i = 0; i < faces.length; ++i)
+		{
+			model.faceVertexIndices1[i] = faces[i][0];
+			model.faceVertexIndices2[i] = faces[i][1];
+			model.faceVertexIndices3[i] = faces[i][2];
+			model.faceColors[i] = (short) (modelId * 5000 + i * 900);
+		}
+		return model;
+	}
+
+	private static boolean hasPixels(BufferedImage image)
+	{
+		for (int y = 0; y < image.getHeight(); ++y)
+		{
+			for (int x = 0; x < image.getWidth(); ++x)
+			{
+				if (image.getRGB(x, y) != 0)
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
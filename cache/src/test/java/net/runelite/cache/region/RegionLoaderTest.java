@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.region;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.util.Djb2;
+import static org.junit.Assert.assertEquals;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RegionLoaderTest
+{
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testFindChangedRegions() throws IOException
+	{
+		try (Store from = new Store(folder.newFolder());
+			Store to = new Store(folder.newFolder()))
+		{
+			Index fromMaps = from.addIndex(IndexType.MAPS.getNumber());
+			addArchive(fromMaps, "m50_50", 1, 1);
+			addArchive(fromMaps, "l50_50", 2, 1);
+			addArchive(fromMaps, "m51_50", 3, 1);
+			addArchive(fromMaps, "m52_50", 4, 1);
+			addArchive(fromMaps, "m54_50", 6, 1);
+
+			Index toMaps = to.addIndex(IndexType.MAPS.getNumber());
+			addArchive(toMaps, "m50_50", 1, 1);
+			// only the locations changed
+			addArchive(toMaps, "l50_50", 5, 2);
+			// same crc, newer revision
+			addArchive(toMaps, "m51_50", 3, 2);
+			// m52_50 removed, m53_50 added
+			addArchive(toMaps, "m53_50", 7, 1);
+			addArchive(toMaps, "m54_50", 6, 1);
+
+			assertEquals(ImmutableSet.of(regionId(50, 50), regionId(51, 50), regionId(52, 50), regionId(53, 50)),
+				RegionLoader.findChangedRegions(from, to));
+			assertEquals(ImmutableSet.of(), RegionLoader.findChangedRegions(to, to));
+		}
+	}
+
+	@Test
+	public void testFindChangedRegionsMissingIndex() throws IOException
+	{
+		try (Store from = new Store(folder.newFolder());
+			Store to = new Store(folder.newFolder()))
+		{
+			Index toMaps = to.addIndex(IndexType.MAPS.getNumber());
+			addArchive(toMaps, "m50_50", 1, 1);
+			addArchive(toMaps, "l51_50", 2, 1);
+
+			// every region of a cache without maps is new
+			assertEquals(ImmutableSet.of(regionId(50, 50), regionId(51, 50)),
+				RegionLoader.findChangedRegions(from, to));
+		}
+	}
+
+	private static void addArchive(Index index, String name, int crc, int revision)
+	{
+		Archive archive = index.addArchive(index.getArchives().size());
+		archive.setNameHash(Djb2.hash(name));
+		archive.setCrc(crc);
+		archive.setRevision(revision);
+	}
+
+	private static int regionId(int x, int y)
+	{
+		return x << 8 | y;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class AsyncHttp
+{
+	@FunctionalInterface
+	public interface ResponseHandler<T>
+	{
+		T handle(Response response) throws IOException;
+	}
+
+	/**
+	 * Enqueue a request on the shared client. The response is closed after the handler runs.
+	 *
+	 * @return a future completed with the handler result, or exceptionally if the call or handler fails
+	 */
+	public static <T> CompletableFuture<T> call(Request request, ResponseHandler<T> handler)
+	{
+		return call(RuneLiteAPI.CLIENT, request, handler);
+	}
+
+	/**
+	 * Enqueue a request on the given client. The response is closed after the handler runs.
+	 *
+	 * @return a future completed with the handler result, or exceptionally if the call or handler fails
+	 */
+	public static <T> CompletableFuture<T> call(OkHttpClient client, Request request, ResponseHandler<T> handler)
+	{
+		CompletableFuture<T> future = new CompletableFuture<>();
+
+		client.newCall(request).enqueue(new Callback()
+		{
+			@Override
+			public void onFailure(Call call, IOException e)
+			{
+				future.completeExceptionally(e);
+			}
+
+			@Override
+			public void onResponse(Call call, Response response)
+			{
+				try (Response r = response)
+				{
+					future.complete(handler.handle(r));
+				}
+				catch (IOException | RuntimeException ex)
+				{
+					future.completeExceptionally(ex);
+				}
+			}
+		});
+
+		return future;
+	}
+}
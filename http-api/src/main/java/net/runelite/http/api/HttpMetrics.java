@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Records request counts, errors and latency per endpoint. Endpoints are keyed by host and
+ * the first path segment after the api version, so that eg. all item price lookups share
+ * one entry.
+ */
+class HttpMetrics implements Interceptor
+{
+	private static class Stats
+	{
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicLong errors = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+	}
+
+	private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+	@Override
+	public Response intercept(Chain chain) throws IOException
+	{
+		Stats s = stats.computeIfAbsent(endpoint(chain.request().url()), k -> new Stats());
+		long start = System.nanoTime();
+		boolean success = false;
+
+		try
+		{
+			Response response = chain.proceed(chain.request());
+			success = response.isSuccessful() || response.code() == 304;
+			return response;
+		}
+		finally
+		{
+			long elapsed = System.nanoTime() - start;
+			s.requests.incrementAndGet();
+			s.totalNanos.addAndGet(elapsed);
+			s.maxNanos.accumulateAndGet(elapsed, Math::max);
+			if (!success)
+			{
+				s.errors.incrementAndGet();
+			}
+		}
+	}
+
+	List<EndpointStats> getStats()
+	{
+		List<EndpointStats> result = new ArrayList<>(stats.size());
+		for (Map.Entry<String, Stats> entry : stats.entrySet())
+		{
+			Stats s = entry.getValue();
+			result.add(new EndpointStats(entry.getKey(), s.requests.get(), s.errors.get(), s.totalNanos.get(), s.maxNanos.get()));
+		}
+		return result;
+	}
+
+	void reset()
+	{
+		stats.clear();
+	}
+
+	static String endpoint(HttpUrl url)
+	{
+		List<String> segments = url.pathSegments();
+		int i = 0;
+		if (!segments.isEmpty() && segments.get(0).startsWith("runelite-"))
+		{
+			++i;
+		}
+
+		return i < segments.size() && !segments.get(i).isEmpty()
+			? url.host() + "/" + segments.get(i)
+			: url.host();
+	}
+}
@@ -27,7 +27,11 @@ package net.runelite.http.api;
 import com.google.gson.Gson;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import org.slf4j.Logger;
@@ -39,7 +43,13 @@ public class RuneLiteAPI
 
 	public static final String RUNELITE_AUTH = "RUNELITE-AUTH";
 
-	public static final OkHttpClient CLIENT = new OkHttpClient();
+	private static final int MAX_REQUESTS = 64;
+	private static final int MAX_REQUESTS_PER_HOST = 8;
+	private static final int MAX_IDLE_CONNECTIONS = 8;
+
+	private static final HttpMetrics metrics = new HttpMetrics();
+
+	public static final OkHttpClient CLIENT;
 	public static final Gson GSON = new Gson();
 
 	private static final String BASE = "https://api.runelite.net";
@@ -51,6 +61,16 @@ public class RuneLiteAPI
 
 	static
 	{
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(MAX_REQUESTS);
+		dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+		CLIENT = new OkHttpClient.Builder()
+			.dispatcher(dispatcher)
+			.connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, 5, TimeUnit.MINUTES))
+			.addInterceptor(metrics)
+			.build();
+
 		try
 		{
 			InputStream in = RuneLiteAPI.class.getResourceAsStream("/runelite.properties");
@@ -104,4 +124,17 @@ public class RuneLiteAPI
 		return rsVersion;
 	}
 
+	/**
+	 * Get request counts, errors and latency for each endpoint called with {@link #CLIENT}
+	 */
+	public static List<EndpointStats> getEndpointStats()
+	{
+		return metrics.getStats();
+	}
+
+	public static void resetEndpointStats()
+	{
+		metrics.reset();
+	}
+
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api.chat;
+
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import net.runelite.http.api.RuneLiteAPI;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Coalesces lookups into batch requests. The first lookup is sent immediately, and lookups made
+ * while a request is in flight are sent together when it completes.
+ *
+ * @param <K> lookup key
+ */
+@RequiredArgsConstructor
+class BatchedLookup<K>
+{
+	@RequiredArgsConstructor
+	private static class Pending<K>
+	{
+		private final K key;
+		private final CompletableFuture<Integer> future;
+	}
+
+	private final int maxBatchSize;
+	private final Function<List<K>, HttpUrl> urlBuilder;
+
+	private final List<Pending<K>> pending = new ArrayList<>();
+	private boolean inFlight;
+
+	/**
+	 * @return the looked up value, or null if it is not known
+	 */
+	CompletableFuture<Integer> lookup(K key)
+	{
+		CompletableFuture<Integer> future = new CompletableFuture<>();
+		synchronized (pending)
+		{
+			pending.add(new Pending<>(key, future));
+			if (inFlight)
+			{
+				return future;
+			}
+			inFlight = true;
+		}
+
+		flush();
+		return future;
+	}
+
+	private void flush()
+	{
+		// loops only when a batch could not be sent, otherwise the callback flushes the next batch
+		for (;;)
+		{
+			List<Pending<K>> batch;
+			synchronized (pending)
+			{
+				if (pending.isEmpty())
+				{
+					inFlight = false;
+					return;
+				}
+
+				List<Pending<K>> head = pending.subList(0, Math.min(maxBatchSize, pending.size()));
+				batch = new ArrayList<>(head);
+				head.clear();
+			}
+
+			try
+			{
+				send(batch);
+				return;
+			}
+			catch (RuntimeException ex)
+			{
+				fail(batch, ex);
+			}
+		}
+	}
+
+	private void send(List<Pending<K>> batch)
+	{
+		List<K> keys = new ArrayList<>(batch.size());
+		for (Pending<K> p : batch)
+		{
+			keys.add(p.key);
+		}
+
+		Request request = new Request.Builder()
+			.url(urlBuilder.apply(keys))
+			.build();
+
+		RuneLiteAPI.CLIENT.newCall(request).enqueue(new Callback()
+		{
+			@Override
+			public void onFailure(Call call, IOException e)
+			{
+				fail(batch, e);
+				flush();
+			}
+
+			@Override
+			public void onResponse(Call call, Response response)
+			{
+				try
+				{
+					if (!response.isSuccessful())
+					{
+						throw new IOException("Unsuccessful http response: " + response.message());
+					}
+
+					InputStream in = response.body().byteStream();
+					Integer[] values = RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), Integer[].class);
+					if (values == null || values.length != batch.size())
+					{
+						throw new IOException("Unexpected batch response size");
+					}
+
+					for (int i = 0; i < values.length; ++i)
+					{
+						batch.get(i).future.complete(values[i]);
+					}
+				}
+				catch (IOException | JsonParseException ex)
+				{
+					fail(batch, ex);
+				}
+				finally
+				{
+					response.close();
+				}
+
+				flush();
+			}
+		});
+	}
+
+	private static <K> void fail(List<Pending<K>> batch, Exception ex)
+	{
+		for (Pending<K> p : batch)
+		{
+			p.future.completeExceptionally(ex);
+		}
+	}
+}
@@ -25,6 +25,7 @@
 package net.runelite.http.api.chat;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import net.runelite.http.api.RuneLiteAPI;
 import okhttp3.HttpUrl;
 import okhttp3.Request;
@@ -33,6 +34,35 @@ import okhttp3.Response;
 
 public class ChatClient
 {
+	private static final int MAX_BATCH_LOOKUP = 100;
+
+	private final BatchedLookup<String[]> kcLookup = new BatchedLookup<>(MAX_BATCH_LOOKUP, keys ->
+	{
+		HttpUrl.Builder builder = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("chat")
+			.addPathSegment("kc")
+			.addPathSegment("batch");
+		for (String[] key : keys)
+		{
+			builder.addQueryParameter("name", key[0])
+				.addQueryParameter("boss", key[1]);
+		}
+		return builder.build();
+	});
+
+	private final BatchedLookup<String> qpLookup = new BatchedLookup<>(MAX_BATCH_LOOKUP, keys ->
+	{
+		HttpUrl.Builder builder = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("chat")
+			.addPathSegment("qp")
+			.addPathSegment("batch");
+		for (String key : keys)
+		{
+			builder.addQueryParameter("name", key);
+		}
+		return builder.build();
+	});
+
 	public boolean submitKc(String username, String boss, int kc) throws IOException
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
@@ -77,6 +107,16 @@ public class ChatClient
 		}
 	}
 
+	/**
+	 * Look up a kill count without blocking. Lookups made at the same time are sent in one request.
+	 *
+	 * @return the kill count, or null if it is not known
+	 */
+	public CompletableFuture<Integer> getKcAsync(String username, String boss)
+	{
+		return kcLookup.lookup(new String[]{username, boss});
+	}
+
 	public boolean submitQp(String username, int qp) throws IOException
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
@@ -118,4 +158,14 @@ public class ChatClient
 			return Integer.parseInt(response.body().string());
 		}
 	}
+
+	/**
+	 * Look up quest points without blocking. Lookups made at the same time are sent in one request.
+	 *
+	 * @return the quest points, or null if they are not known
+	 */
+	public CompletableFuture<Integer> getQpAsync(String username)
+	{
+		return qpLookup.lookup(username);
+	}
 }
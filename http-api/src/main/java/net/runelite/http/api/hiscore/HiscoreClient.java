@@ -25,18 +25,23 @@
 package net.runelite.http.api.hiscore;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.AsyncHttp;
+import net.runelite.http.api.RequestCoalescer;
 import net.runelite.http.api.RuneLiteAPI;
 import okhttp3.HttpUrl;
 import okhttp3.Request;
 import okhttp3.Response;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 
 @Slf4j
 public class HiscoreClient
 {
+	// shared so lookups from different clients for the same player share a request
+	private static final RequestCoalescer<HttpUrl, HiscoreResult> inFlight = new RequestCoalescer<>();
+
 	public HiscoreResult lookup(String username, HiscoreEndpoint endpoint) throws IOException
 	{
 		return lookup(username, endpoint.getHiscoreURL());
@@ -59,6 +64,81 @@ public class HiscoreClient
 		return lookup(username, HiscoreEndpoint.NORMAL);
 	}
 
+	/**
+	 * Look up a player without blocking. Concurrent lookups of the same player and endpoint
+	 * share one request.
+	 *
+	 * @return a future completed with the result, or null if the player is not on the hiscores
+	 */
+	public CompletableFuture<HiscoreResult> lookupAsync(String username, HiscoreEndpoint endpoint)
+	{
+		HttpUrl url = buildUrl(username, endpoint.getHiscoreURL());
+		return inFlight.get(url, () -> AsyncHttp.call(new Request.Builder().url(url).build(), response ->
+		{
+			HiscoreResultBuilder resultBuilder = parse(username, response);
+			return resultBuilder == null ? null : resultBuilder.build();
+		}));
+	}
+
+	/**
+	 * Look up a player on several endpoints at once, such as to find their account type. All
+	 * endpoints are requested concurrently, and the future completes as soon as the result of the
+	 * earliest endpoint the player is on is known, without waiting on the endpoints after it.
+	 *
+	 * @param endpoints endpoints in order of preference, eg. the most specific account type first
+	 * @return a future completed with the first endpoint the player is on and its result, or null
+	 * if they are on none of them. It completes exceptionally if the lookup of an endpoint before
+	 * the first one the player is on fails, since the player may be on that endpoint.
+	 */
+	public CompletableFuture<HiscoreEndpointResult> lookupFirst(String username, HiscoreEndpoint... endpoints)
+	{
+		CompletableFuture<HiscoreEndpointResult> future = new CompletableFuture<>();
+		List<CompletableFuture<HiscoreResult>> lookups = new ArrayList<>(endpoints.length);
+		for (HiscoreEndpoint endpoint : endpoints)
+		{
+			lookups.add(lookupAsync(username, endpoint));
+		}
+
+		Runnable check = () ->
+		{
+			for (int i = 0; i < lookups.size(); ++i)
+			{
+				CompletableFuture<HiscoreResult> lookup = lookups.get(i);
+				if (!lookup.isDone())
+				{
+					// an earlier endpoint may still have the player
+					return;
+				}
+
+				if (lookup.isCompletedExceptionally())
+				{
+					// only a 404 means the player isn't on the endpoint, so don't fall through to a less specific one
+					future.completeExceptionally(lookup.handle((r, ex) -> ex).join());
+					return;
+				}
+
+				HiscoreResult result = lookup.join();
+				if (result != null)
+				{
+					future.complete(new HiscoreEndpointResult(endpoints[i], result));
+					return;
+				}
+			}
+
+			future.complete(null);
+		};
+
+		if (lookups.isEmpty())
+		{
+			future.complete(null);
+		}
+		for (CompletableFuture<HiscoreResult> lookup : lookups)
+		{
+			lookup.whenComplete((r, ex) -> check.run());
+		}
+		return future;
+	}
+
 	public SingleHiscoreSkillResult lookup(String username, HiscoreSkill skill, HiscoreEndpoint endpoint) throws IOException
 	{
 		HiscoreResultBuilder resultBuilder = lookupUsername(username, endpoint.getHiscoreURL());
@@ -85,64 +165,42 @@ public class HiscoreClient
 
 	private HiscoreResultBuilder lookupUsername(String username, HttpUrl hiscoreUrl) throws IOException
 	{
-		HttpUrl url = hiscoreUrl.newBuilder()
-			.addQueryParameter("player", username)
-			.build();
-
-		log.debug("Built URL {}", url);
-
 		Request okrequest = new Request.Builder()
-			.url(url)
+			.url(buildUrl(username, hiscoreUrl))
 			.build();
 
-		String responseStr;
-
 		try (Response okresponse = RuneLiteAPI.CLIENT.newCall(okrequest).execute())
 		{
-			if (!okresponse.isSuccessful())
-			{
-				switch (okresponse.code())
-				{
-					case 404:
-						return null;
-					default:
-						throw new IOException("Error retrieving data from Jagex Hiscores: " + okresponse.message());
-				}
-			}
-
-			responseStr = okresponse.body().string();
+			return parse(username, okresponse);
 		}
+	}
 
-		CSVParser parser = CSVParser.parse(responseStr, CSVFormat.DEFAULT);
-
-		HiscoreResultBuilder hiscoreBuilder = new HiscoreResultBuilder();
-		hiscoreBuilder.setPlayer(username);
+	private static HttpUrl buildUrl(String username, HttpUrl hiscoreUrl)
+	{
+		HttpUrl url = hiscoreUrl.newBuilder()
+			.addQueryParameter("player", username)
+			.build();
 
-		int count = 0;
+		log.debug("Built URL {}", url);
+		return url;
+	}
 
-		for (CSVRecord record : parser.getRecords())
+	private static HiscoreResultBuilder parse(String username, Response okresponse) throws IOException
+	{
+		if (!okresponse.isSuccessful())
 		{
-			if (count++ >= HiscoreSkill.values().length)
-			{
-				log.warn("Jagex Hiscore API returned unexpected data");
-				break; // rest is other things?
-			}
-
-			// rank, level, experience
-			int rank = Integer.parseInt(record.get(0));
-			int level = Integer.parseInt(record.get(1));
-
-			// items that are not skills do not have an experience parameter
-			long experience = -1;
-			if (record.size() == 3)
+			switch (okresponse.code())
 			{
-				experience = Long.parseLong(record.get(2));
+				case 404:
+					return null;
+				default:
+					throw new IOException("Error retrieving data from Jagex Hiscores: " + okresponse.message());
 			}
-
-			Skill skill = new Skill(rank, level, experience);
-			hiscoreBuilder.setNextSkill(skill);
 		}
 
-		return hiscoreBuilder;
+		byte[] data = okresponse.body().bytes();
+		HiscoreParser parser = new HiscoreParser();
+		parser.parse(data, 0, data.length);
+		return parser.toResultBuilder(username);
 	}
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api.hiscore;
+
+import java.io.IOException;
+
+/**
+ * Parses the hiscore lite csv format directly into primitive arrays, without splitting it into
+ * strings. Each line is either rank,level,experience for skills or rank,score for activities.
+ * A parser can be reused for successive responses, but not concurrently.
+ */
+class HiscoreParser
+{
+	static final int ENTRIES = HiscoreSkill.values().length;
+
+	private final int[] ranks = new int[ENTRIES];
+	private final int[] levels = new int[ENTRIES];
+	private final long[] experience = new long[ENTRIES];
+	private int count;
+
+	/**
+	 * Parse a response. Entries past the ones known in {@link HiscoreSkill} are ignored.
+	 *
+	 * @throws IOException if the data is malformed or has too few entries
+	 */
+	void parse(byte[] data, int offset, int length) throws IOException
+	{
+		final int end = offset + length;
+		int pos = offset;
+		count = 0;
+
+		while (pos < end && count < ENTRIES)
+		{
+			long rank = 0;
+			long level = 0;
+			long xp = -1;
+			int fields = 0;
+			long value = 0;
+			boolean negative = false;
+			boolean digits = false;
+
+			for (; pos <= end; ++pos)
+			{
+				final int b = pos < end ? data[pos] : '\n';
+				if (b >= '0' && b <= '9')
+				{
+					value = value * 10 + (b - '0');
+					digits = true;
+				}
+				else if (b == '-' && !digits)
+				{
+					negative = true;
+				}
+				else if (b == ',' || b == '\n')
+				{
+					if (digits)
+					{
+						if (negative)
+						{
+							value = -value;
+						}
+
+						switch (fields++)
+						{
+							case 0:
+								rank = value;
+								break;
+							case 1:
+								level = value;
+								break;
+							case 2:
+								xp = value;
+								break;
+							default:
+								throw new IOException("Too many fields in hiscore entry " + count);
+						}
+					}
+					else if (b == ',' || fields > 0)
+					{
+						throw new IOException("Empty field in hiscore entry " + count);
+					}
+
+					value = 0;
+					negative = false;
+					digits = false;
+
+					if (b == '\n')
+					{
+						++pos;
+						break;
+					}
+				}
+				else if (b != '\r')
+				{
+					throw new IOException("Unexpected character in hiscore entry " + count);
+				}
+			}
+
+			if (fields == 0)
+			{
+				// blank line
+				continue;
+			}
+			if (fields == 1)
+			{
+				throw new IOException("Missing fields in hiscore entry " + count);
+			}
+
+			ranks[count] = (int) rank;
+			levels[count] = (int) level;
+			experience[count] = xp;
+			++count;
+		}
+
+		if (count < ENTRIES)
+		{
+			throw new IOException("Jagex Hiscore API returned " + count + " entries, expected " + ENTRIES);
+		}
+	}
+
+	int getRank(int index)
+	{
+		return ranks[index];
+	}
+
+	int getLevel(int index)
+	{
+		return levels[index];
+	}
+
+	long getExperience(int index)
+	{
+		return experience[index];
+	}
+
+	HiscoreResultBuilder toResultBuilder(String player)
+	{
+		HiscoreResultBuilder hiscoreBuilder = new HiscoreResultBuilder();
+		hiscoreBuilder.setPlayer(player);
+		for (int i = 0; i < count; ++i)
+		{
+			hiscoreBuilder.setNextSkill(new Skill(ranks[i], levels[i], experience[i]));
+		}
+		return hiscoreBuilder;
+	}
+}
@@ -33,9 +33,13 @@ import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import javax.imageio.ImageIO;
+import net.runelite.http.api.AsyncHttp;
+import net.runelite.http.api.RequestCoalescer;
 import net.runelite.http.api.RuneLiteAPI;
 import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.slf4j.Logger;
@@ -45,7 +49,41 @@ public class ItemClient
 {
 	private static final Logger logger = LoggerFactory.getLogger(ItemClient.class);
 
+	private static final RequestCoalescer<Integer, ItemPrice> inFlight = new RequestCoalescer<>();
+
+	private final OkHttpClient client;
+
+	public ItemClient()
+	{
+		this(RuneLiteAPI.CLIENT);
+	}
+
+	public ItemClient(OkHttpClient client)
+	{
+		this.client = client;
+	}
+
 	public ItemPrice lookupItemPrice(int itemId) throws IOException
+	{
+		Request request = buildPriceRequest(itemId);
+
+		try (Response response = client.newCall(request).execute())
+		{
+			return parsePrice(itemId, response);
+		}
+	}
+
+	/**
+	 * Look up an item price without blocking. Concurrent lookups of the same item share one request.
+	 *
+	 * @return a future completed with the price, or null if the item has no price
+	 */
+	public CompletableFuture<ItemPrice> lookupItemPriceAsync(int itemId)
+	{
+		return inFlight.get(itemId, () -> AsyncHttp.call(client, buildPriceRequest(itemId), response -> parsePrice(itemId, response)));
+	}
+
+	private static Request buildPriceRequest(int itemId)
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
 			.addPathSegment("item")
@@ -55,18 +93,21 @@ public class ItemClient
 
 		logger.debug("Built URI: {}", url);
 
-		Request request = new Request.Builder()
+		return new Request.Builder()
 			.url(url)
 			.build();
+	}
 
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+	private static ItemPrice parsePrice(int itemId, Response response) throws IOException
+	{
+		if (!response.isSuccessful())
 		{
-			if (!response.isSuccessful())
-			{
-				logger.debug("Error looking up item {}: {}", itemId, response.message());
-				return null;
-			}
+			logger.debug("Error looking up item {}: {}", itemId, response.message());
+			return null;
+		}
 
+		try
+		{
 			InputStream in = response.body().byteStream();
 			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), ItemPrice.class);
 		}
@@ -95,7 +136,7 @@ public class ItemClient
 				.url(url)
 				.build();
 
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		try (Response response = client.newCall(request).execute())
 		{
 			if (!response.isSuccessful())
 			{
@@ -126,7 +167,7 @@ public class ItemClient
 			.url(url)
 			.build();
 
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		try (Response response = client.newCall(request).execute())
 		{
 			if (!response.isSuccessful())
 			{
@@ -156,7 +197,7 @@ public class ItemClient
 			.url(url)
 			.build();
 
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		try (Response response = client.newCall(request).execute())
 		{
 			if (!response.isSuccessful())
 			{
@@ -173,11 +214,11 @@ public class ItemClient
 		}
 	}
 
-	public ItemPrice[] getPrices() throws IOException
+	public ItemPrices getPrices() throws IOException
 	{
 		HttpUrl.Builder urlBuilder = RuneLiteAPI.getApiBase().newBuilder()
 			.addPathSegment("item")
-			.addPathSegment("prices.js");
+			.addPathSegment("prices.bin");
 
 		HttpUrl url = urlBuilder.build();
 
@@ -187,7 +228,7 @@ public class ItemClient
 			.url(url)
 			.build();
 
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		try (Response response = client.newCall(request).execute())
 		{
 			if (!response.isSuccessful())
 			{
@@ -196,11 +237,41 @@ public class ItemClient
 			}
 
 			InputStream in = response.body().byteStream();
-			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), ItemPrice[].class);
+			return ItemPrices.read(in);
 		}
-		catch (JsonParseException ex)
+	}
+
+	/**
+	 * Get the prices which have changed since a price snapshot version
+	 *
+	 * @param since the version of the prices already known
+	 * @return the changed prices, or null on error
+	 */
+	public ItemPriceDelta getPriceDelta(long since) throws IOException
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("item")
+			.addPathSegment("prices")
+			.addPathSegment("delta")
+			.addQueryParameter("since", Long.toString(since))
+			.build();
+
+		logger.debug("Built URI: {}", url);
+
+		Request request = new Request.Builder()
+			.url(url)
+			.build();
+
+		try (Response response = client.newCall(request).execute())
 		{
-			throw new IOException(ex);
+			if (!response.isSuccessful())
+			{
+				logger.warn("Error looking up price delta: {}", response.message());
+				return null;
+			}
+
+			InputStream in = response.body().byteStream();
+			return ItemPriceDelta.read(in);
 		}
 	}
 
@@ -218,7 +289,7 @@ public class ItemClient
 			.url(url)
 			.build();
 
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		try (Response response = client.newCall(request).execute())
 		{
 			if (!response.isSuccessful())
 			{
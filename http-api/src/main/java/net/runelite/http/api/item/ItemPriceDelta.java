@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api.item;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import lombok.Value;
+
+/**
+ * The item prices which changed between two price snapshot versions. The binary encoding is a
+ * format version, the snapshot version, the reset flag, the entry count, and then each column.
+ */
+@Value
+public class ItemPriceDelta
+{
+	private static final int VERSION = 1;
+
+	/**
+	 * the snapshot version the delta brings prices up to
+	 */
+	private long version;
+	/**
+	 * if set the delta could not be computed, and all prices must be fetched again
+	 */
+	private boolean reset;
+	private int[] ids;
+	private int[] prices;
+
+	public static ItemPriceDelta read(InputStream inputStream) throws IOException
+	{
+		DataInputStream in = new DataInputStream(inputStream);
+
+		int format = in.readInt();
+		if (format != VERSION)
+		{
+			throw new IOException("Unsupported item price delta version " + format);
+		}
+
+		long version = in.readLong();
+		boolean reset = in.readBoolean();
+		int count = in.readInt();
+		int[] ids = new int[count];
+		int[] prices = new int[count];
+
+		for (int i = 0; i < count; ++i)
+		{
+			ids[i] = in.readInt();
+		}
+		for (int i = 0; i < count; ++i)
+		{
+			prices[i] = in.readInt();
+		}
+
+		return new ItemPriceDelta(version, reset, ids, prices);
+	}
+
+	public void write(OutputStream outputStream) throws IOException
+	{
+		DataOutputStream out = new DataOutputStream(outputStream);
+
+		out.writeInt(VERSION);
+		out.writeLong(version);
+		out.writeBoolean(reset);
+		out.writeInt(ids.length);
+		for (int id : ids)
+		{
+			out.writeInt(id);
+		}
+		for (int price : prices)
+		{
+			out.writeInt(price);
+		}
+		out.flush();
+	}
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api.item;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable table of item prices keyed by item id, stored as parallel arrays sorted by id.
+ * It also defines the compact binary encoding of the bulk price endpoint, which is a format
+ * version, the snapshot version, the entry count, and then each column in turn.
+ */
+public class ItemPrices implements Iterable<ItemPrice>
+{
+	public static final String MEDIA_TYPE = "application/x-runelite-prices";
+	public static final ItemPrices EMPTY = new ItemPrices(0, new int[0], new String[0], new int[0], new long[0]);
+
+	private static final int VERSION = 2;
+
+	/**
+	 * the version of the price snapshot, which can be used to request deltas from
+	 */
+	private final long version;
+	private final int[] ids;
+	private final String[] names;
+	private final int[] prices;
+	private final long[] times;
+
+	private ItemPrices(long version, int[] ids, String[] names, int[] prices, long[] times)
+	{
+		this.version = version;
+		this.ids = ids;
+		this.names = names;
+		this.prices = prices;
+		this.times = times;
+	}
+
+	public static ItemPrices of(Collection<ItemPrice> itemPrices)
+	{
+		return of(itemPrices, 0);
+	}
+
+	public static ItemPrices of(Collection<ItemPrice> itemPrices, long version)
+	{
+		ItemPrice[] sorted = itemPrices.toArray(new ItemPrice[0]);
+		Arrays.sort(sorted, (a, b) -> Integer.compare(a.getId(), b.getId()));
+
+		int[] ids = new int[sorted.length];
+		String[] names = new String[sorted.length];
+		int[] prices = new int[sorted.length];
+		long[] times = new long[sorted.length];
+		for (int i = 0; i < sorted.length; ++i)
+		{
+			ItemPrice itemPrice = sorted[i];
+			ids[i] = itemPrice.getId();
+			names[i] = itemPrice.getName();
+			prices[i] = itemPrice.getPrice();
+			times[i] = itemPrice.getTime().toEpochMilli();
+		}
+		return new ItemPrices(version, ids, names, prices, times);
+	}
+
+	public static ItemPrices read(InputStream inputStream) throws IOException
+	{
+		DataInputStream in = new DataInputStream(inputStream);
+
+		int format = in.readInt();
+		if (format != VERSION)
+		{
+			throw new IOException("Unsupported item prices version " + format);
+		}
+
+		long version = in.readLong();
+		int count = in.readInt();
+		int[] ids = new int[count];
+		String[] names = new String[count];
+		int[] prices = new int[count];
+		long[] times = new long[count];
+
+		for (int i = 0; i < count; ++i)
+		{
+			ids[i] = in.readInt();
+		}
+		for (int i = 0; i < count; ++i)
+		{
+			names[i] = in.readUTF();
+		}
+		for (int i = 0; i < count; ++i)
+		{
+			prices[i] = in.readInt();
+		}
+		for (int i = 0; i < count; ++i)
+		{
+			times[i] = in.readLong();
+		}
+
+		return new ItemPrices(version, ids, names, prices, times);
+	}
+
+	public void write(OutputStream outputStream) throws IOException
+	{
+		DataOutputStream out = new DataOutputStream(outputStream);
+
+		out.writeInt(VERSION);
+		out.writeLong(version);
+		out.writeInt(ids.length);
+		for (int id : ids)
+		{
+			out.writeInt(id);
+		}
+		for (String name : names)
+		{
+			out.writeUTF(name);
+		}
+		for (int price : prices)
+		{
+			out.writeInt(price);
+		}
+		for (long time : times)
+		{
+			out.writeLong(time);
+		}
+		out.flush();
+	}
+
+	public long getVersion()
+	{
+		return version;
+	}
+
+	public int size()
+	{
+		return ids.length;
+	}
+
+	/**
+	 * Look up an item's price
+	 *
+	 * @param itemId item id
+	 * @return the price, or 0 if the item has no price
+	 */
+	public int getPrice(int itemId)
+	{
+		int idx = Arrays.binarySearch(ids, itemId);
+		return idx >= 0 ? prices[idx] : 0;
+	}
+
+	public ItemPrice get(int itemId)
+	{
+		int idx = Arrays.binarySearch(ids, itemId);
+		return idx >= 0 ? toItemPrice(idx) : null;
+	}
+
+	public ItemPrice[] toArray()
+	{
+		ItemPrice[] itemPrices = new ItemPrice[ids.length];
+		for (int i = 0; i < ids.length; ++i)
+		{
+			itemPrices[i] = toItemPrice(i);
+		}
+		return itemPrices;
+	}
+
+	@Override
+	public Iterator<ItemPrice> iterator()
+	{
+		return new Iterator<ItemPrice>()
+		{
+			private int idx;
+
+			@Override
+			public boolean hasNext()
+			{
+				return idx < ids.length;
+			}
+
+			@Override
+			public ItemPrice next()
+			{
+				if (idx >= ids.length)
+				{
+					throw new NoSuchElementException();
+				}
+				return toItemPrice(idx++);
+			}
+		};
+	}
+
+	private ItemPrice toItemPrice(int idx)
+	{
+		ItemPrice itemPrice = new ItemPrice();
+		itemPrice.setId(ids[idx]);
+		itemPrice.setName(names[idx]);
+		itemPrice.setPrice(prices[idx]);
+		itemPrice.setTime(Instant.ofEpochMilli(times[idx]));
+		return itemPrice;
+	}
+}
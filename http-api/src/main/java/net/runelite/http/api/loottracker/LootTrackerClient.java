@@ -31,8 +31,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.RuneLiteAPI;
@@ -55,13 +57,26 @@ public class LootTrackerClient
 
 	public void submit(LootRecord lootRecord)
 	{
+		submit(Collections.singletonList(lootRecord));
+	}
+
+	/**
+	 * Submit the loot records in the background
+	 *
+	 * @return a future completed once the request has finished, successfully or not
+	 */
+	public CompletableFuture<Void> submit(Collection<LootRecord> lootRecords)
+	{
+		CompletableFuture<Void> future = new CompletableFuture<>();
+
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
 			.addPathSegment("loottracker")
+			.addPathSegment("batch")
 			.build();
 
 		Request request = new Request.Builder()
 			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
-			.post(RequestBody.create(JSON, GSON.toJson(lootRecord)))
+			.post(RequestBody.create(JSON, GSON.toJson(lootRecords)))
 			.url(url)
 			.build();
 
@@ -71,6 +86,7 @@ public class LootTrackerClient
 			public void onFailure(Call call, IOException e)
 			{
 				log.warn("unable to submit loot", e);
+				future.complete(null);
 			}
 
 			@Override
@@ -78,8 +94,10 @@ public class LootTrackerClient
 			{
 				log.debug("Submitted loot");
 				response.close();
+				future.complete(null);
 			}
 		});
+		return future;
 	}
 
 	public Collection<LootRecord> get() throws IOException
@@ -113,6 +131,38 @@ public class LootTrackerClient
 		}
 	}
 
+	public Collection<LootAggregate> getAggregate() throws IOException
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("loottracker")
+			.addPathSegment("aggregate")
+			.build();
+
+		Request request = new Request.Builder()
+			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
+			.get()
+			.url(url)
+			.build();
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				log.debug("Error looking up loot totals: {}", response.message());
+				return null;
+			}
+
+			InputStream in = response.body().byteStream();
+			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), new TypeToken<List<LootAggregate>>()
+			{
+			}.getType());
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException(ex);
+		}
+	}
+
 	public void delete(String eventId)
 	{
 		HttpUrl.Builder builder = RuneLiteAPI.getApiBase().newBuilder()
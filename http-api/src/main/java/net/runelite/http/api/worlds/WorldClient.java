@@ -28,6 +28,7 @@ package net.runelite.http.api.worlds;
 import com.google.gson.JsonParseException;
 import net.runelite.http.api.RuneLiteAPI;
 import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.slf4j.Logger;
@@ -36,10 +37,24 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
 
 public class WorldClient
 {
 	private static final Logger logger = LoggerFactory.getLogger(WorldClient.class);
+	private static final long LONG_POLL_TIMEOUT = 90;
+
+	private final OkHttpClient client;
+
+	public WorldClient()
+	{
+		this(RuneLiteAPI.CLIENT);
+	}
+
+	public WorldClient(OkHttpClient client)
+	{
+		this.client = client;
+	}
 
 	public WorldResult lookupWorlds() throws IOException
 	{
@@ -53,7 +68,7 @@ public class WorldClient
 			.url(url)
 			.build();
 
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		try (Response response = client.newCall(request).execute())
 		{
 			if (!response.isSuccessful())
 			{
@@ -69,4 +84,46 @@ public class WorldClient
 			throw new IOException(ex);
 		}
 	}
+
+	/**
+	 * Look up the changes to the world list since a version
+	 *
+	 * @param since version of the world list held
+	 * @param wait  if the server should wait for the world list to change before responding
+	 */
+	public WorldDelta lookupWorldDelta(long since, boolean wait) throws IOException
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("worlds")
+			.addPathSegment("delta")
+			.addQueryParameter("since", Long.toString(since))
+			.addQueryParameter("wait", Boolean.toString(wait))
+			.build();
+
+		logger.debug("Built URI: {}", url);
+
+		Request request = new Request.Builder()
+			.url(url)
+			.build();
+
+		OkHttpClient callClient = wait
+			? client.newBuilder().readTimeout(LONG_POLL_TIMEOUT, TimeUnit.SECONDS).build()
+			: client;
+
+		try (Response response = callClient.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				logger.debug("Error looking up world delta: {}", response.message());
+				return null;
+			}
+
+			InputStream in = response.body().byteStream();
+			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), WorldDelta.class);
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException(ex);
+		}
+	}
 }
@@ -24,12 +24,26 @@
  */
 package net.runelite.http.api.worlds;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class WorldResult
 {
+	private long version;
 	private List<World> worlds;
 
+	public long getVersion()
+	{
+		return version;
+	}
+
+	public void setVersion(long version)
+	{
+		this.version = version;
+	}
+
 	public List<World> getWorlds()
 	{
 		return worlds;
@@ -51,4 +65,41 @@ public class WorldResult
 		}
 		return null;
 	}
+
+	/**
+	 * Apply a delta to this world list
+	 *
+	 * @return the updated world list
+	 */
+	public WorldResult apply(WorldDelta delta)
+	{
+		Map<Integer, WorldUpdate> updates = new HashMap<>();
+		for (WorldUpdate update : delta.getUpdates())
+		{
+			updates.put(update.getId(), update);
+		}
+
+		List<World> updatedWorlds = new ArrayList<>(worlds.size());
+		for (World world : worlds)
+		{
+			WorldUpdate update = updates.get(world.getId());
+			if (update != null)
+			{
+				world = World.builder()
+					.id(world.getId())
+					.types(update.getTypes())
+					.address(world.getAddress())
+					.activity(world.getActivity())
+					.location(world.getLocation())
+					.players(update.getPlayers())
+					.build();
+			}
+			updatedWorlds.add(world);
+		}
+
+		WorldResult worldResult = new WorldResult();
+		worldResult.setVersion(delta.getVersion());
+		worldResult.setWorlds(updatedWorlds);
+		return worldResult;
+	}
 }
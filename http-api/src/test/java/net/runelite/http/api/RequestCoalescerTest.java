@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class RequestCoalescerTest
+{
+	@Test
+	public void testCoalesce() throws InterruptedException, ExecutionException
+	{
+		RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>();
+		AtomicInteger loads = new AtomicInteger();
+		CompletableFuture<Integer> request = new CompletableFuture<>();
+
+		CompletableFuture<Integer> first = coalescer.get("a", () ->
+		{
+			loads.incrementAndGet();
+			return request;
+		});
+		CompletableFuture<Integer> second = coalescer.get("a", () ->
+		{
+			loads.incrementAndGet();
+			return new CompletableFuture<>();
+		});
+
+		assertSame(first, second);
+		assertEquals(1, loads.get());
+
+		request.complete(42);
+		assertEquals(42, (int) first.get());
+
+		// only running requests are shared
+		CompletableFuture<Integer> third = coalescer.get("a", () ->
+		{
+			loads.incrementAndGet();
+			return CompletableFuture.completedFuture(43);
+		});
+
+		assertNotSame(first, third);
+		assertEquals(2, loads.get());
+		assertEquals(43, (int) third.get());
+	}
+
+	@Test
+	public void testFailedRequest() throws InterruptedException, ExecutionException
+	{
+		RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>();
+		CompletableFuture<Integer> request = new CompletableFuture<>();
+
+		CompletableFuture<Integer> first = coalescer.get("a", () -> request);
+		request.completeExceptionally(new IllegalStateException());
+		assertTrue(first.isCompletedExceptionally());
+
+		CompletableFuture<Integer> second = coalescer.get("a", () -> CompletableFuture.completedFuture(1));
+		assertEquals(1, (int) second.get());
+	}
+
+	@Test
+	public void testThrowingLoader() throws InterruptedException, ExecutionException
+	{
+		RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>();
+
+		CompletableFuture<Integer> first = coalescer.get("a", () ->
+		{
+			throw new IllegalArgumentException();
+		});
+		assertTrue(first.isCompletedExceptionally());
+
+		// the failed load must not stay in flight
+		CompletableFuture<Integer> second = coalescer.get("a", () -> CompletableFuture.completedFuture(1));
+		assertEquals(1, (int) second.get());
+	}
+}
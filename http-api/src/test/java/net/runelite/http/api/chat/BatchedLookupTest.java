@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api.chat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchedLookupTest
+{
+	private final MockWebServer server = new MockWebServer();
+	private final List<List<String>> requests = Collections.synchronizedList(new ArrayList<>());
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Before
+	public void before() throws IOException
+	{
+		server.start();
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		release.countDown();
+		server.shutdown();
+	}
+
+	@Test
+	public void testCoalescing() throws Exception
+	{
+		// answers each key with ten times its value, and nothing for keys that are not numbers
+		dispatch(keys ->
+		{
+			StringBuilder sb = new StringBuilder("[");
+			for (String key : keys)
+			{
+				if (sb.length() > 1)
+				{
+					sb.append(',');
+				}
+				sb.append(key.matches("\\d+") ? Integer.toString(Integer.parseInt(key) * 10) : "null");
+			}
+			return new MockResponse().setBody(sb.append(']').toString());
+		});
+
+		BatchedLookup<String> lookup = lookup(10);
+		CompletableFuture<Integer> first = lookup.lookup("1");
+		CompletableFuture<Integer> second = lookup.lookup("2");
+		CompletableFuture<Integer> unknown = lookup.lookup("unknown");
+		CompletableFuture<Integer> third = lookup.lookup("3");
+		release.countDown();
+
+		assertEquals(Integer.valueOf(10), get(first));
+		// the lookups made while the first was in flight are sent together, each answered in order
+		assertEquals(Integer.valueOf(20), get(second));
+		assertNull(get(unknown));
+		assertEquals(Integer.valueOf(30), get(third));
+
+		assertEquals(Arrays.asList(
+			Collections.singletonList("1"),
+			Arrays.asList("2", "unknown", "3")
+		), requests);
+	}
+
+	@Test
+	public void testMaxBatchSize() throws Exception
+	{
+		dispatch(keys -> new MockResponse().setBody(keys.size() == 1 ? "[1]" : "[1,2]"));
+
+		BatchedLookup<String> lookup = lookup(2);
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		for (String key : Arrays.asList("a", "b", "c", "d", "e", "f"))
+		{
+			futures.add(lookup.lookup(key));
+		}
+		release.countDown();
+
+		for (CompletableFuture<Integer> future : futures)
+		{
+			get(future);
+		}
+
+		assertEquals(Arrays.asList(
+			Collections.singletonList("a"),
+			Arrays.asList("b", "c"),
+			Arrays.asList("d", "e"),
+			Collections.singletonList("f")
+		), requests);
+	}
+
+	@Test
+	public void testResponseSizeMismatch() throws Exception
+	{
+		dispatch(keys -> new MockResponse().setBody("[1,2]"));
+		release.countDown();
+
+		BatchedLookup<String> lookup = lookup(10);
+		assertFailed(lookup.lookup("a"), IOException.class);
+
+		// the next lookup is still sent
+		assertFailed(lookup.lookup("b"), IOException.class);
+		assertEquals(2, requests.size());
+	}
+
+	@Test
+	public void testUnsuccessfulResponse() throws Exception
+	{
+		dispatch(keys -> new MockResponse().setResponseCode(500));
+		release.countDown();
+
+		assertFailed(lookup(10).lookup("a"), IOException.class);
+	}
+
+	@Test
+	public void testUnsendableBatch() throws Exception
+	{
+		List<List<String>> batches = new ArrayList<>();
+		BatchedLookup<String> lookup = new BatchedLookup<>(10, keys ->
+		{
+			batches.add(new ArrayList<>(keys));
+			throw new IllegalArgumentException("bad key");
+		});
+
+		CompletableFuture<Integer> first = lookup.lookup("a");
+		assertTrue(first.isDone());
+		assertFailed(first, IllegalArgumentException.class);
+
+		// a failed send must not leave the lookup stuck waiting for a response that never comes
+		CompletableFuture<Integer> second = lookup.lookup("b");
+		assertTrue(second.isDone());
+		assertFailed(second, IllegalArgumentException.class);
+
+		assertEquals(2, batches.size());
+		assertEquals("b", batches.get(1).get(0));
+	}
+
+	private BatchedLookup<String> lookup(int maxBatchSize)
+	{
+		return new BatchedLookup<>(maxBatchSize, keys -> server.url("/lookup").newBuilder()
+			.addQueryParameter("keys", String.join(",", keys))
+			.build());
+	}
+
+	/**
+	 * Answer requests with the given responder. The first request is held until {@link #release}
+	 * is counted down, so lookups made before then queue up behind it.
+	 */
+	private void dispatch(Responder responder)
+	{
+		server.setDispatcher(new Dispatcher()
+		{
+			@Override
+			public MockResponse dispatch(RecordedRequest request) throws InterruptedException
+			{
+				List<String> keys = Arrays.asList(server.url(request.getPath()).queryParameter("keys").split(","));
+				requests.add(keys);
+				release.await();
+				return responder.respond(keys);
+			}
+		});
+	}
+
+	private interface Responder
+	{
+		MockResponse respond(List<String> keys);
+	}
+
+	private static Integer get(CompletableFuture<Integer> future) throws InterruptedException, ExecutionException, TimeoutException
+	{
+		return future.get(5, TimeUnit.SECONDS);
+	}
+
+	private static void assertFailed(CompletableFuture<Integer> future, Class<? extends Exception> cause) throws InterruptedException, TimeoutException
+	{
+		try
+		{
+			get(future);
+			fail();
+		}
+		catch (ExecutionException ex)
+		{
+			assertTrue(cause.isInstance(ex.getCause()));
+		}
+	}
+}
@@ -24,6 +24,7 @@
  */
 package net.runelite.http.service;
 
+import net.runelite.http.api.item.ItemPrices;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
@@ -31,7 +32,8 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
 /**
- * Configure .js as application/json to trick Cloudflare into caching json responses
+ * Configure .js as application/json to trick Cloudflare into caching json responses,
+ * and .bin as the binary item price format for the same reason
  */
 @Configuration
 @EnableWebMvc
@@ -41,5 +43,6 @@ public class SpringContentNegotiationConfigurer extends WebMvcConfigurerAdapter
 	public void configureContentNegotiation(ContentNegotiationConfigurer configurer)
 	{
 		configurer.mediaType("js", MediaType.APPLICATION_JSON);
+		configurer.mediaType("bin", MediaType.parseMediaType(ItemPrices.MEDIA_TYPE));
 	}
 }
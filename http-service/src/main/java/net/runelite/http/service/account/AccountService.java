@@ -46,6 +46,7 @@ import net.runelite.http.service.account.beans.SessionEntry;
 import net.runelite.http.service.account.beans.UserEntry;
 import net.runelite.http.service.ws.SessionManager;
 import net.runelite.http.service.ws.WSService;
+import net.runelite.http.service.ws.WSStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -284,4 +285,10 @@ public class AccountService
 	{
 		return SessionManager.getCount();
 	}
+
+	@RequestMapping("/wsstats")
+	public WSStats wsstats()
+	{
+		return SessionManager.getStats();
+	}
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two tier cache in front of an {@link ObjectStore}. Archives are immutable for a given hash, so entries
+ * never need to be invalidated. The hottest archives are kept on heap, bounded by total size in bytes, and
+ * everything fetched is also spilled to a local directory which is pruned by least recent use once it
+ * grows past its limit.
+ * <p>
+ * Returned arrays are shared between callers and must not be modified.
+ */
+@Slf4j
+public class ArchiveCache
+{
+	private static final String TMP_SUFFIX = ".tmp";
+
+	private final ObjectStore objectStore;
+	private final Cache<String, byte[]> heap;
+	private final Path directory;
+	private final long maxDiskBytes;
+
+	private final AtomicLong diskBytes = new AtomicLong();
+	private final LongAdder heapHits = new LongAdder();
+	private final LongAdder diskHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public ArchiveCache(ObjectStore objectStore, long maxHeapBytes, File directory, long maxDiskBytes) throws IOException
+	{
+		this.objectStore = objectStore;
+		this.heap = CacheBuilder.newBuilder()
+			.maximumWeight(maxHeapBytes)
+			.<String, byte[]>weigher((k, v) -> v.length)
+			.build();
+		this.directory = directory.toPath();
+		this.maxDiskBytes = maxDiskBytes;
+
+		Files.createDirectories(this.directory);
+		try (Stream<Path> files = Files.walk(this.directory))
+		{
+			diskBytes.set(files.filter(ArchiveCache::isArchive).mapToLong(f -> f.toFile().length()).sum());
+		}
+	}
+
+	/**
+	 * @param path path of the archive in the object store
+	 * @return the archive data
+	 * @throws IOException if the archive is not cached and can't be fetched from the object store
+	 */
+	public byte[] get(String path) throws IOException
+	{
+		byte[] data = heap.getIfPresent(path);
+		if (data != null)
+		{
+			heapHits.increment();
+			return data;
+		}
+
+		final Path file = directory.resolve(path);
+		data = readFromDisk(file);
+		if (data != null)
+		{
+			diskHits.increment();
+			heap.put(path, data);
+			return data;
+		}
+
+		misses.increment();
+		data = objectStore.getObject(path);
+		heap.put(path, data);
+		writeToDisk(file, data);
+		return data;
+	}
+
+	public ArchiveCacheStats getStats()
+	{
+		return new ArchiveCacheStats(heapHits.sum(), diskHits.sum(), misses.sum(), heap.size(), diskBytes.get());
+	}
+
+	private byte[] readFromDisk(Path file)
+	{
+		try
+		{
+			byte[] data = Files.readAllBytes(file);
+			// the modification time doubles as last access time when pruning
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			return data;
+		}
+		catch (NoSuchFileException ex)
+		{
+			return null;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to read cached archive {}", file, ex);
+			return null;
+		}
+	}
+
+	private void writeToDisk(Path file, byte[] data)
+	{
+		try
+		{
+			Files.createDirectories(file.getParent());
+
+			// write to a temporary file first so concurrent readers never see a partial archive
+			Path tmp = Files.createTempFile(file.getParent(), null, TMP_SUFFIX);
+			try
+			{
+				Files.write(tmp, data);
+				// unlike a move, linking never replaces an existing file, so only the first writer counts the bytes
+				Files.createLink(file, tmp);
+			}
+			catch (FileAlreadyExistsException ex)
+			{
+				// another request stored the same archive first
+				return;
+			}
+			finally
+			{
+				Files.deleteIfExists(tmp);
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to cache archive {}", file, ex);
+			return;
+		}
+
+		if (diskBytes.addAndGet(data.length) > maxDiskBytes)
+		{
+			prune();
+		}
+	}
+
+	private synchronized void prune()
+	{
+		if (diskBytes.get() <= maxDiskBytes)
+		{
+			return;
+		}
+
+		final List<Path> files;
+		try (Stream<Path> stream = Files.walk(directory))
+		{
+			// temporary files belong to writes in progress on other threads
+			files = stream.filter(ArchiveCache::isArchive)
+				.sorted(Comparator.comparingLong(f -> f.toFile().lastModified()))
+				.collect(Collectors.toList());
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to prune archive cache", ex);
+			return;
+		}
+
+		// prune down to 90% so that every write after reaching the limit doesn't trigger another prune
+		final long target = maxDiskBytes / 10 * 9;
+		for (Path file : files)
+		{
+			if (diskBytes.get() <= target)
+			{
+				break;
+			}
+
+			long length = file.toFile().length();
+			try
+			{
+				if (Files.deleteIfExists(file))
+				{
+					diskBytes.addAndGet(-length);
+				}
+			}
+			catch (IOException ex)
+			{
+				log.warn("unable to delete cached archive {}", file, ex);
+			}
+		}
+	}
+
+	private static boolean isArchive(Path file)
+	{
+		return Files.isRegularFile(file) && !file.getFileName().toString().endsWith(TMP_SUFFIX);
+	}
+}
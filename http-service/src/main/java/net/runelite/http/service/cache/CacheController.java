@@ -75,6 +75,9 @@ public class CacheController
 	@Autowired
 	private CacheService cacheService;
 
+	private ItemSpriteFactory itemSpriteFactory;
+	private int itemSpriteFactoryCacheId;
+
 	@RequestMapping("/")
 	public List<Cache> listCaches()
 	{
@@ -83,6 +86,12 @@ public class CacheController
 			.collect(Collectors.toList());
 	}
 
+	@RequestMapping("stats")
+	public ArchiveCacheStats archiveCacheStats()
+	{
+		return cacheService.getArchiveCacheStats();
+	}
+
 	@RequestMapping("{cacheId}")
 	public List<CacheIndex> listIndexes(@PathVariable int cacheId)
 	{
@@ -230,6 +239,29 @@ public class CacheController
 	) throws IOException
 	{
 		final CacheEntry cache = cacheService.findMostRecent();
+		BufferedImage itemImage = getItemSpriteFactory(cache).createSprite(itemId, quantity, border, shadowColor, false);
+		ByteArrayOutputStream bao = new ByteArrayOutputStream();
+		ImageIO.write(itemImage, "png", bao);
+		return ResponseEntity.ok(bao.toByteArray());
+	}
+
+	/**
+	 * Get the item sprite factory for a cache, which is kept between requests so its textures
+	 * and item models can be reused
+	 */
+	private synchronized ItemSpriteFactory getItemSpriteFactory(CacheEntry cache)
+	{
+		if (itemSpriteFactory == null || itemSpriteFactoryCacheId != cache.getId())
+		{
+			itemSpriteFactory = createItemSpriteFactory(cache);
+			itemSpriteFactoryCacheId = cache.getId();
+		}
+
+		return itemSpriteFactory;
+	}
+
+	private ItemSpriteFactory createItemSpriteFactory(CacheEntry cache)
+	{
 		ItemProvider itemProvider = new ItemProvider()
 		{
 			@Override
@@ -306,11 +338,7 @@ public class CacheController
 			}
 		};
 
-		BufferedImage itemImage = ItemSpriteFactory.createSprite(itemProvider, modelProvider, spriteProvider, textureProvider2,
-			itemId, quantity, border, shadowColor, false);
-		ByteArrayOutputStream bao = new ByteArrayOutputStream();
-		ImageIO.write(itemImage, "png", bao);
-		return ResponseEntity.ok(bao.toByteArray());
+		return new ItemSpriteFactory(itemProvider, modelProvider, spriteProvider, textureProvider2);
 	}
 
 	@RequestMapping("object/{objectId}")
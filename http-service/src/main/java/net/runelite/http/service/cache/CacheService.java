@@ -26,22 +26,14 @@ package net.runelite.http.service.cache;
 
 import com.google.common.collect.Iterables;
 import com.google.common.io.BaseEncoding;
-import com.google.common.io.ByteStreams;
 import io.minio.MinioClient;
-import io.minio.errors.ErrorResponseException;
-import io.minio.errors.InsufficientDataException;
-import io.minio.errors.InternalException;
-import io.minio.errors.InvalidArgumentException;
-import io.minio.errors.InvalidBucketNameException;
 import io.minio.errors.InvalidEndpointException;
 import io.minio.errors.InvalidPortException;
-import io.minio.errors.NoResponseException;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.ConfigType;
 import net.runelite.cache.IndexType;
@@ -62,7 +54,6 @@ import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
 import org.sql2o.ResultSetIterable;
 import org.sql2o.Sql2o;
-import org.xmlpull.v1.XmlPullParserException;
 
 @Service
 @Slf4j
@@ -75,7 +66,17 @@ public class CacheService
 	@Value("${minio.bucket}")
 	private String minioBucket;
 
+	@Value("${runelite.cache.archive-cache.heap-size:67108864}")
+	private long archiveCacheHeapSize;
+
+	@Value("${runelite.cache.archive-cache.directory:${java.io.tmpdir}/runelite-archive-cache}")
+	private File archiveCacheDirectory;
+
+	@Value("${runelite.cache.archive-cache.disk-size:2147483648}")
+	private long archiveCacheDiskSize;
+
 	private final MinioClient minioClient;
+	private ArchiveCache archiveCache;
 
 	@Autowired
 	public CacheService(
@@ -87,6 +88,13 @@ public class CacheService
 		this.minioClient = new MinioClient(minioEndpoint, accessKey, secretKey);
 	}
 
+	@PostConstruct
+	public void init() throws IOException
+	{
+		archiveCache = new ArchiveCache(new MinioObjectStore(minioClient, minioBucket),
+			archiveCacheHeapSize, archiveCacheDirectory, archiveCacheDiskSize);
+	}
+
 	@Bean
 	public MinioClient minioClient()
 	{
@@ -94,7 +102,8 @@ public class CacheService
 	}
 
 	/**
-	 * retrieve archive from storage
+	 * retrieve archive from storage. The returned array is shared with other callers and must not be
+	 * modified.
 	 *
 	 * @param archiveEntry
 	 * @return
@@ -108,19 +117,22 @@ public class CacheService
 			.append(hashStr.substring(2))
 			.toString();
 
-		try (InputStream in = minioClient.getObject(minioBucket, path))
+		try
 		{
-			return ByteStreams.toByteArray(in);
+			return archiveCache.get(path);
 		}
-		catch (InvalidBucketNameException | NoSuchAlgorithmException | InsufficientDataException
-			| IOException | InvalidKeyException | NoResponseException | XmlPullParserException
-			| ErrorResponseException | InternalException | InvalidArgumentException ex)
+		catch (IOException ex)
 		{
 			log.warn(null, ex);
 			return null;
 		}
 	}
 
+	public ArchiveCacheStats getArchiveCacheStats()
+	{
+		return archiveCache.getStats();
+	}
+
 	public ArchiveFiles getArchiveFiles(ArchiveEntry archiveEntry) throws IOException
 	{
 		CacheDAO cacheDao = new CacheDAO();
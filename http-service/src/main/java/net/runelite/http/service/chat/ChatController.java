@@ -24,9 +24,9 @@
  */
 package net.runelite.http.service.chat;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.http.service.util.exception.BadRequestException;
 import net.runelite.http.service.util.exception.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -39,10 +39,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/chat")
 public class ChatController
 {
-	private final Cache<KillCountKey, Integer> killCountCache = CacheBuilder.newBuilder()
-		.expireAfterWrite(2, TimeUnit.MINUTES)
-		.maximumSize(128L)
-		.build();
+	private static final int MAX_BATCH_LOOKUP = 100;
 
 	@Autowired
 	private ChatService chatService;
@@ -56,27 +53,38 @@ public class ChatController
 		}
 
 		chatService.setKc(name, boss, kc);
-		killCountCache.put(new KillCountKey(name, boss), kc);
 	}
 
 	@GetMapping("/kc")
 	public int getKc(@RequestParam String name, @RequestParam String boss)
 	{
-		Integer kc = killCountCache.getIfPresent(new KillCountKey(name, boss));
+		Integer kc = chatService.getKc(name, boss);
 		if (kc == null)
 		{
-			kc = chatService.getKc(name, boss);
-			if (kc != null)
-			{
-				killCountCache.put(new KillCountKey(name, boss), kc);
-			}
+			throw new NotFoundException();
 		}
+		return kc;
+	}
 
-		if (kc == null)
+	/**
+	 * Look up several kill counts at once. The names and bosses are paired up in order.
+	 *
+	 * @return the kill counts in request order, null where unknown
+	 */
+	@GetMapping("/kc/batch")
+	public List<Integer> getKcs(@RequestParam("name") List<String> names, @RequestParam("boss") List<String> bosses)
+	{
+		if (names.size() != bosses.size() || names.size() > MAX_BATCH_LOOKUP)
 		{
-			throw new NotFoundException();
+			throw new BadRequestException();
 		}
-		return kc;
+
+		List<KillCountKey> keys = new ArrayList<>(names.size());
+		for (int i = 0; i < names.size(); ++i)
+		{
+			keys.add(new KillCountKey(names.get(i), bosses.get(i)));
+		}
+		return chatService.getKc(keys);
 	}
 
 	@PostMapping("/qp")
@@ -100,4 +108,20 @@ public class ChatController
 		}
 		return kc;
 	}
+
+	/**
+	 * Look up the quest points of several players at once
+	 *
+	 * @return the quest points in request order, null where unknown
+	 */
+	@GetMapping("/qp/batch")
+	public List<Integer> getQps(@RequestParam("name") List<String> names)
+	{
+		if (names.size() > MAX_BATCH_LOOKUP)
+		{
+			throw new BadRequestException();
+		}
+
+		return chatService.getQp(names);
+	}
 }
@@ -24,7 +24,13 @@
  */
 package net.runelite.http.service.chat;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import redis.clients.jedis.Jedis;
@@ -37,6 +43,15 @@ public class ChatService
 
 	private final JedisPool jedisPool;
 
+	/**
+	 * Short lived cache of redis values, including missing values, to absorb repeated lookups of
+	 * the same player in busy chats. It is short so values set through other instances are seen quickly.
+	 */
+	private final Cache<String, Optional<Integer>> nearCache = CacheBuilder.newBuilder()
+		.expireAfterWrite(10, TimeUnit.SECONDS)
+		.maximumSize(4096L)
+		.build();
+
 	@Autowired
 	public ChatService(JedisPool jedisPool)
 	{
@@ -45,37 +60,132 @@ public class ChatService
 
 	public Integer getKc(String name, String boss)
 	{
-		String value;
-		try (Jedis jedis = jedisPool.getResource())
+		return get(kcKey(name, boss));
+	}
+
+	/**
+	 * Look up the kill counts of several players or bosses at once
+	 *
+	 * @return the kill counts, in the order of the keys, null if not known
+	 */
+	public List<Integer> getKc(List<KillCountKey> keys)
+	{
+		List<String> redisKeys = new ArrayList<>(keys.size());
+		for (KillCountKey key : keys)
 		{
-			value = jedis.get("kc." + name + "." + boss);
+			redisKeys.add(kcKey(key.getUsername(), key.getBoss()));
 		}
-		return value == null ? null : Integer.parseInt(value);
+		return get(redisKeys);
 	}
 
 	public void setKc(String name, String boss, int kc)
 	{
-		try (Jedis jedis = jedisPool.getResource())
+		set(kcKey(name, boss), kc);
+	}
+
+	public Integer getQp(String name)
+	{
+		return get(qpKey(name));
+	}
+
+	/**
+	 * Look up the quest points of several players at once
+	 *
+	 * @return the quest points, in the order of the names, null if not known
+	 */
+	public List<Integer> getQp(List<String> names)
+	{
+		List<String> redisKeys = new ArrayList<>(names.size());
+		for (String name : names)
 		{
-			jedis.setex("kc." + name + "." + boss, (int) EXPIRE.getSeconds(), Integer.toString(kc));
+			redisKeys.add(qpKey(name));
 		}
+		return get(redisKeys);
 	}
 
-	public Integer getQp(String name)
+	public void setQp(String name, int qp)
+	{
+		set(qpKey(name), qp);
+	}
+
+	private static String kcKey(String name, String boss)
+	{
+		return "kc." + name + "." + boss;
+	}
+
+	private static String qpKey(String name)
 	{
+		return "qp." + name;
+	}
+
+	private Integer get(String key)
+	{
+		Optional<Integer> cached = nearCache.getIfPresent(key);
+		if (cached != null)
+		{
+			return cached.orElse(null);
+		}
+
 		String value;
 		try (Jedis jedis = jedisPool.getResource())
 		{
-			value = jedis.get("qp." + name);
+			value = jedis.get(key);
 		}
-		return value == null ? null : Integer.parseInt(value);
+
+		Integer i = value == null ? null : Integer.parseInt(value);
+		nearCache.put(key, Optional.ofNullable(i));
+		return i;
 	}
 
-	public void setQp(String name, int qp)
+	private List<Integer> get(List<String> keys)
+	{
+		List<Integer> result = new ArrayList<>(keys.size());
+		List<String> missing = new ArrayList<>();
+		List<Integer> missingIdx = new ArrayList<>();
+
+		for (String key : keys)
+		{
+			Optional<Integer> cached = nearCache.getIfPresent(key);
+			if (cached != null)
+			{
+				result.add(cached.orElse(null));
+			}
+			else
+			{
+				missing.add(key);
+				missingIdx.add(result.size());
+				result.add(null);
+			}
+		}
+
+		if (missing.isEmpty())
+		{
+			return result;
+		}
+
+		List<String> values;
+		try (Jedis jedis = jedisPool.getResource())
+		{
+			values = jedis.mget(missing.toArray(new String[0]));
+		}
+
+		for (int i = 0; i < missing.size(); ++i)
+		{
+			String value = values.get(i);
+			Integer v = value == null ? null : Integer.parseInt(value);
+			nearCache.put(missing.get(i), Optional.ofNullable(v));
+			result.set(missingIdx.get(i), v);
+		}
+
+		return result;
+	}
+
+	private void set(String key, int value)
 	{
 		try (Jedis jedis = jedisPool.getResource())
 		{
-			jedis.setex("qp." + name, (int) EXPIRE.getSeconds(), Integer.toString(qp));
+			jedis.setex(key, (int) EXPIRE.getSeconds(), Integer.toString(value));
 		}
+		nearCache.put(key, Optional.of(value));
 	}
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import net.runelite.http.api.RuneLiteAPI;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Client for the Old School Grand Exchange item database api. Every request, including icons,
+ * takes a permit from the shared rate limiter.
+ */
+class GrandExchangeClient
+{
+	private final HttpUrl itemUrl;
+	private final HttpUrl priceUrl;
+	private final HttpUrl searchUrl;
+	private final RateLimiter rateLimiter;
+
+	GrandExchangeClient(HttpUrl base, RateLimiter rateLimiter)
+	{
+		this.rateLimiter = rateLimiter;
+		this.itemUrl = base.newBuilder()
+			.addPathSegments("api/catalogue/detail.json")
+			.build();
+		this.priceUrl = base.newBuilder()
+			.addPathSegments("api/graph")
+			.build();
+		this.searchUrl = base.newBuilder()
+			.addPathSegments("api/catalogue/items.json")
+			.addQueryParameter("category", "1")
+			.build();
+	}
+
+	RSItem fetchItem(int itemId) throws IOException
+	{
+		HttpUrl url = itemUrl
+			.newBuilder()
+			.addQueryParameter("item", "" + itemId)
+			.build();
+
+		Request request = new Request.Builder()
+			.url(url)
+			.build();
+
+		RSItemResponse itemResponse = fetchJson(request, RSItemResponse.class);
+		return itemResponse.getItem();
+	}
+
+	RSPrices fetchPrices(int itemId) throws IOException
+	{
+		HttpUrl url = priceUrl
+			.newBuilder()
+			.addPathSegment(itemId + ".json")
+			.build();
+
+		Request request = new Request.Builder()
+			.url(url)
+			.build();
+
+		return fetchJson(request, RSPrices.class);
+	}
+
+	RSSearch search(String query) throws IOException
+	{
+		// rs api seems to require lowercase
+		query = query.toLowerCase();
+
+		HttpUrl url = searchUrl
+			.newBuilder()
+			.addQueryParameter("alpha", query)
+			.build();
+
+		Request request = new Request.Builder()
+			.url(url)
+			.build();
+
+		return fetchJson(request, RSSearch.class);
+	}
+
+	byte[] fetchImage(String url) throws IOException
+	{
+		HttpUrl httpUrl = HttpUrl.parse(url);
+
+		Request request = new Request.Builder()
+			.url(httpUrl)
+			.build();
+
+		rateLimiter.acquire();
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				throw new IOException("Unsuccessful http response: " + response.message());
+			}
+
+			return response.body().bytes();
+		}
+	}
+
+	private <T> T fetchJson(Request request, Class<T> clazz) throws IOException
+	{
+		rateLimiter.acquire();
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				throw new IOException("Unsuccessful http response: " + response.message());
+			}
+
+			InputStream in = response.body().byteStream();
+			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), clazz);
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException(ex);
+		}
+	}
+}
@@ -24,26 +24,35 @@
  */
 package net.runelite.http.service.item;
 
-import com.google.common.base.Supplier;
-import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletResponse;
 import net.runelite.http.api.item.Item;
 import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPrices;
 import net.runelite.http.api.item.SearchResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
 
 @RestController
 @RequestMapping("/item")
@@ -51,31 +60,27 @@ public class ItemController
 {
 	private static final String RUNELITE_CACHE = "RuneLite-Cache";
 	private static final int MAX_BATCH_LOOKUP = 1024;
+	private static final MediaType PRICES_BINARY = MediaType.parseMediaType(ItemPrices.MEDIA_TYPE);
+	private static final CacheControl PRICES_CACHE_CONTROL = CacheControl.maxAge(30, TimeUnit.MINUTES).cachePublic();
+	// the same url serves json or binary depending on the accept header
+	private static final String[] PRICES_VARY = {HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING};
 
 	private final Cache<Integer, Integer> cachedEmpty = CacheBuilder.newBuilder()
 		.maximumSize(1024L)
 		.build();
 
 	private final ItemService itemService;
-
-	private final Supplier<ItemPrice[]> memorizedPrices;
+	private final PriceSnapshotService priceSnapshotService;
+	private final ContentNegotiationManager contentNegotiationManager;
 
 	@Autowired
-	public ItemController(ItemService itemService)
+	public ItemController(ItemService itemService,
+		PriceSnapshotService priceSnapshotService,
+		ContentNegotiationManager contentNegotiationManager)
 	{
 		this.itemService = itemService;
-
-		memorizedPrices = Suppliers.memoizeWithExpiration(() -> itemService.fetchPrices().stream()
-			.map(priceEntry ->
-			{
-				ItemPrice itemPrice = new ItemPrice();
-				itemPrice.setId(priceEntry.getItem());
-				itemPrice.setName(priceEntry.getName());
-				itemPrice.setPrice(priceEntry.getPrice());
-				itemPrice.setTime(priceEntry.getTime());
-				return itemPrice;
-			})
-			.toArray(ItemPrice[]::new), 30, TimeUnit.MINUTES);
+		this.priceSnapshotService = priceSnapshotService;
+		this.contentNegotiationManager = contentNegotiationManager;
 	}
 
 	@RequestMapping("/{itemId}")
@@ -147,6 +152,12 @@ public class ItemController
 				.build();
 		}
 
+		if (time == null)
+		{
+			// clients are interested in this item, so refresh it ahead of the crawl
+			itemService.requestPrice(itemId);
+		}
+
 		PriceEntry priceEntry = itemService.getPrice(itemId, time);
 
 		if (time != null)
@@ -216,11 +227,58 @@ public class ItemController
 			.toArray(ItemPrice[]::new);
 	}
 
-	@RequestMapping("/prices")
-	public ResponseEntity<ItemPrice[]> prices()
+	@RequestMapping(path = "/prices", produces = {MediaType.APPLICATION_JSON_VALUE, ItemPrices.MEDIA_TYPE})
+	public ResponseEntity<byte[]> prices(
+		NativeWebRequest request,
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+		@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	) throws HttpMediaTypeNotAcceptableException
 	{
+		PriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+		if (snapshot == null)
+		{
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+
+		boolean binary = contentNegotiationManager.resolveMediaTypes(request).stream()
+			.anyMatch(PRICES_BINARY::includes);
+		if (binary)
+		{
+			return snapshot.getBinary().toResponse(ifNoneMatch, acceptEncoding, PRICES_BINARY, PRICES_CACHE_CONTROL, PRICES_VARY);
+		}
+		else
+		{
+			return snapshot.getJson().toResponse(ifNoneMatch, acceptEncoding, MediaType.APPLICATION_JSON_UTF8, PRICES_CACHE_CONTROL, PRICES_VARY);
+		}
+	}
+
+	@RequestMapping(path = "/prices/delta", produces = ItemPrices.MEDIA_TYPE)
+	public ResponseEntity<byte[]> priceDelta(@RequestParam long since) throws IOException
+	{
+		PriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+		if (snapshot == null)
+		{
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.delta(since).write(out);
+
 		return ResponseEntity.ok()
-			.cacheControl(CacheControl.maxAge(30, TimeUnit.MINUTES).cachePublic())
-			.body(memorizedPrices.get());
+			.contentType(PRICES_BINARY)
+			.cacheControl(CacheControl.noCache())
+			.body(out.toByteArray());
+	}
+
+	@RequestMapping("/crawl/stats")
+	public ItemCrawlStats crawlStats()
+	{
+		return itemService.getCrawlStats();
+	}
+
+	@RequestMapping("/crawl/staleness")
+	public Map<Integer, Long> crawlStaleness()
+	{
+		return itemService.getPriceStaleness();
 	}
 }
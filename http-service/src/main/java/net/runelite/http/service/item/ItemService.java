@@ -24,28 +24,33 @@
  */
 package net.runelite.http.service.item;
 
-import com.google.gson.JsonParseException;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.definitions.ItemDefinition;
-import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.item.ItemType;
 import net.runelite.http.service.cache.CacheService;
 import okhttp3.HttpUrl;
-import okhttp3.Request;
-import okhttp3.Response;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
@@ -56,11 +61,6 @@ import org.sql2o.Sql2o;
 @Slf4j
 public class ItemService
 {
-	private static final String BASE = "https://services.runescape.com/m=itemdb_oldschool";
-	private static final HttpUrl RS_ITEM_URL = HttpUrl.parse(BASE + "/api/catalogue/detail.json");
-	private static final HttpUrl RS_PRICE_URL = HttpUrl.parse(BASE + "/api/graph");
-	private static final HttpUrl RS_SEARCH_URL = HttpUrl.parse(BASE + "/api/catalogue/items.json?category=1");
-
 	private static final String CREATE_ITEMS = "CREATE TABLE IF NOT EXISTS `items` (\n"
 		+ "  `id` int(11) NOT NULL,\n"
 		+ "  `name` tinytext NOT NULL,\n"
@@ -82,21 +82,46 @@ public class ItemService
 		+ "  KEY `item_fetched_time` (`item`,`fetched_time`)\n"
 		+ ") ENGINE=InnoDB";
 
+	private static final String INSERT_PRICE = "insert into prices (item, price, time, fetched_time) values (:item, :price, :time, :fetched_time) "
+		+ "ON DUPLICATE KEY UPDATE price = VALUES(price), fetched_time = VALUES(fetched_time)";
+
 	private static final int MAX_PENDING = 512;
+	private static final int MAX_REQUESTED = 4096;
+	private static final Duration MIN_PRICE_REFRESH = Duration.ofMinutes(30);
+	private static final long IDLE_SLEEP_MS = 1000;
 
 	private final Sql2o sql2o;
 	private final CacheService cacheService;
+	private final PriceSnapshotService priceSnapshotService;
+
+	@Value("${runelite.item.ge-url:https://services.runescape.com/m=itemdb_oldschool}")
+	private String geUrl;
+
+	@Value("${runelite.item.workers:2}")
+	private int workers;
+
+	@Value("${runelite.item.lookups-per-second:2}")
+	private double lookupsPerSecond;
 
 	private final ConcurrentLinkedQueue<PendingLookup> pendingLookups = new ConcurrentLinkedQueue<PendingLookup>();
-	private int[] tradeableItems;
-	private final Random random = new Random();
+	private final PriceCrawlScheduler crawlScheduler = new PriceCrawlScheduler(MIN_PRICE_REFRESH, MAX_REQUESTED);
+	// latest fetched history per item, a newer fetch replaces any unwritten older one
+	private final ConcurrentMap<Integer, List<PriceEntry>> pendingPrices = new ConcurrentHashMap<>();
+	private GrandExchangeClient geClient;
+	private ExecutorService executor;
+
+	private final Instant started = Instant.now();
+	private final LongAdder pricesFetched = new LongAdder();
+	private final LongAdder fetchFailures = new LongAdder();
 
 	@Autowired
 	public ItemService(@Qualifier("Runelite SQL2O") Sql2o sql2o,
-		CacheService cacheService)
+		CacheService cacheService,
+		PriceSnapshotService priceSnapshotService)
 	{
 		this.sql2o = sql2o;
 		this.cacheService = cacheService;
+		this.priceSnapshotService = priceSnapshotService;
 
 		try (Connection con = sql2o.open())
 		{
@@ -108,6 +133,28 @@ public class ItemService
 		}
 	}
 
+	@PostConstruct
+	public void start()
+	{
+		geClient = new GrandExchangeClient(HttpUrl.parse(geUrl), RateLimiter.create(lookupsPerSecond));
+		executor = Executors.newFixedThreadPool(workers, new ThreadFactoryBuilder()
+			.setNameFormat("item-lookup-%d")
+			.setDaemon(true)
+			.build());
+
+		for (int i = 0; i < workers; ++i)
+		{
+			executor.execute(this::work);
+		}
+	}
+
+	@PreDestroy
+	public void stop()
+	{
+		executor.shutdownNow();
+		flushPrices();
+	}
+
 	public ItemEntry getItem(int itemId)
 	{
 		try (Connection con = sql2o.open())
@@ -190,12 +237,12 @@ public class ItemService
 	{
 		try
 		{
-			RSItem rsItem = fetchRSItem(itemId);
+			RSItem rsItem = geClient.fetchItem(itemId);
 			byte[] icon = null, iconLarge = null;
 
 			try
 			{
-				icon = fetchImage(rsItem.getIcon());
+				icon = geClient.fetchImage(rsItem.getIcon());
 			}
 			catch (IOException ex)
 			{
@@ -204,7 +251,7 @@ public class ItemService
 
 			try
 			{
-				iconLarge = fetchImage(rsItem.getIcon_large());
+				iconLarge = geClient.fetchImage(rsItem.getIcon_large());
 			}
 			catch (IOException ex)
 			{
@@ -241,112 +288,95 @@ public class ItemService
 		}
 	}
 
+	/**
+	 * Fetches the price history of the item and queues it to be written with the next batch
+	 */
 	public List<PriceEntry> fetchPrice(int itemId)
 	{
 		RSPrices rsprice;
 		try
 		{
-			rsprice = fetchRSPrices(itemId);
+			rsprice = geClient.fetchPrices(itemId);
 		}
 		catch (IOException ex)
 		{
+			fetchFailures.increment();
 			log.warn("unable to fetch price for item {}", itemId, ex);
 			return null;
 		}
 
-		try (Connection con = sql2o.beginTransaction())
+		List<PriceEntry> entries = new ArrayList<>();
+		Instant now = Instant.now();
+
+		for (Map.Entry<Long, Integer> entry : rsprice.getDaily().entrySet())
 		{
-			List<PriceEntry> entries = new ArrayList<>();
-			Instant now = Instant.now();
+			long ts = entry.getKey(); // ms since epoch
+			int price = entry.getValue(); // gp
+
+			PriceEntry priceEntry = new PriceEntry();
+			priceEntry.setItem(itemId);
+			priceEntry.setPrice(price);
+			priceEntry.setTime(Instant.ofEpochMilli(ts));
+			priceEntry.setFetched_time(now);
+			entries.add(priceEntry);
+		}
 
-			Query query = con.createQuery("insert into prices (item, price, time, fetched_time) values (:item, :price, :time, :fetched_time) "
-				+ "ON DUPLICATE KEY UPDATE price = VALUES(price), fetched_time = VALUES(fetched_time)");
+		pendingPrices.put(itemId, entries);
+		crawlScheduler.fetched(itemId, now);
+		pricesFetched.increment();
 
-			for (Map.Entry<Long, Integer> entry : rsprice.getDaily().entrySet())
-			{
-				long ts = entry.getKey(); // ms since epoch
-				int price = entry.getValue(); // gp
+		return entries;
+	}
 
-				Instant time = Instant.ofEpochMilli(ts);
+	@Scheduled(fixedDelay = 1000)
+	public void flushPrices()
+	{
+		if (pendingPrices.isEmpty())
+		{
+			return;
+		}
 
-				PriceEntry priceEntry = new PriceEntry();
-				priceEntry.setItem(itemId);
-				priceEntry.setPrice(price);
-				priceEntry.setTime(time);
-				priceEntry.setFetched_time(now);
-				entries.add(priceEntry);
+		Map<Integer, List<PriceEntry>> batch = new HashMap<>();
+		List<PriceEntry> entries = new ArrayList<>();
+		for (Integer itemId : pendingPrices.keySet())
+		{
+			List<PriceEntry> itemEntries = pendingPrices.remove(itemId);
+			if (itemEntries != null)
+			{
+				batch.put(itemId, itemEntries);
+				entries.addAll(itemEntries);
+			}
+		}
 
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query query = con.createQuery(INSERT_PRICE);
+
+			for (PriceEntry entry : entries)
+			{
 				query
-					.addParameter("item", itemId)
-					.addParameter("price", price)
-					.addParameter("time", time)
-					.addParameter("fetched_time", now)
+					.addParameter("item", entry.getItem())
+					.addParameter("price", entry.getPrice())
+					.addParameter("time", entry.getTime())
+					.addParameter("fetched_time", entry.getFetched_time())
 					.addToBatch();
 			}
 
 			query.executeBatch();
 			con.commit(false);
-
-			return entries;
 		}
-	}
-
-	public List<PriceEntry> fetchPrices()
-	{
-		try (Connection con = sql2o.beginTransaction())
+		catch (RuntimeException ex)
 		{
-			Query query = con.createQuery("select t2.item, t3.name, t2.time, prices.price, prices.fetched_time from (select t1.item as item, max(t1.time) as time from prices t1 group by item) t2 " +
-					" join prices on t2.item=prices.item and t2.time=prices.time" +
-					" join items t3 on t2.item=t3.id");
-			return query.executeAndFetch(PriceEntry.class);
+			// put them back so the next flush retries them, the insert is an upsert so retrying is safe.
+			// an item fetched again in the meantime already has newer history queued, so keep that instead
+			log.warn("Unable to write {} prices, requeueing", entries.size(), ex);
+			batch.forEach(pendingPrices::putIfAbsent);
+			return;
 		}
-	}
-
-	private RSItem fetchRSItem(int itemId) throws IOException
-	{
-		HttpUrl itemUrl = RS_ITEM_URL
-			.newBuilder()
-			.addQueryParameter("item", "" + itemId)
-			.build();
-
-		Request request = new Request.Builder()
-			.url(itemUrl)
-			.build();
 
-		RSItemResponse itemResponse = fetchJson(request, RSItemResponse.class);
-		return itemResponse.getItem();
+		log.debug("Wrote {} prices", entries.size());
 
-	}
-
-	private RSPrices fetchRSPrices(int itemId) throws IOException
-	{
-		HttpUrl priceUrl = RS_PRICE_URL
-			.newBuilder()
-			.addPathSegment(itemId + ".json")
-			.build();
-
-		Request request = new Request.Builder()
-			.url(priceUrl)
-			.build();
-
-		return fetchJson(request, RSPrices.class);
-	}
-
-	public RSSearch fetchRSSearch(String query) throws IOException
-	{
-		// rs api seems to require lowercase
-		query = query.toLowerCase();
-
-		HttpUrl searchUrl = RS_SEARCH_URL
-			.newBuilder()
-			.addQueryParameter("alpha", query)
-			.build();
-
-		Request request = new Request.Builder()
-			.url(searchUrl)
-			.build();
-
-		return fetchJson(request, RSSearch.class);
+		priceSnapshotService.update(entries);
 	}
 
 	private void batchInsertItems(RSSearch search)
@@ -371,43 +401,6 @@ public class ItemService
 		}
 	}
 
-	private <T> T fetchJson(Request request, Class<T> clazz) throws IOException
-	{
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
-		{
-			if (!response.isSuccessful())
-			{
-				throw new IOException("Unsuccessful http response: " + response.message());
-			}
-
-			InputStream in = response.body().byteStream();
-			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), clazz);
-		}
-		catch (JsonParseException ex)
-		{
-			throw new IOException(ex);
-		}
-	}
-
-	private byte[] fetchImage(String url) throws IOException
-	{
-		HttpUrl httpUrl = HttpUrl.parse(url);
-
-		Request request = new Request.Builder()
-			.url(httpUrl)
-			.build();
-
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
-		{
-			if (!response.isSuccessful())
-			{
-				throw new IOException("Unsuccessful http response: " + response.message());
-			}
-
-			return response.body().bytes();
-		}
-	}
-
 	public void queueSearch(String search)
 	{
 		if (pendingLookups.size() < MAX_PENDING)
@@ -432,60 +425,136 @@ public class ItemService
 		}
 	}
 
-	@Scheduled(fixedDelay = 5000)
-	public void check()
+	/**
+	 * Moves the item's price ahead of the background crawl, if it has not been fetched recently
+	 */
+	public void requestPrice(int itemId)
 	{
-		PendingLookup pendingLookup = pendingLookups.poll();
-		if (pendingLookup == null)
-		{
-			return;
-		}
+		crawlScheduler.request(itemId);
+	}
 
-		switch (pendingLookup.getType())
+	private void work()
+	{
+		while (!Thread.currentThread().isInterrupted())
 		{
-			case SEARCH:
-				try
-				{
-					RSSearch reSearch = fetchRSSearch(pendingLookup.getSearch());
-
-					batchInsertItems(reSearch);
-				}
-				catch (IOException ex)
+			try
+			{
+				if (!lookup())
 				{
-					log.warn("error while searching items", ex);
+					Thread.sleep(IDLE_SLEEP_MS);
 				}
-				break;
-			case ITEM:
-				fetchItem(pendingLookup.getItemId());
-				break;
+			}
+			catch (InterruptedException ex)
+			{
+				return;
+			}
+			catch (RuntimeException ex)
+			{
+				log.warn("error in item lookup worker", ex);
+			}
 		}
 	}
 
-	@Scheduled(fixedDelay = 20_000)
-	public void crawlPrices()
+	/**
+	 * Performs the next pending item lookup, or otherwise the next price fetch
+	 *
+	 * @return false if there was nothing to do
+	 */
+	private boolean lookup()
 	{
-		if (tradeableItems == null || tradeableItems.length == 0)
+		PendingLookup pendingLookup = pendingLookups.poll();
+		if (pendingLookup != null)
 		{
-			return;
+			switch (pendingLookup.getType())
+			{
+				case SEARCH:
+					try
+					{
+						RSSearch reSearch = geClient.search(pendingLookup.getSearch());
+
+						batchInsertItems(reSearch);
+					}
+					catch (IOException ex)
+					{
+						log.warn("error while searching items", ex);
+					}
+					break;
+				case ITEM:
+					fetchItem(pendingLookup.getItemId());
+					break;
+			}
+			return true;
 		}
 
-		int idx = random.nextInt(tradeableItems.length);
-		int id = tradeableItems[idx];
+		int itemId = crawlScheduler.next();
+		if (itemId == -1)
+		{
+			return false;
+		}
 
-		log.debug("Fetching price for {}", id);
+		log.debug("Fetching price for {}", itemId);
 
-		fetchPrice(id);
+		fetchPrice(itemId);
+		return true;
 	}
 
 	@Scheduled(fixedDelay = 1_8000_000) // 30 minutes
 	public void reloadItems() throws IOException
 	{
 		List<ItemDefinition> items = cacheService.getItems();
-		tradeableItems = items.stream()
+		int[] tradeableItems = items.stream()
 			.filter(item -> item.isTradeable)
 			.mapToInt(item -> item.id)
 			.toArray();
+
+		List<PriceEntry> fetched;
+		try (Connection con = sql2o.open())
+		{
+			fetched = con.createQuery("select item, max(fetched_time) as fetched_time from prices group by item")
+				.executeAndFetch(PriceEntry.class);
+		}
+
+		Map<Integer, Instant> fetchedTimes = new HashMap<>(fetched.size());
+		for (PriceEntry entry : fetched)
+		{
+			fetchedTimes.put(entry.getItem(), entry.getFetched_time());
+		}
+
+		crawlScheduler.setItems(tradeableItems, fetchedTimes);
 		log.debug("Loaded {} tradeable items", tradeableItems.length);
 	}
 
+	/**
+	 * @return seconds since each tradeable item's price was last fetched, or -1 if it never has been
+	 */
+	public Map<Integer, Long> getPriceStaleness()
+	{
+		return crawlScheduler.getStaleness();
+	}
+
+	public ItemCrawlStats getCrawlStats()
+	{
+		Map<Integer, Long> itemStaleness = crawlScheduler.getStaleness();
+		long[] staleness = itemStaleness.values().stream()
+			.mapToLong(Long::longValue)
+			.filter(s -> s >= 0)
+			.sorted()
+			.toArray();
+		int tracked = itemStaleness.size();
+		long fetched = pricesFetched.sum();
+		double minutes = Math.max(1, Duration.between(started, Instant.now()).getSeconds()) / 60d;
+
+		return new ItemCrawlStats(
+			pendingLookups.size(),
+			crawlScheduler.getRequestedCount(),
+			pendingPrices.values().stream().mapToInt(List::size).sum(),
+			fetched,
+			fetchFailures.sum(),
+			fetched / minutes,
+			tracked,
+			tracked - staleness.length,
+			staleness.length > 0 ? staleness[staleness.length - 1] : 0L,
+			staleness.length > 0 ? staleness[staleness.length / 2] : 0L
+		);
+	}
 }
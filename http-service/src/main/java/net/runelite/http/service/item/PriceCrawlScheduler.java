@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decides which item price to fetch next. Items requested by clients are fetched first, in request order,
+ * and otherwise the tradeable item with the oldest price is refreshed.
+ */
+class PriceCrawlScheduler
+{
+	@RequiredArgsConstructor
+	private static class CrawlEntry
+	{
+		private final int itemId;
+		private final Instant fetched;
+	}
+
+	private final Duration minRefresh;
+	private final LinkedBlockingQueue<Integer> requested;
+	private final Set<Integer> requestedIds = ConcurrentHashMap.newKeySet();
+	private final Map<Integer, Instant> lastFetched = new ConcurrentHashMap<>();
+	// guarded by this
+	private final PriorityQueue<CrawlEntry> crawl = new PriorityQueue<>(Comparator.comparing((CrawlEntry e) -> e.fetched));
+
+	PriceCrawlScheduler(Duration minRefresh, int maxRequested)
+	{
+		this.minRefresh = minRefresh;
+		this.requested = new LinkedBlockingQueue<>(maxRequested);
+	}
+
+	/**
+	 * Replaces the set of items to crawl
+	 *
+	 * @param itemIds tradeable items
+	 * @param fetched when each item's price was last fetched, if known
+	 */
+	synchronized void setItems(int[] itemIds, Map<Integer, Instant> fetched)
+	{
+		lastFetched.putAll(fetched);
+		crawl.clear();
+		for (int itemId : itemIds)
+		{
+			crawl.add(new CrawlEntry(itemId, lastFetched.getOrDefault(itemId, Instant.EPOCH)));
+		}
+	}
+
+	/**
+	 * Moves the item ahead of the background crawl, unless its price was fetched recently or it is
+	 * already requested.
+	 *
+	 * @return true if the item was queued
+	 */
+	boolean request(int itemId)
+	{
+		Instant fetched = lastFetched.get(itemId);
+		if (fetched != null && fetched.plus(minRefresh).isAfter(Instant.now()))
+		{
+			return false;
+		}
+
+		if (!requestedIds.add(itemId))
+		{
+			return false;
+		}
+
+		if (!requested.offer(itemId))
+		{
+			requestedIds.remove(itemId);
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the next item to fetch the price of, or -1 if there is none
+	 */
+	int next()
+	{
+		Integer itemId = requested.poll();
+		if (itemId != null)
+		{
+			requestedIds.remove(itemId);
+			return itemId;
+		}
+
+		synchronized (this)
+		{
+			Instant now = Instant.now();
+			for (CrawlEntry entry; (entry = crawl.poll()) != null; )
+			{
+				Instant fetched = lastFetched.getOrDefault(entry.itemId, Instant.EPOCH);
+				if (fetched.isAfter(entry.fetched))
+				{
+					// fetched by request since it was queued
+					crawl.add(new CrawlEntry(entry.itemId, fetched));
+					continue;
+				}
+
+				if (entry.fetched.plus(minRefresh).isAfter(now))
+				{
+					// everything is fresh
+					crawl.add(entry);
+					return -1;
+				}
+
+				// requeue at the back now, so other workers don't pick the same item
+				crawl.add(new CrawlEntry(entry.itemId, now));
+				return entry.itemId;
+			}
+		}
+
+		return -1;
+	}
+
+	void fetched(int itemId, Instant time)
+	{
+		lastFetched.put(itemId, time);
+	}
+
+	int getRequestedCount()
+	{
+		return requested.size();
+	}
+
+	/**
+	 * @return seconds since each crawled item's price was last fetched, or -1 if it never has been
+	 */
+	synchronized Map<Integer, Long> getStaleness()
+	{
+		if (crawl.isEmpty())
+		{
+			return Collections.emptyMap();
+		}
+
+		Instant now = Instant.now();
+		Map<Integer, Long> staleness = new HashMap<>(crawl.size());
+		for (CrawlEntry entry : crawl)
+		{
+			Instant fetched = lastFetched.get(entry.itemId);
+			staleness.put(entry.itemId, fetched != null ? Duration.between(fetched, now).getSeconds() : -1L);
+		}
+		return staleness;
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import lombok.Value;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPriceDelta;
+import net.runelite.http.api.item.ItemPrices;
+import net.runelite.http.service.util.SerializedBody;
+
+/**
+ * The item prices, serialized ahead of time in each format the bulk price endpoint serves,
+ * along with the version each price last changed at for computing deltas
+ */
+@Value
+class PriceSnapshot
+{
+	private final int size;
+	private final SerializedBody json;
+	private final SerializedBody binary;
+
+	private final long version;
+	/**
+	 * the oldest version deltas can be computed from
+	 */
+	private final long baseVersion;
+	private final int[] ids;
+	private final int[] prices;
+	private final long[] changed;
+
+	/**
+	 * @param changed the version each item's price last changed at
+	 */
+	static PriceSnapshot build(ItemPrices prices, long baseVersion, Map<Integer, Long> changed)
+	{
+		int[] ids = new int[prices.size()];
+		int[] itemPrices = new int[prices.size()];
+		long[] changedVersions = new long[prices.size()];
+		int i = 0;
+		for (ItemPrice itemPrice : prices)
+		{
+			ids[i] = itemPrice.getId();
+			itemPrices[i] = itemPrice.getPrice();
+			changedVersions[i] = changed.getOrDefault(itemPrice.getId(), baseVersion);
+			++i;
+		}
+
+		try
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8))
+			{
+				RuneLiteAPI.GSON.toJson(prices.toArray(), writer);
+			}
+			byte[] json = out.toByteArray();
+
+			out = new ByteArrayOutputStream();
+			prices.write(out);
+			byte[] binary = out.toByteArray();
+
+			return new PriceSnapshot(prices.size(), SerializedBody.of(json), SerializedBody.of(binary),
+				prices.getVersion(), baseVersion, ids, itemPrices, changedVersions);
+		}
+		catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Get the prices which changed after a version
+	 */
+	ItemPriceDelta delta(long since)
+	{
+		if (since < baseVersion || since > version)
+		{
+			return new ItemPriceDelta(version, true, new int[0], new int[0]);
+		}
+
+		int[] deltaIds = new int[ids.length];
+		int[] deltaPrices = new int[ids.length];
+		int count = 0;
+		for (int i = 0; i < ids.length; ++i)
+		{
+			if (changed[i] > since)
+			{
+				deltaIds[count] = ids[i];
+				deltaPrices[count] = prices[i];
+				++count;
+			}
+		}
+
+		return new ItemPriceDelta(version, false, Arrays.copyOf(deltaIds, count), Arrays.copyOf(deltaPrices, count));
+	}
+}
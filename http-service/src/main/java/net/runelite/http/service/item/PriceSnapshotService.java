@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPrices;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+
+/**
+ * Maintains the latest price of every item for the bulk price endpoint. The table is loaded from
+ * the database periodically, and otherwise updated as new prices are written, and republished as a
+ * pre-serialized {@link PriceSnapshot} when it changes. Each publish gets a new version, and the
+ * version each price last changed at is kept so clients can fetch only what changed.
+ */
+@Service
+@Slf4j
+public class PriceSnapshotService
+{
+	private final Sql2o sql2o;
+
+	private final Map<Integer, ItemPrice> prices = new ConcurrentHashMap<>();
+	// items changed since the last publish
+	private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+	private final Map<Integer, Long> changed = new HashMap<>();
+	private long baseVersion;
+	private volatile PriceSnapshot snapshot;
+
+	@Autowired
+	public PriceSnapshotService(@Qualifier("Runelite SQL2O") Sql2o sql2o)
+	{
+		this.sql2o = sql2o;
+	}
+
+	/**
+	 * @return the current snapshot, or null if prices have not been loaded yet
+	 */
+	PriceSnapshot getSnapshot()
+	{
+		return snapshot;
+	}
+
+	/**
+	 * Reload the latest prices of all items from the database. This picks up prices written by
+	 * other instances.
+	 */
+	@Scheduled(fixedDelay = 21_600_000) // 6 hours
+	public void reload()
+	{
+		List<PriceEntry> entries;
+		try (Connection con = sql2o.open())
+		{
+			entries = con.createQuery("select t2.item, t3.name, t2.time, prices.price, prices.fetched_time from (select t1.item as item, max(t1.time) as time from prices t1 group by item) t2 " +
+				" join prices on t2.item=prices.item and t2.time=prices.time" +
+				" join items t3 on t2.item=t3.id")
+				.executeAndFetch(PriceEntry.class);
+		}
+
+		for (PriceEntry entry : entries)
+		{
+			ItemPrice current = prices.get(entry.getItem());
+			if (current != null && current.getPrice() == entry.getPrice() && current.getTime().equals(entry.getTime()))
+			{
+				continue;
+			}
+
+			ItemPrice itemPrice = new ItemPrice();
+			itemPrice.setId(entry.getItem());
+			itemPrice.setName(entry.getName());
+			itemPrice.setPrice(entry.getPrice());
+			itemPrice.setTime(entry.getTime());
+			prices.put(entry.getItem(), itemPrice);
+			dirty.add(entry.getItem());
+		}
+
+		log.debug("Loaded {} prices", entries.size());
+
+		publish();
+	}
+
+	/**
+	 * Retry the initial load until it succeeds, as bulk price requests are refused until then.
+	 * After that {@link #reload()} is only a consistency sweep.
+	 */
+	@Scheduled(initialDelay = 30_000, fixedDelay = 30_000)
+	public void loadIfMissing()
+	{
+		if (snapshot == null)
+		{
+			reload();
+		}
+	}
+
+	/**
+	 * Merge newly written prices into the table. Entries older than the known price are ignored.
+	 */
+	void update(List<PriceEntry> entries)
+	{
+		Map<Integer, String> names = new HashMap<>();
+		for (PriceEntry entry : entries)
+		{
+			ItemPrice current = prices.get(entry.getItem());
+			if (current != null && !entry.getTime().isAfter(current.getTime()))
+			{
+				continue;
+			}
+
+			String name = current != null ? current.getName() : names.computeIfAbsent(entry.getItem(), this::lookupName);
+			if (name == null)
+			{
+				continue;
+			}
+
+			ItemPrice itemPrice = new ItemPrice();
+			itemPrice.setId(entry.getItem());
+			itemPrice.setName(name);
+			itemPrice.setPrice(entry.getPrice());
+			itemPrice.setTime(entry.getTime());
+			prices.put(entry.getItem(), itemPrice);
+			dirty.add(entry.getItem());
+		}
+	}
+
+	@Scheduled(fixedDelay = 10_000)
+	public void publishIfDirty()
+	{
+		if (snapshot != null && !dirty.isEmpty())
+		{
+			publish();
+		}
+	}
+
+	private synchronized void publish()
+	{
+		PriceSnapshot current = snapshot;
+		long version = current == null
+			? System.currentTimeMillis()
+			: Math.max(current.getVersion() + 1, System.currentTimeMillis());
+
+		if (current == null)
+		{
+			// deltas can't be computed from before this instance started
+			baseVersion = version;
+			dirty.clear();
+		}
+		else
+		{
+			for (Integer itemId : dirty)
+			{
+				dirty.remove(itemId);
+				changed.put(itemId, version);
+			}
+		}
+
+		ItemPrices itemPrices = ItemPrices.of(prices.values(), version);
+		snapshot = PriceSnapshot.build(itemPrices, baseVersion, changed);
+		log.debug("Published snapshot version {} of {} prices", version, itemPrices.size());
+	}
+
+	private String lookupName(int itemId)
+	{
+		try (Connection con = sql2o.open())
+		{
+			return con.createQuery("select name from items where id = :id")
+				.addParameter("id", itemId)
+				.executeScalar(String.class);
+		}
+	}
+}
@@ -35,6 +35,6 @@ class LootResult
 	private Instant time;
 	private LootRecordType type;
 	private String eventId;
-	private int itemId;
-	private int itemQuantity;
+	private Integer itemId;
+	private Integer itemQuantity;
 }
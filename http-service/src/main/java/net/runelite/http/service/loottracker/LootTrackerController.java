@@ -28,8 +28,10 @@ package net.runelite.http.service.loottracker;
 import com.google.api.client.http.HttpStatusCodes;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import net.runelite.http.api.loottracker.LootAggregate;
 import net.runelite.http.api.loottracker.LootRecord;
 import net.runelite.http.service.account.AuthFilter;
 import net.runelite.http.service.account.beans.SessionEntry;
@@ -45,6 +47,10 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/loottracker")
 public class LootTrackerController
 {
+	private static final String NEXT_HEADER = "RuneLite-Next";
+	private static final int MAX_BATCH_SIZE = 1000;
+	private static final int MAX_PAGE_SIZE = 1024;
+
 	@Autowired
 	private LootTrackerService service;
 
@@ -65,8 +71,54 @@ public class LootTrackerController
 		response.setStatus(HttpStatusCodes.STATUS_CODE_OK);
 	}
 
+	@RequestMapping(path = "/batch", method = RequestMethod.POST)
+	public void storeLootRecords(HttpServletRequest request, HttpServletResponse response, @RequestBody List<LootRecord> records) throws IOException
+	{
+		SessionEntry e = auth.handle(request, response);
+		if (e == null)
+		{
+			response.setStatus(HttpStatusCodes.STATUS_CODE_UNAUTHORIZED);
+			return;
+		}
+
+		if (records.size() > MAX_BATCH_SIZE)
+		{
+			response.setStatus(HttpStatusCodes.STATUS_CODE_BAD_REQUEST);
+			return;
+		}
+
+		service.store(records, e.getUser());
+		response.setStatus(HttpStatusCodes.STATUS_CODE_OK);
+	}
+
 	@RequestMapping
-	public Collection<LootRecord> getLootRecords(HttpServletRequest request, HttpServletResponse response, @RequestParam(value = "count", defaultValue = "1024") int count) throws IOException
+	public Collection<LootRecord> getLootRecords(HttpServletRequest request, HttpServletResponse response,
+		@RequestParam(value = "count", defaultValue = "" + MAX_PAGE_SIZE) int count,
+		@RequestParam(value = "before", defaultValue = "" + Integer.MAX_VALUE) int before) throws IOException
+	{
+		SessionEntry e = auth.handle(request, response);
+		if (e == null)
+		{
+			response.setStatus(HttpStatusCodes.STATUS_CODE_UNAUTHORIZED);
+			return null;
+		}
+
+		if (count <= 0)
+		{
+			response.setStatus(HttpStatusCodes.STATUS_CODE_BAD_REQUEST);
+			return null;
+		}
+
+		LootPage page = service.get(e.getUser(), Math.min(count, MAX_PAGE_SIZE), before);
+		if (page.getNext() != -1)
+		{
+			response.setHeader(NEXT_HEADER, Integer.toString(page.getNext()));
+		}
+		return page.getRecords();
+	}
+
+	@RequestMapping("/aggregate")
+	public Collection<LootAggregate> getLootAggregate(HttpServletRequest request, HttpServletResponse response) throws IOException
 	{
 		SessionEntry e = auth.handle(request, response);
 		if (e == null)
@@ -75,7 +127,7 @@ public class LootTrackerController
 			return null;
 		}
 
-		return service.get(e.getUser(), count);
+		return service.getAggregate(e.getUser());
 	}
 
 	@DeleteMapping
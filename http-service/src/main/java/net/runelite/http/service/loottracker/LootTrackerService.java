@@ -25,10 +25,16 @@
  */
 package net.runelite.http.service.loottracker;
 
+import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.loottracker.GameItem;
+import net.runelite.http.api.loottracker.LootAggregate;
 import net.runelite.http.api.loottracker.LootRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -39,6 +45,7 @@ import org.sql2o.Query;
 import org.sql2o.Sql2o;
 
 @Service
+@Slf4j
 public class LootTrackerService
 {
 	// Table for storing individual LootRecords
@@ -62,14 +69,68 @@ public class LootTrackerService
 		+ "  FOREIGN KEY (killId) REFERENCES kills(id) ON DELETE CASCADE\n"
 		+ ") ENGINE=InnoDB";
 
-	// Queries for inserting kills
-	private static final String INSERT_KILL_QUERY = "INSERT INTO kills (accountId, type, eventId) VALUES (:accountId, :type, :eventId)";
-	private static final String INSERT_DROP_QUERY = "INSERT INTO drops (killId, itemId, itemQuantity) VALUES (LAST_INSERT_ID(), :itemId, :itemQuantity)";
+	// Lifetime totals of kills and drops, rolled up from the kills and drops tables
+	private static final String CREATE_LOOT_TOTALS = "CREATE TABLE IF NOT EXISTS `loot_totals` (\n"
+		+ "  `accountId` INT NOT NULL,\n"
+		+ "  `type` enum('NPC', 'PLAYER', 'EVENT', 'UNKNOWN') NOT NULL,\n"
+		+ "  `eventId` VARCHAR(255) NOT NULL,\n"
+		+ "  `killCount` INT NOT NULL,\n"
+		+ "  PRIMARY KEY (accountId, type, eventId)\n"
+		+ ") ENGINE=InnoDB";
 
-	private static final String SELECT_LOOT_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM kills JOIN drops ON drops.killId = kills.id WHERE accountId = :accountId ORDER BY TIME DESC LIMIT :limit";
+	private static final String CREATE_LOOT_ITEM_TOTALS = "CREATE TABLE IF NOT EXISTS `loot_item_totals` (\n"
+		+ "  `accountId` INT NOT NULL,\n"
+		+ "  `type` enum('NPC', 'PLAYER', 'EVENT', 'UNKNOWN') NOT NULL,\n"
+		+ "  `eventId` VARCHAR(255) NOT NULL,\n"
+		+ "  `itemId` INT NOT NULL,\n"
+		+ "  `itemQuantity` BIGINT NOT NULL,\n"
+		+ "  PRIMARY KEY (accountId, type, eventId, itemId)\n"
+		+ ") ENGINE=InnoDB";
+
+	// The last kill id included in the totals
+	private static final String CREATE_LOOT_ROLLUP = "CREATE TABLE IF NOT EXISTS `loot_rollup` (\n"
+		+ "  `id` TINYINT NOT NULL,\n"
+		+ "  `lastKillId` INT NOT NULL,\n"
+		+ "  PRIMARY KEY (id)\n"
+		+ ") ENGINE=InnoDB";
+
+	// Queries for inserting kills, the values are repeated for each row
+	private static final String INSERT_KILLS_QUERY = "INSERT INTO kills (accountId, type, eventId) VALUES ";
+	private static final String INSERT_DROPS_QUERY = "INSERT INTO drops (killId, itemId, itemQuantity) VALUES ";
+
+	// Selects a page of kills, newest first, and then their drops. Kills without drops still return a row so the
+	// page can tell whether it was full
+	private static final String SELECT_LOOT_QUERY = "SELECT k.id AS killId,time,type,eventId,itemId,itemQuantity FROM "
+		+ "(SELECT id,time,type,eventId FROM kills WHERE accountId = :accountId AND id < :before ORDER BY id DESC LIMIT :limit) k "
+		+ "LEFT JOIN drops ON drops.killId = k.id ORDER BY k.id DESC";
 
 	private static final String DELETE_LOOT_ACCOUNT = "DELETE FROM kills WHERE accountId = :accountId";
 	private static final String DELETE_LOOT_ACCOUNT_EVENTID = "DELETE FROM kills WHERE accountId = :accountId AND eventId = :eventId";
+	private static final String DELETE_TOTALS_ACCOUNT = "DELETE FROM loot_totals WHERE accountId = :accountId";
+	private static final String DELETE_TOTALS_ACCOUNT_EVENTID = "DELETE FROM loot_totals WHERE accountId = :accountId AND eventId = :eventId";
+	private static final String DELETE_ITEM_TOTALS_ACCOUNT = "DELETE FROM loot_item_totals WHERE accountId = :accountId";
+	private static final String DELETE_ITEM_TOTALS_ACCOUNT_EVENTID = "DELETE FROM loot_item_totals WHERE accountId = :accountId AND eventId = :eventId";
+
+	// Roll up kills older than a minute, so kills still being inserted with a lower id are not skipped
+	private static final String SELECT_ROLLUP_END = "SELECT MAX(id) FROM (SELECT id FROM kills WHERE id > :lastKillId "
+		+ "AND time < current_timestamp() - INTERVAL 1 MINUTE ORDER BY id LIMIT :limit) k";
+	private static final String ROLLUP_TOTALS = "INSERT INTO loot_totals (accountId, type, eventId, killCount) "
+		+ "SELECT accountId, type, eventId, COUNT(*) FROM kills WHERE id > :lastKillId AND id <= :endKillId GROUP BY accountId, type, eventId "
+		+ "ON DUPLICATE KEY UPDATE killCount = killCount + VALUES(killCount)";
+	private static final String ROLLUP_ITEM_TOTALS = "INSERT INTO loot_item_totals (accountId, type, eventId, itemId, itemQuantity) "
+		+ "SELECT accountId, type, eventId, itemId, SUM(itemQuantity) FROM kills JOIN drops ON drops.killId = kills.id "
+		+ "WHERE kills.id > :lastKillId AND kills.id <= :endKillId GROUP BY accountId, type, eventId, itemId "
+		+ "ON DUPLICATE KEY UPDATE itemQuantity = itemQuantity + VALUES(itemQuantity)";
+
+	private static final String SELECT_TOTALS_QUERY = "SELECT type, eventId, killCount FROM loot_totals WHERE accountId = :accountId";
+	private static final String SELECT_ITEM_TOTALS_QUERY = "SELECT type, eventId, itemId, itemQuantity FROM loot_item_totals WHERE accountId = :accountId";
+
+	// Expire in batches using idx_time, so the delete does not hold locks on the whole range at once
+	private static final String EXPIRE_QUERY = "DELETE FROM kills WHERE time < current_timestamp() - INTERVAL 30 DAY ORDER BY time LIMIT :limit";
+
+	private static final int MAX_ROWS_PER_INSERT = 1000;
+	private static final int MAX_ROLLUP_KILLS = 10_000;
+	private static final int EXPIRE_BATCH_SIZE = 1000;
 
 	private final Sql2o sql2o;
 
@@ -83,6 +144,10 @@ public class LootTrackerService
 		{
 			con.createQuery(CREATE_KILLS).executeUpdate();
 			con.createQuery(CREATE_DROPS).executeUpdate();
+			con.createQuery(CREATE_LOOT_TOTALS).executeUpdate();
+			con.createQuery(CREATE_LOOT_ITEM_TOTALS).executeUpdate();
+			con.createQuery(CREATE_LOOT_ROLLUP).executeUpdate();
+			con.createQuery("INSERT IGNORE INTO loot_rollup (id, lastKillId) VALUES (0, 0)").executeUpdate();
 		}
 	}
 
@@ -94,32 +159,124 @@ public class LootTrackerService
 	 */
 	public void store(LootRecord record, int accountId)
 	{
+		store(Collections.singletonList(record), accountId);
+	}
+
+	/**
+	 * Store LootRecords in one transaction, using multi-row inserts for the kills and their drops
+	 *
+	 * @param records   LootRecords to store
+	 * @param accountId runelite account id to tie data too
+	 */
+	public void store(List<LootRecord> records, int accountId)
+	{
+		if (records.isEmpty())
+		{
+			return;
+		}
+
 		try (Connection con = sql2o.beginTransaction())
 		{
-			// Kill Entry Query
-			con.createQuery(INSERT_KILL_QUERY, true)
-				.addParameter("accountId", accountId)
-				.addParameter("type", record.getType())
-				.addParameter("eventId", record.getEventId())
-				.executeUpdate();
+			List<Integer> killIds = new ArrayList<>(records.size());
+			for (List<LootRecord> chunk : Lists.partition(records, MAX_ROWS_PER_INSERT))
+			{
+				killIds.addAll(insertKills(con, chunk, accountId));
+			}
+
+			if (killIds.size() != records.size())
+			{
+				throw new IllegalStateException("Expected " + records.size() + " kill ids but got " + killIds.size());
+			}
 
-			Query insertDrop = con.createQuery(INSERT_DROP_QUERY);
+			StringBuilder sb = null;
+			List<Object> params = new ArrayList<>();
+			int rows = 0;
 
-			// Append all queries for inserting drops
-			for (GameItem drop : record.getDrops())
+			for (int i = 0; i < records.size(); ++i)
 			{
-				insertDrop
-					.addParameter("itemId", drop.getId())
-					.addParameter("itemQuantity", drop.getQty())
-					.addToBatch();
+				int killId = killIds.get(i);
+				for (GameItem drop : records.get(i).getDrops())
+				{
+					if (rows == MAX_ROWS_PER_INSERT)
+					{
+						insertRows(con, sb, params);
+						rows = 0;
+					}
+
+					if (rows == 0)
+					{
+						sb = new StringBuilder(INSERT_DROPS_QUERY);
+						params.clear();
+					}
+					else
+					{
+						sb.append(',');
+					}
+
+					sb.append("(:p").append(params.size())
+						.append(",:p").append(params.size() + 1)
+						.append(",:p").append(params.size() + 2)
+						.append(')');
+					params.add(killId);
+					params.add(drop.getId());
+					params.add(drop.getQty());
+					++rows;
+				}
+			}
+
+			if (rows > 0)
+			{
+				insertRows(con, sb, params);
 			}
 
-			insertDrop.executeBatch();
 			con.commit(false);
 		}
 	}
 
-	public Collection<LootRecord> get(int accountId, int limit)
+	private static List<Integer> insertKills(Connection con, List<LootRecord> records, int accountId)
+	{
+		StringBuilder sb = new StringBuilder(INSERT_KILLS_QUERY);
+		for (int i = 0; i < records.size(); ++i)
+		{
+			if (i > 0)
+			{
+				sb.append(',');
+			}
+			sb.append("(:accountId,:type").append(i).append(",:eventId").append(i).append(')');
+		}
+
+		Query query = con.createQuery(sb.toString(), true)
+			.addParameter("accountId", accountId);
+		for (int i = 0; i < records.size(); ++i)
+		{
+			LootRecord record = records.get(i);
+			query.addParameter("type" + i, record.getType())
+				.addParameter("eventId" + i, record.getEventId());
+		}
+
+		return query.executeUpdate()
+			.getKeys(Integer.class);
+	}
+
+	private static void insertRows(Connection con, StringBuilder sb, List<Object> params)
+	{
+		Query query = con.createQuery(sb.toString());
+		for (int i = 0; i < params.size(); ++i)
+		{
+			query.addParameter("p" + i, params.get(i));
+		}
+		query.executeUpdate();
+	}
+
+	/**
+	 * Get a page of the account's loot, newest first
+	 *
+	 * @param accountId runelite account id
+	 * @param limit     maximum number of kills to return
+	 * @param before    only return kills older than this kill id
+	 * @return the page of loot
+	 */
+	public LootPage get(int accountId, int limit, int before)
 	{
 		List<LootResult> lootResults;
 
@@ -127,11 +284,25 @@ public class LootTrackerService
 		{
 			lootResults = con.createQuery(SELECT_LOOT_QUERY)
 				.addParameter("accountId", accountId)
+				.addParameter("before", before)
 				.addParameter("limit", limit)
 				.executeAndFetch(LootResult.class);
 		}
 
+		return toPage(lootResults, limit);
+	}
+
+	/**
+	 * Group the rows of {@link #SELECT_LOOT_QUERY} into loot records
+	 *
+	 * @param lootResults rows for a page of kills, newest first
+	 * @param limit       the page size the rows were selected with
+	 * @return the page of loot, with the kill to continue before if the page was full
+	 */
+	static LootPage toPage(List<LootResult> lootResults, int limit)
+	{
 		LootResult current = null;
+		int kills = 0;
 		List<LootRecord> lootRecords = new ArrayList<>();
 		List<GameItem> gameItems = new ArrayList<>();
 
@@ -148,10 +319,15 @@ public class LootTrackerService
 				}
 
 				current = lootResult;
+				++kills;
 			}
 
-			GameItem gameItem = new GameItem(lootResult.getItemId(), lootResult.getItemQuantity());
-			gameItems.add(gameItem);
+			// kills without drops are counted for paging, but not returned
+			if (lootResult.getItemId() != null)
+			{
+				GameItem gameItem = new GameItem(lootResult.getItemId(), lootResult.getItemQuantity());
+				gameItems.add(gameItem);
+			}
 		}
 
 		if (!gameItems.isEmpty())
@@ -160,18 +336,76 @@ public class LootTrackerService
 			lootRecords.add(lootRecord);
 		}
 
-		return lootRecords;
+		int next = kills > 0 && kills == limit ? current.getKillId() : -1;
+		return new LootPage(lootRecords, next);
 	}
 
-	public void delete(int accountId, String eventId)
+	/**
+	 * Get the account's lifetime loot totals for each event
+	 *
+	 * @param accountId runelite account id
+	 * @return loot totals
+	 */
+	public Collection<LootAggregate> getAggregate(int accountId)
 	{
+		List<LootTotalResult> totals;
+		List<LootTotalResult> itemTotals;
+
 		try (Connection con = sql2o.open())
+		{
+			totals = con.createQuery(SELECT_TOTALS_QUERY)
+				.addParameter("accountId", accountId)
+				.executeAndFetch(LootTotalResult.class);
+
+			itemTotals = con.createQuery(SELECT_ITEM_TOTALS_QUERY)
+				.addParameter("accountId", accountId)
+				.executeAndFetch(LootTotalResult.class);
+		}
+
+		return toAggregates(totals, itemTotals);
+	}
+
+	/**
+	 * Merge the per event kill counts and the per event item totals into aggregates
+	 */
+	static Collection<LootAggregate> toAggregates(List<LootTotalResult> totals, List<LootTotalResult> itemTotals)
+	{
+		Map<String, LootAggregate> aggregates = new LinkedHashMap<>();
+		for (LootTotalResult total : totals)
+		{
+			LootAggregate aggregate = new LootAggregate(total.getEventId(), total.getType(), total.getKillCount(), new ArrayList<>());
+			aggregates.put(total.getType() + ":" + total.getEventId(), aggregate);
+		}
+
+		for (LootTotalResult itemTotal : itemTotals)
+		{
+			LootAggregate aggregate = aggregates.get(itemTotal.getType() + ":" + itemTotal.getEventId());
+			if (aggregate != null)
+			{
+				// quantities are capped to what the client can represent
+				int quantity = (int) Math.min(itemTotal.getItemQuantity(), Integer.MAX_VALUE);
+				aggregate.getDrops().add(new GameItem(itemTotal.getItemId(), quantity));
+			}
+		}
+
+		return aggregates.values();
+	}
+
+	public void delete(int accountId, String eventId)
+	{
+		try (Connection con = sql2o.beginTransaction())
 		{
 			if (eventId == null)
 			{
 				con.createQuery(DELETE_LOOT_ACCOUNT)
 					.addParameter("accountId", accountId)
 					.executeUpdate();
+				con.createQuery(DELETE_TOTALS_ACCOUNT)
+					.addParameter("accountId", accountId)
+					.executeUpdate();
+				con.createQuery(DELETE_ITEM_TOTALS_ACCOUNT)
+					.addParameter("accountId", accountId)
+					.executeUpdate();
 			}
 			else
 			{
@@ -179,17 +413,79 @@ public class LootTrackerService
 					.addParameter("accountId", accountId)
 					.addParameter("eventId", eventId)
 					.executeUpdate();
+				con.createQuery(DELETE_TOTALS_ACCOUNT_EVENTID)
+					.addParameter("accountId", accountId)
+					.addParameter("eventId", eventId)
+					.executeUpdate();
+				con.createQuery(DELETE_ITEM_TOTALS_ACCOUNT_EVENTID)
+					.addParameter("accountId", accountId)
+					.addParameter("eventId", eventId)
+					.executeUpdate();
+			}
+
+			con.commit(false);
+		}
+	}
+
+	/**
+	 * Add new kills and drops to the loot totals, a batch at a time. The position is kept in the
+	 * loot_rollup table and locked for the transaction, so concurrent instances do not count kills twice.
+	 */
+	@Scheduled(fixedDelay = 60 * 1000)
+	public void rollup()
+	{
+		do
+		{
+			try (Connection con = sql2o.beginTransaction())
+			{
+				int lastKillId = con.createQuery("SELECT lastKillId FROM loot_rollup WHERE id = 0 FOR UPDATE")
+					.executeScalar(Integer.class);
+
+				Integer end = con.createQuery(SELECT_ROLLUP_END)
+					.addParameter("lastKillId", lastKillId)
+					.addParameter("limit", MAX_ROLLUP_KILLS)
+					.executeScalar(Integer.class);
+				if (end == null)
+				{
+					con.rollback();
+					return;
+				}
+
+				int endKillId = end;
+
+				con.createQuery(ROLLUP_TOTALS)
+					.addParameter("lastKillId", lastKillId)
+					.addParameter("endKillId", endKillId)
+					.executeUpdate();
+				con.createQuery(ROLLUP_ITEM_TOTALS)
+					.addParameter("lastKillId", lastKillId)
+					.addParameter("endKillId", endKillId)
+					.executeUpdate();
+				con.createQuery("UPDATE loot_rollup SET lastKillId = :endKillId WHERE id = 0")
+					.addParameter("endKillId", endKillId)
+					.executeUpdate();
+
+				con.commit(false);
+				log.debug("Rolled up kills {} to {}", lastKillId + 1, endKillId);
 			}
 		}
+		while (!Thread.currentThread().isInterrupted());
 	}
 
 	@Scheduled(fixedDelay = 15 * 60 * 1000)
 	public void expire()
 	{
-		try (Connection con = sql2o.open())
+		int deleted;
+		do
 		{
-			con.createQuery("delete from kills where time + interval 30 day < current_timestamp()")
-				.executeUpdate();
+			try (Connection con = sql2o.open())
+			{
+				deleted = con.createQuery(EXPIRE_QUERY)
+					.addParameter("limit", EXPIRE_BATCH_SIZE)
+					.executeUpdate()
+					.getResult();
+			}
 		}
+		while (deleted == EXPIRE_BATCH_SIZE);
 	}
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.util;
+
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import lombok.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A response body serialized and compressed ahead of time, so it can be served to many clients
+ * without being serialized again, with a strong etag for each encoding
+ */
+@Value
+public class SerializedBody
+{
+	private final byte[] data;
+	private final String etag;
+	private final byte[] gzipData;
+	private final String gzipEtag;
+
+	public static SerializedBody of(byte[] data)
+	{
+		byte[] gzipData = gzip(data);
+		return new SerializedBody(data, etag(data), gzipData, etag(gzipData));
+	}
+
+	/**
+	 * Build the response for a request, answering conditional requests for the current etag with a 304
+	 *
+	 * @param ifNoneMatch    the request's If-None-Match header
+	 * @param acceptEncoding the request's Accept-Encoding header
+	 */
+	public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding, MediaType contentType, CacheControl cacheControl)
+	{
+		return toResponse(ifNoneMatch, acceptEncoding, contentType, cacheControl, HttpHeaders.ACCEPT_ENCODING);
+	}
+
+	/**
+	 * Build the response for a request, answering conditional requests for the current etag with a 304
+	 *
+	 * @param ifNoneMatch    the request's If-None-Match header
+	 * @param acceptEncoding the request's Accept-Encoding header
+	 * @param vary           the request headers the response depends on, sent on both the 200 and the 304
+	 */
+	public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding, MediaType contentType, CacheControl cacheControl, String... vary)
+	{
+		boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+		String tag = gzip ? gzipEtag : etag;
+
+		if (ifNoneMatch != null && ifNoneMatch.contains(tag))
+		{
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(tag)
+				.varyBy(vary)
+				.cacheControl(cacheControl)
+				.build();
+		}
+
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+			.contentType(contentType)
+			.eTag(tag)
+			.varyBy(vary)
+			.cacheControl(cacheControl);
+		if (gzip)
+		{
+			builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		return builder.body(gzip ? gzipData : data);
+	}
+
+	private static String etag(byte[] data)
+	{
+		return '"' + Hashing.sha256().hashBytes(data).toString() + '"';
+	}
+
+	private static byte[] gzip(byte[] data)
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out))
+		{
+			gzip.write(data);
+		}
+		catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+		return out.toByteArray();
+	}
+}
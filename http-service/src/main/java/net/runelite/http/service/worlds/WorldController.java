@@ -25,37 +25,206 @@
 package net.runelite.http.service.worlds;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.worlds.World;
+import net.runelite.http.api.worlds.WorldDelta;
 import net.runelite.http.api.worlds.WorldResult;
+import net.runelite.http.api.worlds.WorldUpdate;
+import net.runelite.http.service.util.SerializedBody;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 @RestController
 @RequestMapping("/worlds")
 @Slf4j
 public class WorldController
 {
+	// number of previous world lists kept to compute deltas from
+	private static final int HISTORY_SIZE = 30;
+	private static final long LONG_POLL_TIMEOUT = 60_000L;
+
 	@Autowired
 	private WorldsService worldsService;
 
-	private WorldResult worldResult;
+	private volatile WorldResult worldResult;
+	private volatile SerializedBody worldResultBody;
+
+	// guarded by history
+	private final Deque<WorldResult> history = new ArrayDeque<>();
+	private final List<DeferredResult<ResponseEntity<WorldDelta>>> waiting = new ArrayList<>();
 
 	@RequestMapping
-	public ResponseEntity<WorldResult> listWorlds() throws IOException
+	public ResponseEntity<byte[]> listWorlds(
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+		@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	)
+	{
+		SerializedBody body = worldResultBody;
+		if (body == null)
+		{
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+
+		return body.toResponse(ifNoneMatch, acceptEncoding, MediaType.APPLICATION_JSON_UTF8,
+			CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic());
+	}
+
+	/**
+	 * Get the player count and type changes since a version of the world list. With wait set and
+	 * no changes yet, the response is held until the world list changes or the request times out.
+	 */
+	@RequestMapping("/delta")
+	public DeferredResult<ResponseEntity<WorldDelta>> worldDelta(@RequestParam long since,
+		@RequestParam(defaultValue = "false") boolean wait)
 	{
-		return ResponseEntity.ok()
-			.cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
-			.body(worldResult);
+		DeferredResult<ResponseEntity<WorldDelta>> result = new DeferredResult<>(LONG_POLL_TIMEOUT,
+			ResponseEntity.ok(new WorldDelta(since, false, Collections.emptyList())));
+
+		synchronized (history)
+		{
+			WorldResult current = worldResult;
+			if (current == null)
+			{
+				result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+			}
+			else if (!wait || since != current.getVersion())
+			{
+				result.setResult(ResponseEntity.ok(delta(since, current)));
+			}
+			else
+			{
+				waiting.add(result);
+				result.onCompletion(() ->
+				{
+					synchronized (history)
+					{
+						waiting.remove(result);
+					}
+				});
+			}
+		}
+
+		return result;
 	}
 
 	@Scheduled(fixedDelay = 60_000L)
 	public void refreshWorlds() throws IOException
 	{
-		worldResult = worldsService.getWorlds();
+		WorldResult newResult = worldsService.getWorlds();
+		WorldResult current = worldResult;
+		if (current != null && current.getWorlds().equals(newResult.getWorlds()))
+		{
+			return;
+		}
+
+		newResult.setVersion(current == null
+			? System.currentTimeMillis()
+			: Math.max(current.getVersion() + 1, System.currentTimeMillis()));
+		SerializedBody body = SerializedBody.of(RuneLiteAPI.GSON.toJson(newResult).getBytes(StandardCharsets.UTF_8));
+
+		List<DeferredResult<ResponseEntity<WorldDelta>>> waiters;
+		synchronized (history)
+		{
+			if (current != null)
+			{
+				history.addLast(current);
+				if (history.size() > HISTORY_SIZE)
+				{
+					history.removeFirst();
+				}
+			}
+
+			worldResult = newResult;
+			worldResultBody = body;
+
+			waiters = new ArrayList<>(waiting);
+			waiting.clear();
+		}
+
+		if (!waiters.isEmpty())
+		{
+			// everyone waiting is at the previous version
+			ResponseEntity<WorldDelta> response = ResponseEntity.ok(delta(current.getVersion(), newResult));
+			for (DeferredResult<ResponseEntity<WorldDelta>> waiter : waiters)
+			{
+				waiter.setResult(response);
+			}
+		}
+
+		log.debug("Published world list version {} to {} waiting clients", newResult.getVersion(), waiters.size());
+	}
+
+	private WorldDelta delta(long since, WorldResult current)
+	{
+		if (since == current.getVersion())
+		{
+			return new WorldDelta(since, false, Collections.emptyList());
+		}
+
+		WorldResult previous = null;
+		synchronized (history)
+		{
+			for (WorldResult worldResult : history)
+			{
+				if (worldResult.getVersion() == since)
+				{
+					previous = worldResult;
+					break;
+				}
+			}
+		}
+
+		if (previous == null || previous.getWorlds().size() != current.getWorlds().size())
+		{
+			return new WorldDelta(current.getVersion(), true, Collections.emptyList());
+		}
+
+		Map<Integer, World> previousWorlds = new HashMap<>();
+		for (World world : previous.getWorlds())
+		{
+			previousWorlds.put(world.getId(), world);
+		}
+
+		List<WorldUpdate> updates = new ArrayList<>();
+		for (World world : current.getWorlds())
+		{
+			World old = previousWorlds.get(world.getId());
+			if (old == null
+				|| !Objects.equals(old.getAddress(), world.getAddress())
+				|| !Objects.equals(old.getActivity(), world.getActivity())
+				|| old.getLocation() != world.getLocation())
+			{
+				// only player counts and types are sent as deltas
+				return new WorldDelta(current.getVersion(), true, Collections.emptyList());
+			}
+
+			if (old.getPlayers() != world.getPlayers() || !Objects.equals(old.getTypes(), world.getTypes()))
+			{
+				updates.add(new WorldUpdate(world.getId(), world.getTypes(), world.getPlayers()));
+			}
+		}
+
+		return new WorldDelta(current.getVersion(), false, updates);
 	}
 }
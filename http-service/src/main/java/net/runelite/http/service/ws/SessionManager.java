@@ -27,11 +27,18 @@ package net.runelite.http.service.ws;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import net.runelite.http.api.ws.WebsocketMessage;
 
 public class SessionManager
 {
 	private static final ConcurrentMap<UUID, WSService> sessions = new ConcurrentHashMap<>();
 
+	private static final AtomicLong sent = new AtomicLong();
+	private static final AtomicLong sendTime = new AtomicLong();
+	private static final AtomicLong dropped = new AtomicLong();
+
 	public static void changeSessionUID(WSService service, UUID uuid)
 	{
 		synchronized (service)
@@ -49,7 +56,8 @@ public class SessionManager
 			UUID current = service.getUuid();
 			if (current != null)
 			{
-				sessions.remove(current);
+				// another session may have since handshaked with the same uuid
+				sessions.remove(current, service);
 				service.setUuid(null);
 			}
 		}
@@ -64,4 +72,41 @@ public class SessionManager
 	{
 		return sessions.size();
 	}
+
+	/**
+	 * Send a message to every session. The message is serialized once
+	 * and the same frame is queued to each session.
+	 */
+	public static void broadcast(WebsocketMessage message)
+	{
+		String json = WSService.gson.toJson(message, WebsocketMessage.class);
+		for (WSService service : sessions.values())
+		{
+			service.sendText(json);
+		}
+	}
+
+	static void messageSent(long nanos)
+	{
+		sent.incrementAndGet();
+		sendTime.addAndGet(nanos);
+	}
+
+	static void messageDropped()
+	{
+		dropped.incrementAndGet();
+	}
+
+	public static WSStats getStats()
+	{
+		int queued = 0;
+		for (WSService service : sessions.values())
+		{
+			queued += service.getQueued();
+		}
+
+		long sent = SessionManager.sent.get();
+		long averageSendTime = sent == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(sendTime.get() / sent);
+		return new WSStats(sessions.size(), queued, sent, dropped.get(), averageSendTime);
+	}
 }
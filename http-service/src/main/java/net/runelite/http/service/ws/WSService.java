@@ -25,7 +25,12 @@
 package net.runelite.http.service.ws;
 
 import com.google.gson.Gson;
+import java.io.IOException;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.websocket.CloseReason;
 import javax.websocket.EndpointConfig;
 import javax.websocket.OnClose;
@@ -48,20 +53,111 @@ public class WSService
 {
 	private static final Logger logger = LoggerFactory.getLogger(WSService.class);
 
-	private static final Gson gson = WebsocketGsonFactory.build();
+	static final Gson gson = WebsocketGsonFactory.build();
+
+	/**
+	 * Maximum number of messages waiting to be sent before the session is
+	 * considered too slow and disconnected
+	 */
+	static final int MAX_QUEUED = 32;
 
 	private Session session;
 	@Getter(AccessLevel.PACKAGE)
 	@Setter(AccessLevel.PACKAGE)
 	private UUID uuid;
 
+	// the async remote only allows one outstanding send at a time
+	private final Queue<String> outbound = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger queued = new AtomicInteger();
+	private final AtomicBoolean sending = new AtomicBoolean();
+
 	public void send(WebsocketMessage message)
 	{
-		String json = gson.toJson(message, WebsocketMessage.class);
+		sendText(gson.toJson(message, WebsocketMessage.class));
+	}
 
+	void sendText(String json)
+	{
 		logger.debug("Sending {}", json);
 
-		session.getAsyncRemote().sendText(json);
+		if (queued.incrementAndGet() > MAX_QUEUED)
+		{
+			queued.decrementAndGet();
+			SessionManager.messageDropped();
+			disconnect();
+			return;
+		}
+
+		outbound.add(json);
+		flush();
+	}
+
+	int getQueued()
+	{
+		return queued.get();
+	}
+
+	private void flush()
+	{
+		if (!sending.compareAndSet(false, true))
+		{
+			return;
+		}
+
+		String json = outbound.poll();
+		if (json == null)
+		{
+			sending.set(false);
+			// a message may have been queued between the poll and releasing the flag
+			if (!outbound.isEmpty())
+			{
+				flush();
+			}
+			return;
+		}
+
+		long start = System.nanoTime();
+		try
+		{
+			session.getAsyncRemote().sendText(json, result ->
+			{
+				queued.decrementAndGet();
+				SessionManager.messageSent(System.nanoTime() - start);
+
+				if (!result.isOK())
+				{
+					logger.debug("Error sending to session {}", session, result.getException());
+				}
+
+				sending.set(false);
+				flush();
+			});
+		}
+		catch (RuntimeException ex)
+		{
+			// the send was never started so the callback won't run, eg. the session is already closed
+			logger.debug("Unable to send to session {}", session, ex);
+			queued.decrementAndGet();
+			SessionManager.messageDropped();
+			sending.set(false);
+			flush();
+		}
+	}
+
+	private void disconnect()
+	{
+		logger.debug("Disconnecting slow session {}", session);
+
+		SessionManager.remove(this);
+
+		try
+		{
+			session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too many queued messages"));
+		}
+		catch (IOException ex)
+		{
+			logger.debug("Error closing session {}", session, ex);
+		}
 	}
 
 	@OnOpen
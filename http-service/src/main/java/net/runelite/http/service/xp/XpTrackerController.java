@@ -55,4 +55,10 @@ public class XpTrackerController
 		XpEntity xpEntity = xpTrackerService.findXpAtTime(username, time);
 		return XpMapper.INSTANCE.xpEntityToXpData(xpEntity);
 	}
+
+	@RequestMapping("/stats")
+	public XpTrackerStats stats()
+	{
+		return xpTrackerService.getStats();
+	}
 }
@@ -26,10 +26,32 @@ package net.runelite.http.service.xp;
 
 import com.google.common.hash.BloomFilter;
 import com.google.common.hash.Funnels;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
@@ -39,9 +61,11 @@ import net.runelite.http.service.xp.beans.PlayerEntity;
 import net.runelite.http.service.xp.beans.XpEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
 
 @Service
@@ -49,6 +73,28 @@ import org.sql2o.Sql2o;
 public class XpTrackerService
 {
 	private static final Duration UPDATE_TIME = Duration.ofMinutes(5);
+	static final int MAX_BATCH_SIZE = 500;
+	// results waiting to be written, further results are dropped while the database is too slow or down
+	static final int MAX_PENDING_WRITES = 10_000;
+
+	private static final String INSERT_XP = "insert into xp (player,attack_xp,defence_xp,strength_xp,hitpoints_xp,ranged_xp,prayer_xp,magic_xp,cooking_xp,woodcutting_xp,"
+		+ "fletching_xp,fishing_xp,firemaking_xp,crafting_xp,smithing_xp,mining_xp,herblore_xp,agility_xp,thieving_xp,slayer_xp,farming_xp,"
+		+ "runecraft_xp,hunter_xp,construction_xp,attack_rank,defence_rank,strength_rank,hitpoints_rank,ranged_rank,prayer_rank,magic_rank,"
+		+ "cooking_rank,woodcutting_rank,fletching_rank,fishing_rank,firemaking_rank,crafting_rank,smithing_rank,mining_rank,herblore_rank,"
+		+ "agility_rank,thieving_rank,slayer_rank,farming_rank,runecraft_rank,hunter_rank,construction_rank,overall_rank) values (:player,:attack_xp,:defence_xp,"
+		+ ":strength_xp,:hitpoints_xp,:ranged_xp,:prayer_xp,:magic_xp,:cooking_xp,:woodcutting_xp,:fletching_xp,:fishing_xp,:firemaking_xp,"
+		+ ":crafting_xp,:smithing_xp,:mining_xp,:herblore_xp,:agility_xp,:thieving_xp,:slayer_xp,:farming_xp,:runecraft_xp,:hunter_xp,"
+		+ ":construction_xp,:attack_rank,:defence_rank,:strength_rank,:hitpoints_rank,:ranged_rank,:prayer_rank,:magic_rank,:cooking_rank,"
+		+ ":woodcutting_rank,:fletching_rank,:fishing_rank,:firemaking_rank,:crafting_rank,:smithing_rank,:mining_rank,:herblore_rank,"
+		+ ":agility_rank,:thieving_rank,:slayer_rank,:farming_rank,:runecraft_rank,:hunter_rank,:construction_rank,:overall_rank)";
+
+	@Getter
+	@RequiredArgsConstructor
+	static class PendingXp
+	{
+		private final String username;
+		private final HiscoreResult hiscoreResult;
+	}
 
 	@Autowired
 	@Qualifier("Runelite XP Tracker SQL2O")
@@ -57,8 +103,64 @@ public class XpTrackerService
 	@Autowired
 	private HiscoreService hiscoreService;
 
+	@Value("${runelite.xp.workers:4}")
+	private int workers;
+
+	@Value("${runelite.xp.queue-size:10000}")
+	private int queueSize;
+
+	@Value("${runelite.xp.lookups-per-second:5}")
+	private double lookupsPerSecond;
+
 	private BloomFilter<String> usernameFilter = createFilter();
-	private String nextUsername;
+	private BlockingQueue<String> updateQueue;
+	private final Set<String> queuedUsernames = ConcurrentHashMap.newKeySet();
+	private final BlockingDeque<PendingXp> pendingWrites = new LinkedBlockingDeque<>(MAX_PENDING_WRITES);
+	private RateLimiter rateLimiter;
+	private ExecutorService executor;
+
+	private final LongAdder queued = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder lookups = new LongAdder();
+	private final LongAdder lookupFailures = new LongAdder();
+	private final LongAdder lookupNanos = new LongAdder();
+	private final LongAccumulator maxLookupNanos = new LongAccumulator(Long::max, 0L);
+	private final LongAdder written = new LongAdder();
+
+	@PostConstruct
+	public void start()
+	{
+		updateQueue = new LinkedBlockingQueue<>(queueSize);
+		rateLimiter = RateLimiter.create(lookupsPerSecond);
+		executor = Executors.newFixedThreadPool(workers, new ThreadFactoryBuilder()
+			.setNameFormat("xp-tracker-%d")
+			.setDaemon(true)
+			.build());
+
+		for (int i = 0; i < workers; ++i)
+		{
+			executor.execute(this::work);
+		}
+	}
+
+	@PreDestroy
+	public void stop()
+	{
+		executor.shutdownNow();
+
+		// flushWrites only takes one batch, keep going until everything queued has been written or a write fails
+		int drained;
+		do
+		{
+			drained = writeBatch();
+		}
+		while (drained > 0);
+
+		if (!pendingWrites.isEmpty())
+		{
+			log.warn("Discarding {} xp updates which could not be written", pendingWrites.size());
+		}
+	}
 
 	public void update(String username) throws ExecutionException
 	{
@@ -66,106 +168,239 @@ public class XpTrackerService
 		update(username, hiscoreResult);
 	}
 
+	/**
+	 * Queues a hiscore lookup and xp update for the player. Players already queued or updated within the
+	 * last hour are ignored, and the request is dropped if the queue is full.
+	 */
 	public void tryUpdate(String username)
 	{
-		if (nextUsername != null || usernameFilter.mightContain(username))
+		if (usernameFilter.mightContain(username) || !queuedUsernames.add(username))
 		{
 			return;
 		}
 
-		nextUsername = username;
+		if (!updateQueue.offer(username))
+		{
+			queuedUsernames.remove(username);
+			dropped.increment();
+			log.debug("XP update queue full, dropping update for {}", username);
+			return;
+		}
+
 		usernameFilter.put(username);
+		queued.increment();
 	}
 
+	/**
+	 * Queues the hiscore result to be written to the xp table with the next batch
+	 */
 	public void update(String username, HiscoreResult hiscoreResult)
 	{
-		try (Connection con = sql2o.open())
+		if (!pendingWrites.offer(new PendingXp(username, hiscoreResult)))
 		{
-			PlayerEntity playerEntity = findOrCreatePlayer(con, username);
+			dropped.increment();
+			log.debug("XP write queue full, dropping update for {}", username);
+		}
+	}
 
-			Instant now = Instant.now();
-			XpEntity currentXp = findXpAtTime(con, username, now);
-			if (currentXp != null)
+	private void work()
+	{
+		while (!Thread.currentThread().isInterrupted())
+		{
+			String username;
+			try
+			{
+				username = updateQueue.take();
+			}
+			catch (InterruptedException ex)
 			{
-				XpData hiscoreData = XpMapper.INSTANCE.hiscoreResultToXpData(hiscoreResult);
-				XpData existingData = XpMapper.INSTANCE.xpEntityToXpData(currentXp);
+				return;
+			}
+
+			queuedUsernames.remove(username);
+			rateLimiter.acquire();
 
-				if (hiscoreData.equals(existingData))
+			long start = System.nanoTime();
+			try
+			{
+				HiscoreResult hiscoreResult = hiscoreService.lookupUsername(username, HiscoreEndpoint.NORMAL);
+				update(username, hiscoreResult);
+			}
+			catch (ExecutionException | RuntimeException ex)
+			{
+				lookupFailures.increment();
+				log.debug("Unable to look up hiscores for {}", username, ex);
+			}
+			finally
+			{
+				long nanos = System.nanoTime() - start;
+				lookups.increment();
+				lookupNanos.add(nanos);
+				maxLookupNanos.accumulate(nanos);
+			}
+		}
+	}
+
+	@Scheduled(fixedDelay = 1000)
+	public void flushWrites()
+	{
+		writeBatch();
+	}
+
+	/**
+	 * Writes up to {@link #MAX_BATCH_SIZE} pending xp updates in one transaction.
+	 *
+	 * @return the number of updates taken from the queue, or 0 if the write failed and they were queued again
+	 */
+	private int writeBatch()
+	{
+		List<PendingXp> drained = new ArrayList<>();
+		pendingWrites.drainTo(drained, MAX_BATCH_SIZE);
+
+		if (drained.isEmpty())
+		{
+			return 0;
+		}
+
+		// Only keep the latest result for each player, earlier ones can't be checked against the batch
+		Map<String, PendingXp> batch = new LinkedHashMap<>();
+		for (PendingXp pendingXp : drained)
+		{
+			batch.put(pendingXp.getUsername(), pendingXp);
+		}
+
+		try
+		{
+			int count = write(batch.values());
+			written.add(count);
+			log.debug("Wrote {} xp updates", count);
+		}
+		catch (RuntimeException ex)
+		{
+			// put them back at the front so the next flush retries them ahead of newer results for the same players,
+			// unless newer results have filled the queue since
+			log.warn("Unable to write {} xp updates, requeueing", batch.size(), ex);
+			List<PendingXp> requeue = new ArrayList<>(batch.values());
+			for (int i = requeue.size() - 1; i >= 0; --i)
+			{
+				if (!pendingWrites.offerFirst(requeue.get(i)))
 				{
-					log.debug("Hiscore for {} already up to date", username);
-					return;
+					dropped.increment();
 				}
+			}
+			return 0;
+		}
+
+		return drained.size();
+	}
 
-				Duration difference = Duration.between(currentXp.getTime(), now);
-				if (difference.compareTo(UPDATE_TIME) <= 0)
+	/**
+	 * Writes the xp updates in one transaction
+	 *
+	 * @return the number of rows written, updates of players updated too recently are skipped
+	 */
+	int write(Collection<PendingXp> updates)
+	{
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query query = con.createQuery(INSERT_XP);
+			int count = 0;
+
+			for (PendingXp pendingXp : updates)
+			{
+				if (addToBatch(con, query, pendingXp.getUsername(), pendingXp.getHiscoreResult()))
 				{
-					log.debug("Updated {} too recently", username);
-					return;
+					++count;
 				}
 			}
 
-			con.createQuery("insert into xp (player,attack_xp,defence_xp,strength_xp,hitpoints_xp,ranged_xp,prayer_xp,magic_xp,cooking_xp,woodcutting_xp,"
-				+ "fletching_xp,fishing_xp,firemaking_xp,crafting_xp,smithing_xp,mining_xp,herblore_xp,agility_xp,thieving_xp,slayer_xp,farming_xp,"
-				+ "runecraft_xp,hunter_xp,construction_xp,attack_rank,defence_rank,strength_rank,hitpoints_rank,ranged_rank,prayer_rank,magic_rank,"
-				+ "cooking_rank,woodcutting_rank,fletching_rank,fishing_rank,firemaking_rank,crafting_rank,smithing_rank,mining_rank,herblore_rank,"
-				+ "agility_rank,thieving_rank,slayer_rank,farming_rank,runecraft_rank,hunter_rank,construction_rank,overall_rank) values (:player,:attack_xp,:defence_xp,"
-				+ ":strength_xp,:hitpoints_xp,:ranged_xp,:prayer_xp,:magic_xp,:cooking_xp,:woodcutting_xp,:fletching_xp,:fishing_xp,:firemaking_xp,"
-				+ ":crafting_xp,:smithing_xp,:mining_xp,:herblore_xp,:agility_xp,:thieving_xp,:slayer_xp,:farming_xp,:runecraft_xp,:hunter_xp,"
-				+ ":construction_xp,:attack_rank,:defence_rank,:strength_rank,:hitpoints_rank,:ranged_rank,:prayer_rank,:magic_rank,:cooking_rank,"
-				+ ":woodcutting_rank,:fletching_rank,:fishing_rank,:firemaking_rank,:crafting_rank,:smithing_rank,:mining_rank,:herblore_rank,"
-				+ ":agility_rank,:thieving_rank,:slayer_rank,:farming_rank,:runecraft_rank,:hunter_rank,:construction_rank,:overall_rank)")
-				.addParameter("player", playerEntity.getId())
-				.addParameter("attack_xp", hiscoreResult.getAttack().getExperience())
-				.addParameter("defence_xp", hiscoreResult.getDefence().getExperience())
-				.addParameter("strength_xp", hiscoreResult.getStrength().getExperience())
-				.addParameter("hitpoints_xp", hiscoreResult.getHitpoints().getExperience())
-				.addParameter("ranged_xp", hiscoreResult.getRanged().getExperience())
-				.addParameter("prayer_xp", hiscoreResult.getPrayer().getExperience())
-				.addParameter("magic_xp", hiscoreResult.getMagic().getExperience())
-				.addParameter("cooking_xp", hiscoreResult.getCooking().getExperience())
-				.addParameter("woodcutting_xp", hiscoreResult.getWoodcutting().getExperience())
-				.addParameter("fletching_xp", hiscoreResult.getFletching().getExperience())
-				.addParameter("fishing_xp", hiscoreResult.getFishing().getExperience())
-				.addParameter("firemaking_xp", hiscoreResult.getFiremaking().getExperience())
-				.addParameter("crafting_xp", hiscoreResult.getCrafting().getExperience())
-				.addParameter("smithing_xp", hiscoreResult.getSmithing().getExperience())
-				.addParameter("mining_xp", hiscoreResult.getMining().getExperience())
-				.addParameter("herblore_xp", hiscoreResult.getHerblore().getExperience())
-				.addParameter("agility_xp", hiscoreResult.getAgility().getExperience())
-				.addParameter("thieving_xp", hiscoreResult.getThieving().getExperience())
-				.addParameter("slayer_xp", hiscoreResult.getSlayer().getExperience())
-				.addParameter("farming_xp", hiscoreResult.getFarming().getExperience())
-				.addParameter("runecraft_xp", hiscoreResult.getRunecraft().getExperience())
-				.addParameter("hunter_xp", hiscoreResult.getHunter().getExperience())
-				.addParameter("construction_xp", hiscoreResult.getConstruction().getExperience())
-				.addParameter("attack_rank", hiscoreResult.getAttack().getRank())
-				.addParameter("defence_rank", hiscoreResult.getDefence().getRank())
-				.addParameter("strength_rank", hiscoreResult.getStrength().getRank())
-				.addParameter("hitpoints_rank", hiscoreResult.getHitpoints().getRank())
-				.addParameter("ranged_rank", hiscoreResult.getRanged().getRank())
-				.addParameter("prayer_rank", hiscoreResult.getPrayer().getRank())
-				.addParameter("magic_rank", hiscoreResult.getMagic().getRank())
-				.addParameter("cooking_rank", hiscoreResult.getCooking().getRank())
-				.addParameter("woodcutting_rank", hiscoreResult.getWoodcutting().getRank())
-				.addParameter("fletching_rank", hiscoreResult.getFletching().getRank())
-				.addParameter("fishing_rank", hiscoreResult.getFishing().getRank())
-				.addParameter("firemaking_rank", hiscoreResult.getFiremaking().getRank())
-				.addParameter("crafting_rank", hiscoreResult.getCrafting().getRank())
-				.addParameter("smithing_rank", hiscoreResult.getSmithing().getRank())
-				.addParameter("mining_rank", hiscoreResult.getMining().getRank())
-				.addParameter("herblore_rank", hiscoreResult.getHerblore().getRank())
-				.addParameter("agility_rank", hiscoreResult.getAgility().getRank())
-				.addParameter("thieving_rank", hiscoreResult.getThieving().getRank())
-				.addParameter("slayer_rank", hiscoreResult.getSlayer().getRank())
-				.addParameter("farming_rank", hiscoreResult.getFarming().getRank())
-				.addParameter("runecraft_rank", hiscoreResult.getRunecraft().getRank())
-				.addParameter("hunter_rank", hiscoreResult.getHunter().getRank())
-				.addParameter("construction_rank", hiscoreResult.getConstruction().getRank())
-				.addParameter("overall_rank", hiscoreResult.getOverall().getRank())
-				.executeUpdate();
+			if (count > 0)
+			{
+				query.executeBatch();
+			}
+
+			con.commit();
+			return count;
 		}
 	}
 
+	private boolean addToBatch(Connection con, Query query, String username, HiscoreResult hiscoreResult)
+	{
+		PlayerEntity playerEntity = findOrCreatePlayer(con, username);
+
+		Instant now = Instant.now();
+		XpEntity currentXp = findXpAtTime(con, username, now);
+		if (currentXp != null)
+		{
+			XpData hiscoreData = XpMapper.INSTANCE.hiscoreResultToXpData(hiscoreResult);
+			XpData existingData = XpMapper.INSTANCE.xpEntityToXpData(currentXp);
+
+			if (hiscoreData.equals(existingData))
+			{
+				log.debug("Hiscore for {} already up to date", username);
+				return false;
+			}
+
+			Duration difference = Duration.between(currentXp.getTime(), now);
+			if (difference.compareTo(UPDATE_TIME) <= 0)
+			{
+				log.debug("Updated {} too recently", username);
+				return false;
+			}
+		}
+
+		query.addParameter("player", playerEntity.getId())
+			.addParameter("attack_xp", hiscoreResult.getAttack().getExperience())
+			.addParameter("defence_xp", hiscoreResult.getDefence().getExperience())
+			.addParameter("strength_xp", hiscoreResult.getStrength().getExperience())
+			.addParameter("hitpoints_xp", hiscoreResult.getHitpoints().getExperience())
+			.addParameter("ranged_xp", hiscoreResult.getRanged().getExperience())
+			.addParameter("prayer_xp", hiscoreResult.getPrayer().getExperience())
+			.addParameter("magic_xp", hiscoreResult.getMagic().getExperience())
+			.addParameter("cooking_xp", hiscoreResult.getCooking().getExperience())
+			.addParameter("woodcutting_xp", hiscoreResult.getWoodcutting().getExperience())
+			.addParameter("fletching_xp", hiscoreResult.getFletching().getExperience())
+			.addParameter("fishing_xp", hiscoreResult.getFishing().getExperience())
+			.addParameter("firemaking_xp", hiscoreResult.getFiremaking().getExperience())
+			.addParameter("crafting_xp", hiscoreResult.getCrafting().getExperience())
+			.addParameter("smithing_xp", hiscoreResult.getSmithing().getExperience())
+			.addParameter("mining_xp", hiscoreResult.getMining().getExperience())
+			.addParameter("herblore_xp", hiscoreResult.getHerblore().getExperience())
+			.addParameter("agility_xp", hiscoreResult.getAgility().getExperience())
+			.addParameter("thieving_xp", hiscoreResult.getThieving().getExperience())
+			.addParameter("slayer_xp", hiscoreResult.getSlayer().getExperience())
+			.addParameter("farming_xp", hiscoreResult.getFarming().getExperience())
+			.addParameter("runecraft_xp", hiscoreResult.getRunecraft().getExperience())
+			.addParameter("hunter_xp", hiscoreResult.getHunter().getExperience())
+			.addParameter("construction_xp", hiscoreResult.getConstruction().getExperience())
+			.addParameter("attack_rank", hiscoreResult.getAttack().getRank())
+			.addParameter("defence_rank", hiscoreResult.getDefence().getRank())
+			.addParameter("strength_rank", hiscoreResult.getStrength().getRank())
+			.addParameter("hitpoints_rank", hiscoreResult.getHitpoints().getRank())
+			.addParameter("ranged_rank", hiscoreResult.getRanged().getRank())
+			.addParameter("prayer_rank", hiscoreResult.getPrayer().getRank())
+			.addParameter("magic_rank", hiscoreResult.getMagic().getRank())
+			.addParameter("cooking_rank", hiscoreResult.getCooking().getRank())
+			.addParameter("woodcutting_rank", hiscoreResult.getWoodcutting().getRank())
+			.addParameter("fletching_rank", hiscoreResult.getFletching().getRank())
+			.addParameter("fishing_rank", hiscoreResult.getFishing().getRank())
+			.addParameter("firemaking_rank", hiscoreResult.getFiremaking().getRank())
+			.addParameter("crafting_rank", hiscoreResult.getCrafting().getRank())
+			.addParameter("smithing_rank", hiscoreResult.getSmithing().getRank())
+			.addParameter("mining_rank", hiscoreResult.getMining().getRank())
+			.addParameter("herblore_rank", hiscoreResult.getHerblore().getRank())
+			.addParameter("agility_rank", hiscoreResult.getAgility().getRank())
+			.addParameter("thieving_rank", hiscoreResult.getThieving().getRank())
+			.addParameter("slayer_rank", hiscoreResult.getSlayer().getRank())
+			.addParameter("farming_rank", hiscoreResult.getFarming().getRank())
+			.addParameter("runecraft_rank", hiscoreResult.getRunecraft().getRank())
+			.addParameter("hunter_rank", hiscoreResult.getHunter().getRank())
+			.addParameter("construction_rank", hiscoreResult.getConstruction().getRank())
+			.addParameter("overall_rank", hiscoreResult.getOverall().getRank())
+			.addToBatch();
+		return true;
+	}
+
 	private synchronized PlayerEntity findOrCreatePlayer(Connection con, String username)
 	{
 		PlayerEntity playerEntity = con.createQuery("select * from player where name = :name")
@@ -208,19 +443,20 @@ public class XpTrackerService
 		}
 	}
 
-	@Scheduled(fixedDelay = 1000)
-	public void update() throws ExecutionException
+	public XpTrackerStats getStats()
 	{
-		String next = nextUsername;
-		nextUsername = null;
-
-		if (next == null)
-		{
-			return;
-		}
-
-		HiscoreResult hiscoreResult = hiscoreService.lookupUsername(next, HiscoreEndpoint.NORMAL);
-		update(next, hiscoreResult);
+		long lookupCount = lookups.sum();
+		return new XpTrackerStats(
+			updateQueue.size(),
+			pendingWrites.size(),
+			queued.sum(),
+			dropped.sum(),
+			lookupCount,
+			lookupFailures.sum(),
+			lookupCount > 0 ? TimeUnit.NANOSECONDS.toMillis(lookupNanos.sum() / lookupCount) : 0,
+			TimeUnit.NANOSECONDS.toMillis(maxLookupNanos.get()),
+			written.sum()
+		);
 	}
 
 	@Scheduled(fixedDelay = 60 * 60 * 1000) // one hour
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArchiveCacheTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File store;
+	private File spill;
+
+	@Before
+	public void before() throws IOException
+	{
+		store = folder.newFolder();
+		spill = folder.newFolder();
+
+		new File(store, "AB").mkdir();
+		Files.write(new File(store, "AB/CDEF").toPath(), new byte[]{1, 2, 3});
+	}
+
+	@Test
+	public void testTiers() throws IOException
+	{
+		ArchiveCache cache = new ArchiveCache(new LocalObjectStore(store), 1024, spill, 1024);
+
+		Assert.assertArrayEquals(new byte[]{1, 2, 3}, cache.get("AB/CDEF"));
+		Assert.assertArrayEquals(new byte[]{1, 2, 3}, cache.get("AB/CDEF"));
+		Assert.assertTrue(new File(spill, "AB/CDEF").exists());
+
+		// a new cache over the same spill directory starts with an empty heap
+		ArchiveCache restarted = new ArchiveCache(new LocalObjectStore(store), 1024, spill, 1024);
+		Assert.assertArrayEquals(new byte[]{1, 2, 3}, restarted.get("AB/CDEF"));
+
+		ArchiveCacheStats stats = cache.getStats();
+		Assert.assertEquals(1, stats.getMisses());
+		Assert.assertEquals(1, stats.getHeapHits());
+		Assert.assertEquals(0, stats.getDiskHits());
+		Assert.assertEquals(1, restarted.getStats().getDiskHits());
+		Assert.assertEquals(3, restarted.getStats().getDiskBytes());
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingArchive() throws IOException
+	{
+		ArchiveCache cache = new ArchiveCache(new LocalObjectStore(store), 1024, spill, 1024);
+		cache.get("00/0000");
+	}
+
+	@Test
+	public void testPrune() throws IOException
+	{
+		Files.write(new File(store, "AB/0000").toPath(), new byte[8]);
+		ArchiveCache cache = new ArchiveCache(new LocalObjectStore(store), 1024, spill, 10);
+
+		cache.get("AB/CDEF");
+		cache.get("AB/0000");
+
+		Assert.assertTrue(cache.getStats().getDiskBytes() <= 10);
+	}
+
+	@Test
+	public void testPruneSkipsTemporaryFiles() throws IOException
+	{
+		// a write in progress on another thread
+		File tmp = new File(spill, "AB/pending.tmp");
+		tmp.getParentFile().mkdir();
+		Files.write(tmp.toPath(), new byte[100]);
+
+		Files.write(new File(store, "AB/0000").toPath(), new byte[8]);
+		ArchiveCache cache = new ArchiveCache(new LocalObjectStore(store), 1024, spill, 10);
+		Assert.assertEquals(0, cache.getStats().getDiskBytes());
+
+		cache.get("AB/CDEF");
+		cache.get("AB/0000");
+
+		Assert.assertTrue(tmp.exists());
+		Assert.assertTrue(cache.getStats().getDiskBytes() <= 10);
+	}
+}
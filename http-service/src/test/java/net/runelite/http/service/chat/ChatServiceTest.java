@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.chat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+public class ChatServiceTest
+{
+	@Mock
+	private JedisPool jedisPool;
+
+	@Mock
+	private Jedis jedis;
+
+	private ChatService chatService;
+
+	@Before
+	public void before()
+	{
+		MockitoAnnotations.initMocks(this);
+		when(jedisPool.getResource()).thenReturn(jedis);
+		chatService = new ChatService(jedisPool);
+	}
+
+	@Test
+	public void testNearCache()
+	{
+		when(jedis.get("qp.zezima")).thenReturn("250");
+
+		assertEquals(Integer.valueOf(250), chatService.getQp("zezima"));
+		assertEquals(Integer.valueOf(250), chatService.getQp("zezima"));
+		verify(jedis, times(1)).get("qp.zezima");
+
+		// unknown players are cached too
+		assertNull(chatService.getQp("nobody"));
+		assertNull(chatService.getQp("nobody"));
+		verify(jedis, times(1)).get("qp.nobody");
+	}
+
+	@Test
+	public void testSetUpdatesNearCache()
+	{
+		chatService.setKc("zezima", "zulrah", 100);
+
+		verify(jedis).setex("kc.zezima.zulrah", 120, "100");
+		assertEquals(Integer.valueOf(100), chatService.getKc("zezima", "zulrah"));
+		verify(jedis, never()).get(anyString());
+	}
+
+	@Test
+	public void testMget()
+	{
+		when(jedis.get("qp.b")).thenReturn("20");
+		chatService.getQp("b");
+
+		// only the names not in the near cache are looked up, and the results keep the order of the names
+		when(jedis.mget("qp.a", "qp.c")).thenReturn(Arrays.asList("10", null));
+		assertEquals(Arrays.asList(10, 20, null), chatService.getQp(Arrays.asList("a", "b", "c")));
+		verify(jedis).mget("qp.a", "qp.c");
+
+		// everything is cached now, including the unknown player
+		assertEquals(Arrays.asList(10, 20, null), chatService.getQp(Arrays.asList("a", "b", "c")));
+		verify(jedis, times(1)).mget("qp.a", "qp.c");
+	}
+
+	@Test
+	public void testMgetKc()
+	{
+		when(jedis.mget("kc.a.zulrah", "kc.b.vorkath")).thenReturn(Arrays.asList("5", "6"));
+
+		assertEquals(Arrays.asList(5, 6), chatService.getKc(Arrays.asList(
+			new KillCountKey("a", "zulrah"),
+			new KillCountKey("b", "vorkath")
+		)));
+		assertEquals(Collections.singletonList(6), chatService.getKc(Collections.singletonList(new KillCountKey("b", "vorkath"))));
+		verify(jedis, times(1)).mget(anyString(), anyString());
+	}
+}
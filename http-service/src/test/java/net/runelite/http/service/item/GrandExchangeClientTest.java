@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import com.google.common.util.concurrent.RateLimiter;
+import java.io.IOException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GrandExchangeClientTest
+{
+	private final MockWebServer server = new MockWebServer();
+	private GrandExchangeClient client;
+
+	@Before
+	public void before() throws IOException
+	{
+		server.start();
+		client = new GrandExchangeClient(server.url("/m=itemdb_oldschool"), RateLimiter.create(1000));
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		server.shutdown();
+	}
+
+	@Test
+	public void testFetchPrices() throws Exception
+	{
+		server.enqueue(new MockResponse().setBody("{\"daily\":{\"1546300800000\":150,\"1546387200000\":155}}"));
+
+		RSPrices prices = client.fetchPrices(4151);
+
+		assertEquals(2, prices.getDaily().size());
+		assertEquals(155, (int) prices.getDaily().get(1546387200000L));
+
+		RecordedRequest request = server.takeRequest();
+		assertEquals("/m=itemdb_oldschool/api/graph/4151.json", request.getPath());
+	}
+
+	@Test
+	public void testSearch() throws Exception
+	{
+		server.enqueue(new MockResponse().setBody("{\"items\":[]}"));
+
+		client.search("Abyssal");
+
+		RecordedRequest request = server.takeRequest();
+		assertEquals("/m=itemdb_oldschool/api/catalogue/items.json?category=1&alpha=abyssal", request.getPath());
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnsuccessful() throws Exception
+	{
+		server.enqueue(new MockResponse().setResponseCode(503));
+
+		client.fetchPrices(4151);
+	}
+}
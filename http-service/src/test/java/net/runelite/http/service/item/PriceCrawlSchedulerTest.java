@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PriceCrawlSchedulerTest
+{
+	@Test
+	public void testOldestFirst()
+	{
+		Instant now = Instant.now();
+		PriceCrawlScheduler scheduler = new PriceCrawlScheduler(Duration.ofMinutes(30), 16);
+		scheduler.setItems(new int[]{1, 2, 3}, ImmutableMap.of(
+			1, now.minus(Duration.ofHours(1)),
+			2, now.minus(Duration.ofHours(3)),
+			3, now.minus(Duration.ofMinutes(5))
+		));
+
+		assertEquals(2, scheduler.next());
+		assertEquals(1, scheduler.next());
+		// 3 is still fresh
+		assertEquals(-1, scheduler.next());
+	}
+
+	@Test
+	public void testRequestJumpsQueue()
+	{
+		PriceCrawlScheduler scheduler = new PriceCrawlScheduler(Duration.ofMinutes(30), 16);
+		scheduler.setItems(new int[]{1, 2, 3}, Collections.emptyMap());
+
+		assertTrue(scheduler.request(3));
+		assertFalse(scheduler.request(3)); // already requested
+		assertEquals(1, scheduler.getRequestedCount());
+
+		assertEquals(3, scheduler.next());
+		scheduler.fetched(3, Instant.now());
+
+		// fetched recently
+		assertFalse(scheduler.request(3));
+
+		assertEquals(1, scheduler.next());
+		assertEquals(2, scheduler.next());
+		assertEquals(-1, scheduler.next());
+	}
+
+	@Test
+	public void testRequestLimit()
+	{
+		PriceCrawlScheduler scheduler = new PriceCrawlScheduler(Duration.ofMinutes(30), 1);
+
+		assertTrue(scheduler.request(1));
+		assertFalse(scheduler.request(2));
+		assertEquals(1, scheduler.next());
+		assertTrue(scheduler.request(2));
+	}
+
+	@Test
+	public void testStaleness()
+	{
+		Instant now = Instant.now();
+		PriceCrawlScheduler scheduler = new PriceCrawlScheduler(Duration.ofMinutes(30), 16);
+		scheduler.setItems(new int[]{1, 2}, ImmutableMap.of(1, now.minus(Duration.ofHours(1))));
+
+		Map<Integer, Long> staleness = scheduler.getStaleness();
+		assertEquals(2, staleness.size());
+		assertTrue(staleness.get(1) >= 3600);
+		assertEquals(-1L, (long) staleness.get(2));
+	}
+}
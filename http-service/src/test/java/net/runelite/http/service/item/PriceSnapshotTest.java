@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPriceDelta;
+import net.runelite.http.api.item.ItemPrices;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PriceSnapshotTest
+{
+	@Test
+	public void testBinaryRoundTrip() throws IOException
+	{
+		PriceSnapshot snapshot = PriceSnapshot.build(ItemPrices.of(Arrays.asList(
+			itemPrice(4151, "Abyssal whip", 1_500_000),
+			itemPrice(2, "Cannonball", 180)
+		), 100L), 100L, Collections.emptyMap());
+
+		ItemPrices prices = ItemPrices.read(new GZIPInputStream(new ByteArrayInputStream(snapshot.getBinary().getGzipData())));
+
+		assertEquals(2, prices.size());
+		assertEquals(100L, prices.getVersion());
+		assertEquals(180, prices.getPrice(2));
+		assertEquals(1_500_000, prices.getPrice(4151));
+		assertEquals(0, prices.getPrice(995));
+		assertEquals("Abyssal whip", prices.get(4151).getName());
+		assertNull(prices.get(995));
+
+		assertNotEquals(snapshot.getBinary().getEtag(), snapshot.getBinary().getGzipEtag());
+		assertNotEquals(snapshot.getJson().getEtag(), snapshot.getBinary().getEtag());
+	}
+
+	@Test
+	public void testDelta()
+	{
+		Map<Integer, Long> changed = new HashMap<>();
+		changed.put(2, 110L);
+		changed.put(4151, 120L);
+
+		PriceSnapshot snapshot = PriceSnapshot.build(ItemPrices.of(Arrays.asList(
+			itemPrice(4151, "Abyssal whip", 1_500_000),
+			itemPrice(2, "Cannonball", 180),
+			itemPrice(995, "Coins", 1)
+		), 120L), 100L, changed);
+
+		ItemPriceDelta delta = snapshot.delta(100L);
+		assertFalse(delta.isReset());
+		assertEquals(120L, delta.getVersion());
+		assertArrayEquals(new int[]{2, 4151}, delta.getIds());
+		assertArrayEquals(new int[]{180, 1_500_000}, delta.getPrices());
+
+		delta = snapshot.delta(110L);
+		assertArrayEquals(new int[]{4151}, delta.getIds());
+
+		assertEquals(0, snapshot.delta(120L).getIds().length);
+
+		// from before this instance started, or from another instance
+		assertTrue(snapshot.delta(50L).isReset());
+		assertTrue(snapshot.delta(130L).isReset());
+	}
+
+	private static ItemPrice itemPrice(int id, String name, int price)
+	{
+		ItemPrice itemPrice = new ItemPrice();
+		itemPrice.setId(id);
+		itemPrice.setName(name);
+		itemPrice.setPrice(price);
+		itemPrice.setTime(Instant.ofEpochMilli(1546300800000L));
+		return itemPrice;
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.loottracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.runelite.http.api.loottracker.GameItem;
+import net.runelite.http.api.loottracker.LootAggregate;
+import net.runelite.http.api.loottracker.LootRecordType;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.sql2o.Connection;
+import org.sql2o.Query;
+import org.sql2o.Sql2o;
+
+public class LootTrackerServiceTest
+{
+	@Test
+	public void testPage()
+	{
+		LootPage page = LootTrackerService.toPage(Arrays.asList(
+			result(30, "Goblin", 526, 1),
+			result(30, "Goblin", 995, 5),
+			result(20, "Cow", 526, 1)
+		), 2);
+
+		assertEquals(2, page.getRecords().size());
+		assertEquals("Goblin", page.getRecords().get(0).getEventId());
+		assertEquals(2, page.getRecords().get(0).getDrops().size());
+		assertEquals("Cow", page.getRecords().get(1).getEventId());
+		assertEquals(20, page.getNext());
+	}
+
+	@Test
+	public void testKillWithoutDrops()
+	{
+		// the newest kill has no drops, the page is still full
+		LootPage page = LootTrackerService.toPage(Arrays.asList(
+			result(30, "Goblin", null, null),
+			result(20, "Cow", 526, 1)
+		), 2);
+
+		assertEquals(1, page.getRecords().size());
+		assertEquals("Cow", page.getRecords().get(0).getEventId());
+		assertEquals(20, page.getNext());
+
+		// and the oldest kill on a full page is the one to continue before, even without drops
+		page = LootTrackerService.toPage(Arrays.asList(
+			result(30, "Goblin", 526, 1),
+			result(20, "Cow", null, null)
+		), 2);
+
+		assertEquals(1, page.getRecords().size());
+		assertEquals(20, page.getNext());
+	}
+
+	@Test
+	public void testLastPage()
+	{
+		LootPage page = LootTrackerService.toPage(Collections.singletonList(
+			result(10, "Goblin", 526, 1)
+		), 2);
+
+		assertEquals(1, page.getRecords().size());
+		assertEquals(-1, page.getNext());
+
+		page = LootTrackerService.toPage(Collections.emptyList(), 2);
+		assertEquals(0, page.getRecords().size());
+		assertEquals(-1, page.getNext());
+	}
+
+	@Test
+	public void testAggregate()
+	{
+		List<LootAggregate> aggregates = new ArrayList<>(LootTrackerService.toAggregates(
+			Arrays.asList(
+				total(LootRecordType.NPC, "Goblin", 10),
+				total(LootRecordType.PLAYER, "Goblin", 2)
+			),
+			Arrays.asList(
+				itemTotal(LootRecordType.NPC, "Goblin", 526, 10),
+				itemTotal(LootRecordType.NPC, "Goblin", 995, Integer.MAX_VALUE + 10L),
+				itemTotal(LootRecordType.PLAYER, "Goblin", 1351, 1),
+				// totals of an event without a kill count are skipped
+				itemTotal(LootRecordType.NPC, "Cow", 526, 1)
+			)
+		));
+
+		assertEquals(2, aggregates.size());
+
+		LootAggregate npc = aggregates.get(0);
+		assertEquals(LootRecordType.NPC, npc.getType());
+		assertEquals("Goblin", npc.getEventId());
+		assertEquals(10, npc.getKills());
+		assertEquals(Arrays.asList(new GameItem(526, 10), new GameItem(995, Integer.MAX_VALUE)), npc.getDrops());
+
+		LootAggregate player = aggregates.get(1);
+		assertEquals(LootRecordType.PLAYER, player.getType());
+		assertEquals(2, player.getKills());
+		assertEquals(Collections.singletonList(new GameItem(1351, 1)), player.getDrops());
+	}
+
+	@Test
+	public void testRollup()
+	{
+		Connection con = mockConnection();
+		Query position = query(con, "SELECT lastKillId");
+		when(position.executeScalar(Integer.class)).thenReturn(0, 10, 20);
+		Query end = query(con, "SELECT MAX(id)");
+		when(end.executeScalar(Integer.class)).thenReturn(10, 20, null);
+		Query totals = query(con, "INSERT INTO loot_totals");
+		Query itemTotals = query(con, "INSERT INTO loot_item_totals");
+		Query update = query(con, "UPDATE loot_rollup");
+
+		new LootTrackerService(sql2o(con)).rollup();
+
+		// two batches are rolled up, then it stops once there are no new kills
+		verify(totals, times(2)).executeUpdate();
+		verify(itemTotals, times(2)).executeUpdate();
+		verify(totals).addParameter("lastKillId", 0);
+		verify(totals).addParameter("endKillId", 10);
+		verify(itemTotals).addParameter("lastKillId", 10);
+		verify(itemTotals).addParameter("endKillId", 20);
+		verify(update).addParameter("endKillId", 10);
+		verify(update).addParameter("endKillId", 20);
+		verify(con, times(2)).commit(false);
+		verify(con).rollback();
+	}
+
+	@Test
+	public void testRollupNothingNew()
+	{
+		Connection con = mockConnection();
+		Query position = query(con, "SELECT lastKillId");
+		when(position.executeScalar(Integer.class)).thenReturn(20);
+		query(con, "SELECT MAX(id)");
+		Query totals = query(con, "INSERT INTO loot_totals");
+		Query update = query(con, "UPDATE loot_rollup");
+
+		new LootTrackerService(sql2o(con)).rollup();
+
+		verify(totals, never()).executeUpdate();
+		verify(update, never()).executeUpdate();
+		verify(con, never()).commit(false);
+		verify(con).rollback();
+	}
+
+	private static Connection mockConnection()
+	{
+		Connection con = mock(Connection.class);
+		// anything not stubbed by the test, such as the table creation in the constructor
+		query(con, "");
+		return con;
+	}
+
+	private static Query query(Connection con, String prefix)
+	{
+		Query query = mock(Query.class);
+		when(query.addParameter(anyString(), anyInt())).thenReturn(query);
+		if (prefix.isEmpty())
+		{
+			when(con.createQuery(anyString())).thenReturn(query);
+		}
+		else
+		{
+			when(con.createQuery(startsWith(prefix))).thenReturn(query);
+		}
+		return query;
+	}
+
+	private static Sql2o sql2o(Connection con)
+	{
+		Sql2o sql2o = mock(Sql2o.class);
+		when(sql2o.open()).thenReturn(con);
+		when(sql2o.beginTransaction()).thenReturn(con);
+		return sql2o;
+	}
+
+	private static LootTotalResult total(LootRecordType type, String eventId, int killCount)
+	{
+		LootTotalResult total = new LootTotalResult();
+		total.setType(type);
+		total.setEventId(eventId);
+		total.setKillCount(killCount);
+		return total;
+	}
+
+	private static LootTotalResult itemTotal(LootRecordType type, String eventId, int itemId, long itemQuantity)
+	{
+		LootTotalResult total = new LootTotalResult();
+		total.setType(type);
+		total.setEventId(eventId);
+		total.setItemId(itemId);
+		total.setItemQuantity(itemQuantity);
+		return total;
+	}
+
+	private static LootResult result(int killId, String eventId, Integer itemId, Integer itemQuantity)
+	{
+		LootResult result = new LootResult();
+		result.setKillId(killId);
+		result.setType(LootRecordType.NPC);
+		result.setEventId(eventId);
+		result.setItemId(itemId);
+		result.setItemQuantity(itemQuantity);
+		return result;
+	}
+}
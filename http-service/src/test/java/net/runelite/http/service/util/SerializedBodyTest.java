@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.util;
+
+import java.nio.charset.StandardCharsets;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+public class SerializedBodyTest
+{
+	private final SerializedBody body = SerializedBody.of("hello".getBytes(StandardCharsets.UTF_8));
+
+	@Test
+	public void testIdentity()
+	{
+		ResponseEntity<byte[]> response = body.toResponse(null, null, MediaType.TEXT_PLAIN, CacheControl.noCache());
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertArrayEquals(body.getData(), response.getBody());
+		assertEquals(body.getEtag(), response.getHeaders().getETag());
+		assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+	}
+
+	@Test
+	public void testGzip()
+	{
+		ResponseEntity<byte[]> response = body.toResponse(null, "gzip, deflate", MediaType.TEXT_PLAIN, CacheControl.noCache());
+		assertArrayEquals(body.getGzipData(), response.getBody());
+		assertEquals(body.getGzipEtag(), response.getHeaders().getETag());
+		assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Test
+	public void testNotModifiedVaries()
+	{
+		ResponseEntity<byte[]> response = body.toResponse(body.getEtag(), null, MediaType.TEXT_PLAIN, CacheControl.noCache(),
+			HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+		assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+		assertNull(response.getBody());
+		assertEquals(body.getEtag(), response.getHeaders().getETag());
+		assertEquals("Accept,Accept-Encoding", String.join(",", response.getHeaders().getVary()));
+	}
+}
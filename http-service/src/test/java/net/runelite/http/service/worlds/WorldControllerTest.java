@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.worlds;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import net.runelite.http.api.worlds.World;
+import net.runelite.http.api.worlds.WorldDelta;
+import net.runelite.http.api.worlds.WorldResult;
+import net.runelite.http.api.worlds.WorldType;
+import net.runelite.http.api.worlds.WorldUpdate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+public class WorldControllerTest
+{
+	@Mock
+	private WorldsService worldsService;
+
+	@InjectMocks
+	private WorldController worldController;
+
+	@Before
+	public void before()
+	{
+		MockitoAnnotations.initMocks(this);
+	}
+
+	@Test
+	public void testUnavailable()
+	{
+		DeferredResult<ResponseEntity<WorldDelta>> result = worldController.worldDelta(0, false);
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response(result).getStatusCode());
+	}
+
+	@Test
+	public void testDelta() throws IOException
+	{
+		long first = refresh(world(1, 10), world(2, 20));
+		long second = refresh(world(1, 15), world(2, 20));
+		assertTrue(second > first);
+
+		WorldDelta delta = delta(first);
+		assertFalse(delta.isReset());
+		assertEquals(second, delta.getVersion());
+		assertEquals(1, delta.getUpdates().size());
+
+		WorldUpdate update = delta.getUpdates().get(0);
+		assertEquals(1, update.getId());
+		assertEquals(15, update.getPlayers());
+
+		// type changes are sent as deltas too
+		World members = World.builder().id(2).types(EnumSet.of(WorldType.MEMBERS)).address("w2").activity("-").players(20).build();
+		long third = refresh(world(1, 15), members);
+		delta = delta(second);
+		assertFalse(delta.isReset());
+		assertEquals(third, delta.getVersion());
+		assertEquals(EnumSet.of(WorldType.MEMBERS), delta.getUpdates().get(0).getTypes());
+
+		// already up to date
+		delta = delta(third);
+		assertFalse(delta.isReset());
+		assertEquals(third, delta.getVersion());
+		assertTrue(delta.getUpdates().isEmpty());
+	}
+
+	@Test
+	public void testUnchangedList() throws IOException
+	{
+		long first = refresh(world(1, 10));
+		assertEquals(first, refresh(world(1, 10)));
+	}
+
+	@Test
+	public void testReset() throws IOException
+	{
+		long version = refresh(world(1, 10), world(2, 20));
+
+		// unknown version
+		WorldDelta delta = delta(version - 1);
+		assertTrue(delta.isReset());
+		assertEquals(version, delta.getVersion());
+
+		// world added
+		long next = refresh(world(1, 10), world(2, 20), world(3, 30));
+		assertReset(version, next);
+		version = next;
+
+		// world replaced by another
+		next = refresh(world(1, 10), world(2, 20), world(4, 30));
+		assertReset(version, next);
+		version = next;
+
+		World moved = World.builder().id(4).types(EnumSet.noneOf(WorldType.class)).address("w4.moved").activity("-").players(30).build();
+		next = refresh(world(1, 10), world(2, 20), moved);
+		assertReset(version, next);
+		version = next;
+
+		World activity = World.builder().id(4).types(EnumSet.noneOf(WorldType.class)).address("w4.moved").activity("Trade").players(30).build();
+		next = refresh(world(1, 10), world(2, 20), activity);
+		assertReset(version, next);
+		version = next;
+
+		World location = World.builder().id(4).types(EnumSet.noneOf(WorldType.class)).address("w4.moved").activity("Trade").location(1).players(30).build();
+		next = refresh(world(1, 10), world(2, 20), location);
+		assertReset(version, next);
+	}
+
+	@Test
+	public void testHistory() throws IOException
+	{
+		long first = refresh(world(1, 0));
+		for (int i = 1; i <= 30; ++i)
+		{
+			refresh(world(1, i));
+		}
+
+		// the first version is the oldest one kept
+		WorldDelta delta = delta(first);
+		assertFalse(delta.isReset());
+		assertEquals(30, delta.getUpdates().get(0).getPlayers());
+
+		refresh(world(1, 31));
+		assertTrue(delta(first).isReset());
+	}
+
+	@Test
+	public void testLongPoll() throws IOException
+	{
+		long first = refresh(world(1, 10));
+
+		DeferredResult<ResponseEntity<WorldDelta>> waiting = worldController.worldDelta(first, true);
+		assertFalse(waiting.hasResult());
+
+		// a client behind the current version is answered immediately
+		DeferredResult<ResponseEntity<WorldDelta>> behind = worldController.worldDelta(first - 1, true);
+		assertTrue(behind.hasResult());
+
+		// nothing changed, still waiting
+		refresh(world(1, 10));
+		assertFalse(waiting.hasResult());
+
+		long second = refresh(world(1, 11));
+		assertTrue(waiting.hasResult());
+
+		WorldDelta delta = response(waiting).getBody();
+		assertFalse(delta.isReset());
+		assertEquals(second, delta.getVersion());
+		assertEquals(11, delta.getUpdates().get(0).getPlayers());
+	}
+
+	private long refresh(World... worlds) throws IOException
+	{
+		WorldResult worldResult = new WorldResult();
+		worldResult.setWorlds(new ArrayList<>(Arrays.asList(worlds)));
+		when(worldsService.getWorlds()).thenReturn(worldResult);
+
+		worldController.refreshWorlds();
+		// a delta from an unknown version resets to the current version
+		return delta(-1).getVersion();
+	}
+
+	private WorldDelta delta(long since)
+	{
+		return response(worldController.worldDelta(since, false)).getBody();
+	}
+
+	private void assertReset(long since, long version)
+	{
+		assertNotEquals(since, version);
+		WorldDelta delta = delta(since);
+		assertTrue(delta.isReset());
+		assertEquals(version, delta.getVersion());
+		assertTrue(delta.getUpdates().isEmpty());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ResponseEntity<WorldDelta> response(DeferredResult<ResponseEntity<WorldDelta>> result)
+	{
+		assertTrue(result.hasResult());
+		return (ResponseEntity<WorldDelta>) result.getResult();
+	}
+
+	private static World world(int id, int players)
+	{
+		return World.builder()
+			.id(id)
+			.types(EnumSet.noneOf(WorldType.class))
+			.address("w" + id)
+			.activity("-")
+			.players(players)
+			.build();
+	}
+}
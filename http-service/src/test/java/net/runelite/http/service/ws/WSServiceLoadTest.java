@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.ws;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.websocket.ClientEndpointConfig;
+import javax.websocket.ContainerProvider;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.MessageHandler;
+import javax.websocket.Session;
+import javax.websocket.WebSocketContainer;
+import net.runelite.http.api.ws.WebsocketMessage;
+import net.runelite.http.api.ws.messages.Handshake;
+import net.runelite.http.api.ws.messages.LoginResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.servlets.DefaultServlet;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.websocket.server.WsSci;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Broadcasts to many sessions of an embedded container and reports the send stats
+ */
+public class WSServiceLoadTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(WSServiceLoadTest.class);
+
+	private static final int CLIENTS = 500;
+	private static final int MESSAGES = 200;
+
+	@Test
+	@Ignore
+	public void test() throws Exception
+	{
+		Tomcat tomcat = new Tomcat();
+		tomcat.setPort(0);
+		tomcat.setBaseDir(System.getProperty("java.io.tmpdir"));
+
+		Context ctx = tomcat.addContext("", null);
+		ctx.addServletContainerInitializer(new WsSci(), Collections.singleton(WSService.class));
+		// the websocket filter only runs for requests mapped to a servlet
+		Tomcat.addServlet(ctx, "default", new DefaultServlet());
+		ctx.addServletMapping("/", "default");
+		tomcat.start();
+
+		URI uri = URI.create("ws://localhost:" + tomcat.getConnector().getLocalPort() + "/ws");
+		WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+		CountDownLatch received = new CountDownLatch(CLIENTS * MESSAGES);
+		List<Session> sessions = new ArrayList<>(CLIENTS);
+
+		try
+		{
+			for (int i = 0; i < CLIENTS; ++i)
+			{
+				Session session = container.connectToServer(new Endpoint()
+				{
+					@Override
+					public void onOpen(Session session, EndpointConfig config)
+					{
+						session.addMessageHandler(new MessageHandler.Whole<String>()
+						{
+							@Override
+							public void onMessage(String message)
+							{
+								received.countDown();
+							}
+						});
+					}
+				}, ClientEndpointConfig.Builder.create().build(), uri);
+
+				Handshake handshake = new Handshake();
+				handshake.setSession(UUID.randomUUID());
+				session.getBasicRemote().sendText(WSService.gson.toJson(handshake, WebsocketMessage.class));
+				sessions.add(session);
+			}
+
+			while (SessionManager.getCount() < CLIENTS)
+			{
+				Thread.sleep(10L);
+			}
+
+			LoginResponse message = new LoginResponse();
+			message.setUsername("load test");
+
+			long start = System.nanoTime();
+			for (int i = 0; i < MESSAGES; ++i)
+			{
+				SessionManager.broadcast(message);
+			}
+			boolean all = received.await(1, TimeUnit.MINUTES);
+			long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			logger.info("Broadcast {} messages to {} sessions in {}ms, all received: {}, missing: {}",
+				MESSAGES, CLIENTS, elapsed, all, received.getCount());
+			logger.info("Stats: {}", SessionManager.getStats());
+		}
+		finally
+		{
+			for (Session session : sessions)
+			{
+				session.close();
+			}
+			tomcat.stop();
+			tomcat.destroy();
+		}
+	}
+}
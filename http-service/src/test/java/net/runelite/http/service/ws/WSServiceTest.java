@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.ws;
+
+import java.io.IOException;
+import java.util.UUID;
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import net.runelite.http.api.ws.WebsocketMessage;
+import net.runelite.http.api.ws.messages.LoginResponse;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+
+public class WSServiceTest
+{
+	@Mock
+	private Session session;
+
+	@Mock
+	private RemoteEndpoint.Async remote;
+
+	private final WSService service = new WSService();
+
+	@Before
+	public void before()
+	{
+		MockitoAnnotations.initMocks(this);
+		when(session.getAsyncRemote()).thenReturn(remote);
+		service.onOpen(session, null);
+	}
+
+	@After
+	public void after()
+	{
+		SessionManager.remove(service);
+	}
+
+	@Test
+	public void testSendingHandoff()
+	{
+		service.sendText("1");
+		service.sendText("2");
+		service.sendText("3");
+
+		// only one send is outstanding at a time, the rest wait for it to complete
+		ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+		verify(remote, times(1)).sendText(anyString(), handler.capture());
+		verify(remote).sendText(eq("1"), any(SendHandler.class));
+		assertEquals(3, service.getQueued());
+
+		handler.getValue().onResult(new SendResult());
+		verify(remote).sendText(eq("2"), any(SendHandler.class));
+		assertEquals(2, service.getQueued());
+
+		// a failed send still hands off to the next message
+		handler = ArgumentCaptor.forClass(SendHandler.class);
+		verify(remote, times(2)).sendText(anyString(), handler.capture());
+		handler.getValue().onResult(new SendResult(new IOException()));
+		verify(remote).sendText(eq("3"), any(SendHandler.class));
+		assertEquals(1, service.getQueued());
+
+		handler = ArgumentCaptor.forClass(SendHandler.class);
+		verify(remote, times(3)).sendText(anyString(), handler.capture());
+		handler.getValue().onResult(new SendResult());
+		assertEquals(0, service.getQueued());
+
+		// and once idle, the next message is sent straight away
+		service.sendText("4");
+		verify(remote).sendText(eq("4"), any(SendHandler.class));
+	}
+
+	@Test
+	public void testSlowSessionDisconnected() throws IOException
+	{
+		UUID uuid = UUID.randomUUID();
+		SessionManager.changeSessionUID(service, uuid);
+		assertSame(service, SessionManager.findSession(uuid));
+
+		long dropped = SessionManager.getStats().getDropped();
+
+		// the first send never completes
+		for (int i = 0; i < WSService.MAX_QUEUED; ++i)
+		{
+			service.sendText(Integer.toString(i));
+		}
+		verify(session, never()).close(any(CloseReason.class));
+
+		service.sendText("too many");
+
+		verify(session).close(any(CloseReason.class));
+		assertNull(SessionManager.findSession(uuid));
+		assertEquals(WSService.MAX_QUEUED, service.getQueued());
+		assertEquals(dropped + 1, SessionManager.getStats().getDropped());
+	}
+
+	@Test
+	public void testUnstartableSendDropped()
+	{
+		long dropped = SessionManager.getStats().getDropped();
+
+		doThrow(new IllegalStateException("closed")).when(remote).sendText(eq("1"), any(SendHandler.class));
+
+		service.sendText("1");
+
+		// the message is dropped and the session can keep sending
+		assertEquals(0, service.getQueued());
+		assertEquals(dropped + 1, SessionManager.getStats().getDropped());
+
+		service.sendText("2");
+		verify(remote).sendText(eq("2"), any(SendHandler.class));
+		assertEquals(1, service.getQueued());
+	}
+
+	@Test
+	public void testBroadcast()
+	{
+		UUID uuid = UUID.randomUUID();
+		SessionManager.changeSessionUID(service, uuid);
+
+		LoginResponse response = new LoginResponse();
+		response.setUsername("zezima");
+		SessionManager.broadcast(response);
+
+		ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+		verify(remote).sendText(json.capture(), any(SendHandler.class));
+		assertEquals(WSService.gson.toJson(response, WebsocketMessage.class), json.getValue());
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.xp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import net.runelite.http.api.hiscore.HiscoreEndpoint;
+import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.service.hiscore.HiscoreService;
+import net.runelite.http.service.xp.XpTrackerService.PendingXp;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class XpTrackerServiceTest
+{
+	private HiscoreService hiscoreService;
+	private XpTrackerService xpTrackerService;
+	// the updates passed to each write
+	private final List<List<PendingXp>> writes = new ArrayList<>();
+
+	@Before
+	public void before()
+	{
+		hiscoreService = mock(HiscoreService.class);
+
+		xpTrackerService = spy(new XpTrackerService());
+		ReflectionTestUtils.setField(xpTrackerService, "hiscoreService", hiscoreService);
+		ReflectionTestUtils.setField(xpTrackerService, "workers", 1);
+		ReflectionTestUtils.setField(xpTrackerService, "queueSize", 1);
+		ReflectionTestUtils.setField(xpTrackerService, "lookupsPerSecond", 1000d);
+
+		// record writes instead of going to the database
+		doAnswer(invocation ->
+		{
+			Collection<PendingXp> updates = (Collection<PendingXp>) invocation.getArguments()[0];
+			writes.add(new ArrayList<>(updates));
+			return updates.size();
+		}).when(xpTrackerService).write(any());
+
+		xpTrackerService.start();
+	}
+
+	@After
+	public void after()
+	{
+		xpTrackerService.stop();
+	}
+
+	@Test
+	public void testTryUpdate() throws Exception
+	{
+		CountDownLatch lookup = new CountDownLatch(1);
+		when(hiscoreService.lookupUsername(anyString(), eq(HiscoreEndpoint.NORMAL))).thenAnswer(invocation ->
+		{
+			lookup.await();
+			return result((String) invocation.getArguments()[0]);
+		});
+
+		xpTrackerService.tryUpdate("a");
+		// wait for the worker to take it, so it is no longer queued
+		verify(hiscoreService, timeout(5000)).lookupUsername("a", HiscoreEndpoint.NORMAL);
+
+		// players already updated are ignored
+		xpTrackerService.tryUpdate("a");
+
+		xpTrackerService.tryUpdate("b");
+		xpTrackerService.tryUpdate("b");
+		// the queue only holds one player
+		xpTrackerService.tryUpdate("c");
+
+		XpTrackerStats stats = xpTrackerService.getStats();
+		assertEquals(2, stats.getQueued());
+		assertEquals(1, stats.getDropped());
+		assertEquals(1, stats.getQueueDepth());
+
+		lookup.countDown();
+		verify(hiscoreService, timeout(5000)).lookupUsername("b", HiscoreEndpoint.NORMAL);
+		verify(hiscoreService, times(1)).lookupUsername("a", HiscoreEndpoint.NORMAL);
+	}
+
+	@Test
+	public void testLatestResultWritten()
+	{
+		HiscoreResult latest = result("a");
+		xpTrackerService.update("a", result("a"));
+		xpTrackerService.update("b", result("b"));
+		xpTrackerService.update("a", latest);
+
+		xpTrackerService.flushWrites();
+
+		assertEquals(1, writes.size());
+		List<PendingXp> batch = writes.get(0);
+		assertEquals(2, batch.size());
+		assertEquals("a", batch.get(0).getUsername());
+		assertSame(latest, batch.get(0).getHiscoreResult());
+		assertEquals("b", batch.get(1).getUsername());
+		assertEquals(2, xpTrackerService.getStats().getWritten());
+	}
+
+	@Test
+	public void testBatchSize()
+	{
+		for (int i = 0; i <= XpTrackerService.MAX_BATCH_SIZE; ++i)
+		{
+			xpTrackerService.update("player" + i, result("player" + i));
+		}
+
+		xpTrackerService.flushWrites();
+		assertEquals(XpTrackerService.MAX_BATCH_SIZE, writes.get(0).size());
+		assertEquals(1, xpTrackerService.getStats().getPendingWrites());
+
+		xpTrackerService.flushWrites();
+		assertEquals(1, writes.get(1).size());
+		assertEquals(0, xpTrackerService.getStats().getPendingWrites());
+	}
+
+	@Test
+	public void testFailedWriteRequeued()
+	{
+		HiscoreResult older = result("a");
+		HiscoreResult newer = result("a");
+		xpTrackerService.update("a", older);
+
+		doThrow(new RuntimeException("database down")).when(xpTrackerService).write(any());
+		xpTrackerService.flushWrites();
+		assertEquals(1, xpTrackerService.getStats().getPendingWrites());
+
+		// results that arrive in the meantime are still newer than the requeued ones
+		xpTrackerService.update("a", newer);
+
+		doAnswer(invocation ->
+		{
+			Collection<PendingXp> updates = (Collection<PendingXp>) invocation.getArguments()[0];
+			writes.add(new ArrayList<>(updates));
+			return updates.size();
+		}).when(xpTrackerService).write(any());
+		xpTrackerService.flushWrites();
+
+		assertEquals(1, writes.size());
+		assertSame(newer, writes.get(0).get(0).getHiscoreResult());
+		assertEquals(0, xpTrackerService.getStats().getPendingWrites());
+	}
+
+	@Test
+	public void testStopDrains()
+	{
+		int count = XpTrackerService.MAX_BATCH_SIZE * 2 + 1;
+		for (int i = 0; i < count; ++i)
+		{
+			xpTrackerService.update("player" + i, result("player" + i));
+		}
+
+		xpTrackerService.stop();
+
+		assertEquals(3, writes.size());
+		assertEquals(count, xpTrackerService.getStats().getWritten());
+		assertEquals(0, xpTrackerService.getStats().getPendingWrites());
+	}
+
+	@Test
+	public void testPendingWritesBounded()
+	{
+		for (int i = 0; i < XpTrackerService.MAX_PENDING_WRITES + 1; ++i)
+		{
+			xpTrackerService.update("player" + i, result("player" + i));
+		}
+
+		XpTrackerStats stats = xpTrackerService.getStats();
+		assertEquals(XpTrackerService.MAX_PENDING_WRITES, stats.getPendingWrites());
+		assertEquals(1, stats.getDropped());
+		assertTrue(writes.isEmpty());
+	}
+
+	private static HiscoreResult result(String username)
+	{
+		HiscoreResult result = new HiscoreResult();
+		result.setPlayer(username);
+		return result;
+	}
+}
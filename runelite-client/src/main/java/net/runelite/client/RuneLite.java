@@ -33,10 +33,14 @@ import com.google.inject.Injector;
 import java.io.File;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
+import java.time.Duration;
 import java.util.Locale;
 import javax.annotation.Nullable;
 import javax.inject.Provider;
 import javax.inject.Singleton;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import joptsimple.ArgumentAcceptingOptionSpec;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -45,11 +49,15 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.client.account.SessionManager;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.callback.ClientThreadMXBean;
 import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.chat.CommandManager;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.discord.DiscordService;
 import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.EventBusMXBean;
+import net.runelite.client.events.ClientShutdown;
 import net.runelite.client.game.ClanManager;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.game.LootManager;
@@ -75,6 +83,7 @@ public class RuneLite
 	public static final File RUNELITE_DIR = new File(System.getProperty("user.home"), ".runelite");
 	public static final File PROFILES_DIR = new File(RUNELITE_DIR, "profiles");
 	public static final File SCREENSHOT_DIR = new File(RUNELITE_DIR, "screenshots");
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
 
 	@Getter
 	private static Injector injector;
@@ -88,6 +97,9 @@ public class RuneLite
 	@Inject
 	private ConfigManager configManager;
 
+	@Inject
+	private ClientThread clientThread;
+
 	@Inject
 	private DrawManager drawManager;
 
@@ -257,6 +269,9 @@ public class RuneLite
 		// Initialize Discord service
 		discordService.init();
 
+		// Expose event bus and client thread instrumentation over JMX
+		registerMBeans();
+
 		// Register event listeners
 		eventBus.register(clientUI);
 		eventBus.register(pluginManager);
@@ -289,8 +304,27 @@ public class RuneLite
 		pluginManager.startCorePlugins();
 	}
 
+	private void registerMBeans()
+	{
+		try
+		{
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(eventBus, new ObjectName(EventBusMXBean.OBJECT_NAME));
+			server.registerMBean(clientThread, new ObjectName(ClientThreadMXBean.OBJECT_NAME));
+		}
+		catch (JMException e)
+		{
+			log.warn("Unable to register MBeans", e);
+		}
+	}
+
 	public void shutdown()
 	{
+		// plugins aren't stopped on exit, so give them a chance to flush anything they are holding
+		final ClientShutdown clientShutdown = new ClientShutdown();
+		eventBus.post(clientShutdown);
+		clientShutdown.waitForAll(SHUTDOWN_TIMEOUT);
+
 		clientSessionManager.shutdown();
 		discordService.close();
 	}
@@ -28,6 +28,10 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.name.Names;
 import java.applet.Applet;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.Nullable;
@@ -52,6 +56,7 @@ import net.runelite.client.util.DeferredEventBus;
 import net.runelite.client.util.ExecutorServiceExceptionLogger;
 import net.runelite.client.util.QueryRunner;
 import net.runelite.http.api.RuneLiteAPI;
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,9 +64,17 @@ import org.slf4j.LoggerFactory;
 @Slf4j
 public class RuneLiteModule extends AbstractModule
 {
+	private static final File HTTP_CACHE_DIR = new File(RuneLite.RUNELITE_DIR, "cache" + File.separator + "okhttp");
+	// kept outside of the cache directory, which okhttp may wipe
+	private static final File HTTP_CACHE_LOCK = new File(RuneLite.RUNELITE_DIR, "cache" + File.separator + "okhttp.lock");
+	private static final long HTTP_CACHE_SIZE = 20 * 1024 * 1024;
+
 	private final ClientUpdateCheckMode updateCheckMode;
 	private final boolean developerMode;
 
+	// held until the client exits
+	private FileChannel httpCacheLock;
+
 	public RuneLiteModule(final ClientUpdateCheckMode updateCheckMode, final boolean developerMode)
 	{
 		this.updateCheckMode = updateCheckMode;
@@ -74,7 +87,6 @@ public class RuneLiteModule extends AbstractModule
 		bindConstant().annotatedWith(Names.named("updateCheckMode")).to(updateCheckMode);
 		bindConstant().annotatedWith(Names.named("developerMode")).to(developerMode);
 		bind(ScheduledExecutorService.class).toInstance(new ExecutorServiceExceptionLogger(Executors.newSingleThreadScheduledExecutor()));
-		bind(OkHttpClient.class).toInstance(RuneLiteAPI.CLIENT);
 		bind(QueryRunner.class);
 		bind(MenuManager.class);
 		bind(ChatMessageManager.class);
@@ -98,6 +110,44 @@ public class RuneLiteModule extends AbstractModule
 			.toInstance(LoggerFactory.getLogger(RuneLite.class));
 	}
 
+	@Provides
+	@Singleton
+	OkHttpClient provideHttpClient()
+	{
+		// the disk cache can't be shared between processes, so a second client runs without one
+		if (!lockHttpCache())
+		{
+			log.info("HTTP cache is in use by another client, running without it");
+			return RuneLiteAPI.CLIENT;
+		}
+
+		return RuneLiteAPI.CLIENT.newBuilder()
+			.cache(new Cache(HTTP_CACHE_DIR, HTTP_CACHE_SIZE))
+			.build();
+	}
+
+	private boolean lockHttpCache()
+	{
+		try
+		{
+			HTTP_CACHE_LOCK.getParentFile().mkdirs();
+			FileChannel channel = FileChannel.open(HTTP_CACHE_LOCK.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			if (channel.tryLock() == null)
+			{
+				channel.close();
+				return false;
+			}
+
+			httpCacheLock = channel;
+			return true;
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to lock HTTP cache", ex);
+			return false;
+		}
+	}
+
 	@Provides
 	@Singleton
 	Applet provideApplet(ClientLoader clientLoader)
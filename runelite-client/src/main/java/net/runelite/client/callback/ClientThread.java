@@ -25,18 +25,70 @@
 package net.runelite.client.callback;
 
 import com.google.inject.Inject;
-import java.util.Iterator;
+import java.util.Comparator;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BooleanSupplier;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 
+/**
+ * Runs tasks on the game thread. Tasks are run at the end of each frame, highest priority first and then in
+ * submission order, until the frame budget is used up. Tasks which return false are retried with an
+ * exponential backoff, or on the following game tick for tasks submitted with {@link #invokeAtNextTick}.
+ */
 @Singleton
 @Slf4j
-public class ClientThread
+public class ClientThread implements ClientThreadMXBean
 {
-	private ConcurrentLinkedQueue<BooleanSupplier> invokes = new ConcurrentLinkedQueue<>();
+	public static final int PRIORITY_LOW = -1;
+	public static final int PRIORITY_NORMAL = 0;
+	public static final int PRIORITY_HIGH = 1;
+
+	private static final long FRAME_BUDGET = TimeUnit.MILLISECONDS.toNanos(4);
+	private static final long MIN_BACKOFF = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long MAX_BACKOFF = TimeUnit.MILLISECONDS.toNanos(600);
+
+	private static final Comparator<Task> READY_ORDER = Comparator.comparingInt((Task t) -> t.priority)
+		.reversed()
+		.thenComparingLong(t -> t.sequence);
+	private static final Comparator<Task> DELAYED_ORDER = (a, b) -> Long.signum(a.runAt - b.runAt);
+
+	private static class Task
+	{
+		private final BooleanSupplier supplier;
+		private final int priority;
+		private final long sequence;
+		private final boolean tick;
+		private long runAt;
+		private int attempts;
+
+		private Task(BooleanSupplier supplier, int priority, long sequence, boolean tick, long runAt)
+		{
+			this.supplier = supplier;
+			this.priority = priority;
+			this.sequence = sequence;
+			this.tick = tick;
+			this.runAt = runAt;
+		}
+	}
+
+	private final AtomicLong sequence = new AtomicLong();
+	private final ConcurrentLinkedQueue<Task> submitted = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<Task> nextTick = new ConcurrentLinkedQueue<>();
+
+	// only accessed from the client thread
+	private final PriorityQueue<Task> ready = new PriorityQueue<>(READY_ORDER);
+	private final PriorityQueue<Task> delayed = new PriorityQueue<>(DELAYED_ORDER);
+
+	private final Histogram queueDepthHistogram = new Histogram(16);
+	private final Histogram drainTimeHistogram = new Histogram(24);
+	private final LongAdder budgetExceeded = new LongAdder();
+	private volatile int queueDepth;
 
 	@Inject
 	private Client client;
@@ -58,9 +110,9 @@ public class ClientThread
 	{
 		if (client.isClientThread())
 		{
-			if (r.getAsBoolean())
+			if (!r.getAsBoolean())
 			{
-				invokes.add(r);
+				invokeLater(r);
 			}
 			return;
 		}
@@ -83,20 +135,99 @@ public class ClientThread
 
 	public void invokeLater(BooleanSupplier r)
 	{
-		invokes.add(r);
+		invokeLater(r, PRIORITY_NORMAL);
+	}
+
+	/**
+	 * Will run r on the game thread after this method returns, before any pending tasks with a lower priority.
+	 * If r returns false, r will be ran again, at a later point
+	 */
+	public void invokeLater(BooleanSupplier r, int priority)
+	{
+		submitted.add(new Task(r, priority, sequence.getAndIncrement(), false, System.nanoTime()));
+	}
+
+	/**
+	 * Will run r on the game thread once at least the given delay has passed
+	 */
+	public void invokeLater(Runnable r, long delay, TimeUnit unit)
+	{
+		submitted.add(new Task(() ->
+		{
+			r.run();
+			return true;
+		}, PRIORITY_NORMAL, sequence.getAndIncrement(), false, System.nanoTime() + unit.toNanos(delay)));
+	}
+
+	public void invokeAtNextTick(Runnable r)
+	{
+		invokeAtNextTick(() ->
+		{
+			r.run();
+			return true;
+		});
+	}
+
+	/**
+	 * Will run r on the game thread after the next {@link net.runelite.api.events.GameTick} has been posted.
+	 * If r returns false, r will be ran again after the following game tick
+	 */
+	public void invokeAtNextTick(BooleanSupplier r)
+	{
+		nextTick.add(new Task(r, PRIORITY_NORMAL, sequence.getAndIncrement(), true, 0));
+	}
+
+	/**
+	 * Releases the tasks waiting for a game tick so they run at the end of the current frame
+	 */
+	void tick()
+	{
+		assert client.isClientThread();
+		for (Task task; (task = nextTick.poll()) != null; )
+		{
+			ready.add(task);
+		}
 	}
 
 	void invoke()
 	{
 		assert client.isClientThread();
-		Iterator<BooleanSupplier> ir = invokes.iterator();
-		for (; ir.hasNext(); )
+		final long start = System.nanoTime();
+
+		for (Task task; (task = submitted.poll()) != null; )
+		{
+			if (task.runAt - start > 0)
+			{
+				delayed.add(task);
+			}
+			else
+			{
+				ready.add(task);
+			}
+		}
+
+		for (Task task; (task = delayed.peek()) != null && task.runAt - start <= 0; )
 		{
-			BooleanSupplier r = ir.next();
+			ready.add(delayed.poll());
+		}
+
+		queueDepth = ready.size() + delayed.size();
+		queueDepthHistogram.record(queueDepth);
+
+		long now = start;
+		while (!ready.isEmpty())
+		{
+			if (now - start >= FRAME_BUDGET)
+			{
+				budgetExceeded.increment();
+				break;
+			}
+
+			final Task task = ready.poll();
 			boolean remove = true;
 			try
 			{
-				remove = r.getAsBoolean();
+				remove = task.supplier.getAsBoolean();
 			}
 			catch (ThreadDeath d)
 			{
@@ -106,10 +237,60 @@ public class ClientThread
 			{
 				log.warn("Exception in invoke", e);
 			}
-			if (remove)
+
+			now = System.nanoTime();
+
+			if (!remove)
 			{
-				ir.remove();
+				reschedule(task, now);
 			}
 		}
+
+		drainTimeHistogram.record(TimeUnit.NANOSECONDS.toMicros(now - start));
+	}
+
+	private void reschedule(Task task, long now)
+	{
+		if (task.tick)
+		{
+			nextTick.add(task);
+			return;
+		}
+
+		final int shift = Math.min(task.attempts++, 20);
+		task.runAt = now + Math.min(MIN_BACKOFF << shift, MAX_BACKOFF);
+		delayed.add(task);
+	}
+
+	@Override
+	public int getQueueDepth()
+	{
+		return queueDepth;
+	}
+
+	@Override
+	public long[] getQueueDepthHistogram()
+	{
+		return queueDepthHistogram.snapshot();
+	}
+
+	@Override
+	public long[] getDrainTimeHistogram()
+	{
+		return drainTimeHistogram.snapshot();
+	}
+
+	@Override
+	public long getBudgetExceededCount()
+	{
+		return budgetExceeded.sum();
+	}
+
+	@Override
+	public void resetStats()
+	{
+		queueDepthHistogram.reset();
+		drainTimeHistogram.reset();
+		budgetExceeded.reset();
 	}
 }
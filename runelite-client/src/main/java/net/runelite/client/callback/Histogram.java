@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.callback;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Power of two bucketed histogram. Bucket {@code i} counts the recorded values in {@code [2^(i-1), 2^i)},
+ * with bucket 0 holding zero.
+ */
+class Histogram
+{
+	private final AtomicLongArray buckets;
+
+	Histogram(int buckets)
+	{
+		this.buckets = new AtomicLongArray(buckets);
+	}
+
+	void record(long value)
+	{
+		final int bucket = Math.min(64 - Long.numberOfLeadingZeros(Math.max(value, 0)), buckets.length() - 1);
+		buckets.incrementAndGet(bucket);
+	}
+
+	long[] snapshot()
+	{
+		final long[] counts = new long[buckets.length()];
+		for (int i = 0; i < counts.length; i++)
+		{
+			counts[i] = buckets.get(i);
+		}
+		return counts;
+	}
+
+	void reset()
+	{
+		for (int i = 0; i < buckets.length(); i++)
+		{
+			buckets.set(i, 0);
+		}
+	}
+}
@@ -143,6 +143,9 @@ public class Hooks implements Callbacks
 
 			deferredEventBus.replay();
 
+			// release tasks waiting for this tick, they run after the tick has been posted
+			clientThread.tick();
+
 			eventBus.post(GAME_TICK);
 
 			int tick = client.getTickCount();
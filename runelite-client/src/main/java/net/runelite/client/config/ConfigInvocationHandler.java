@@ -24,17 +24,49 @@
  */
 package net.runelite.client.config;
 
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 class ConfigInvocationHandler implements InvocationHandler
 {
+	/**
+	 * Annotations and parsed value of a single config getter or setter. The parsed value is kept until
+	 * {@link #invalidate(String, String)} is called for its key.
+	 */
+	@RequiredArgsConstructor
+	private static class ConfigAccessor
+	{
+		private final ConfigGroup group;
+		private final ConfigItem item;
+		private final boolean cacheable;
+		// shared by every accessor of the same key
+		private final AtomicInteger version;
+		private volatile CachedValue cached;
+	}
+
+	@RequiredArgsConstructor
+	private static class CachedValue
+	{
+		private final int version;
+		private final Object value;
+	}
+
 	private final ConfigManager manager;
+	private final Map<Method, ConfigAccessor> accessors = new ConcurrentHashMap<>();
+	// cache version of each group.key, so invalidating a key doesn't have to look at every accessor
+	private final Map<String, AtomicInteger> versions = new ConcurrentHashMap<>();
 
 	public ConfigInvocationHandler(ConfigManager manager)
 	{
@@ -44,10 +76,15 @@ class ConfigInvocationHandler implements InvocationHandler
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
 	{
-		Class<?> iface = proxy.getClass().getInterfaces()[0];
+		ConfigAccessor accessor = accessors.get(method);
 
-		ConfigGroup group = iface.getAnnotation(ConfigGroup.class);
-		ConfigItem item = method.getAnnotation(ConfigItem.class);
+		if (accessor == null)
+		{
+			accessor = createAccessor(proxy, method);
+		}
+
+		ConfigGroup group = accessor.group;
+		ConfigItem item = accessor.item;
 
 		if (group == null)
 		{
@@ -64,34 +101,23 @@ class ConfigInvocationHandler implements InvocationHandler
 		if (args == null)
 		{
 			// Getting configuration item
-			String value = manager.getConfiguration(group.value(), item.keyName());
-
-			if (value == null)
+			if (!accessor.cacheable)
 			{
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-
-				return null;
+				return getValue(proxy, method, group, item);
 			}
 
-			// Convert value to return type
-			Class<?> returnType = method.getReturnType();
-			
-			try
-			{
-				return ConfigManager.stringToObject(value, returnType);
-			}
-			catch (Exception e)
+			// The version must be read before the value is, so a concurrent invalidate can't leave a stale value cached
+			final int version = accessor.version.get();
+			final CachedValue cached = accessor.cached;
+
+			if (cached != null && cached.version == version)
 			{
-				log.warn("Unable to unmarshal {}.{} ", group.value(), item.keyName(), e);
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-				return null;
+				return cached.value;
 			}
+
+			final Object value = getValue(proxy, method, group, item);
+			accessor.cached = new CachedValue(version, value);
+			return value;
 		}
 		else
 		{
@@ -138,6 +164,82 @@ class ConfigInvocationHandler implements InvocationHandler
 		}
 	}
 
+	/**
+	 * Drops the cached value of every getter for the given key
+	 */
+	void invalidate(String groupName, String key)
+	{
+		AtomicInteger version = versions.get(groupName + "." + key);
+		if (version != null)
+		{
+			version.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Drops the cached value of every getter
+	 */
+	void invalidateAll()
+	{
+		for (AtomicInteger version : versions.values())
+		{
+			version.incrementAndGet();
+		}
+	}
+
+	private ConfigAccessor createAccessor(Object proxy, Method method)
+	{
+		Class<?> iface = proxy.getClass().getInterfaces()[0];
+
+		ConfigGroup group = iface.getAnnotation(ConfigGroup.class);
+		ConfigItem item = method.getAnnotation(ConfigItem.class);
+
+		// awt geometry types are mutable, so they are parsed again on every call rather than shared
+		Class<?> returnType = method.getReturnType();
+		boolean cacheable = method.getParameterCount() == 0
+			&& returnType != Dimension.class && returnType != Point.class && returnType != Rectangle.class;
+
+		// accessors without a group or item never read a value, so they don't need a shared version
+		AtomicInteger version = group != null && item != null
+			? versions.computeIfAbsent(group.value() + "." + item.keyName(), k -> new AtomicInteger())
+			: new AtomicInteger();
+
+		ConfigAccessor accessor = new ConfigAccessor(group, item, cacheable, version);
+		ConfigAccessor existing = accessors.putIfAbsent(method, accessor);
+		return existing != null ? existing : accessor;
+	}
+
+	private Object getValue(Object proxy, Method method, ConfigGroup group, ConfigItem item) throws Throwable
+	{
+		String value = manager.getConfiguration(group.value(), item.keyName());
+
+		if (value == null)
+		{
+			if (method.isDefault())
+			{
+				return callDefaultMethod(proxy, method, null);
+			}
+
+			return null;
+		}
+
+		// Convert value to return type
+		Class<?> returnType = method.getReturnType();
+
+		try
+		{
+			return ConfigManager.stringToObject(value, returnType);
+		}
+		catch (Exception e)
+		{
+			log.warn("Unable to unmarshal {}.{} ", group.value(), item.keyName(), e);
+			if (method.isDefault())
+			{
+				return callDefaultMethod(proxy, method, null);
+			}
+			return null;
+		}
+	}
 	static Object callDefaultMethod(Object proxy, Method method, Object[] args) throws Throwable
 	{
 		// Call the default method implementation - https://rmannibucau.wordpress.com/2014/03/27/java-8-default-interface-methods-and-jdk-dynamic-proxies/
@@ -41,8 +41,13 @@ import java.io.OutputStreamWriter;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -52,6 +57,7 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -69,6 +75,7 @@ import net.runelite.http.api.config.Configuration;
 public class ConfigManager
 {
 	private static final String SETTINGS_FILE_NAME = "settings.properties";
+	private static final long SAVE_DELAY = 500; // ms - how long to coalesce changes before writing them to disk
 
 	@Inject
 	EventBus eventBus;
@@ -82,6 +89,7 @@ public class ConfigManager
 	private final ConfigInvocationHandler handler = new ConfigInvocationHandler(this);
 	private final Properties properties = new Properties();
 	private final Map<String, String> pendingChanges = new HashMap<>();
+	private final AtomicBoolean saveScheduled = new AtomicBoolean();
 
 	@Inject
 	public ConfigManager(ScheduledExecutorService scheduledExecutorService)
@@ -92,8 +100,12 @@ public class ConfigManager
 		executor.scheduleWithFixedDelay(this::sendConfig, 30, 30, TimeUnit.SECONDS);
 	}
 
-	public final void switchSession(AccountSession session)
+	public final synchronized void switchSession(AccountSession session)
 	{
+		// Write out changes to the old profile before switching files. Holding the monitor also waits out a save
+		// already running on the executor, so it can't write the old profile's properties over the new file
+		saveIfScheduled();
+
 		if (session == null)
 		{
 			this.session = null;
@@ -124,7 +136,7 @@ public class ConfigManager
 		}
 	}
 
-	public void load()
+	public synchronized void load()
 	{
 		if (client == null)
 		{
@@ -153,6 +165,7 @@ public class ConfigManager
 		}
 
 		properties.clear();
+		handler.invalidateAll();
 
 		for (ConfigEntry entry : configuration.getConfig())
 		{
@@ -162,6 +175,7 @@ public class ConfigManager
 			final String key = split[1];
 			final String value = entry.getValue();
 			final String oldValue = (String) properties.setProperty(entry.getKey(), value);
+			handler.invalidate(groupName, key);
 
 			ConfigChanged configChanged = new ConfigChanged();
 			configChanged.setGroup(groupName);
@@ -200,6 +214,8 @@ public class ConfigManager
 			log.warn("Unable to load settings", ex);
 		}
 
+		handler.invalidateAll();
+
 		try
 		{
 			Map<String, String> copy = (Map) ImmutableMap.copyOf(properties);
@@ -232,23 +248,74 @@ public class ConfigManager
 
 	private synchronized void saveToFile() throws IOException
 	{
-		propertiesFile.getParentFile().mkdirs();
+		final File propertiesFile = this.propertiesFile;
+		final File parent = propertiesFile.getParentFile();
+		parent.mkdirs();
+
+		// Another client sharing the settings directory may be saving too. Lock a stable file around the write
+		// and the move, the temporary file is private to this save so locking it would guard nothing
+		final File lockFile = new File(parent, propertiesFile.getName() + ".lock");
 
-		try (FileOutputStream out = new FileOutputStream(propertiesFile))
+		try (FileChannel lockChannel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			FileLock lock = lockChannel.lock())
 		{
-			final FileLock lock = out.getChannel().lock();
+			// Write to a temporary file first and move it over the settings, so a crash mid write can't truncate them
+			final File tempFile = File.createTempFile("settings", ".tmp", parent);
 
 			try
 			{
-				properties.store(new OutputStreamWriter(out, Charset.forName("UTF-8")), "RuneLite configuration");
+				try (FileOutputStream out = new FileOutputStream(tempFile))
+				{
+					properties.store(new OutputStreamWriter(out, Charset.forName("UTF-8")), "RuneLite configuration");
+				}
+
+				try
+				{
+					Files.move(tempFile.toPath(), propertiesFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex)
+				{
+					log.debug("Atomic move not supported, falling back to non atomic move", ex);
+					Files.move(tempFile.toPath(), propertiesFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
 			}
 			finally
 			{
-				lock.release();
+				Files.deleteIfExists(tempFile.toPath());
 			}
 		}
 	}
 
+	/**
+	 * Schedules a write of the properties file, unless one is already pending. Changes made before the write
+	 * runs are saved together.
+	 */
+	private void scheduleSave()
+	{
+		if (saveScheduled.compareAndSet(false, true))
+		{
+			executor.schedule(this::saveIfScheduled, SAVE_DELAY, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void saveIfScheduled()
+	{
+		// Clear the flag before saving so changes made during the save schedule another one
+		if (!saveScheduled.compareAndSet(true, false))
+		{
+			return;
+		}
+
+		try
+		{
+			saveToFile();
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save configuration file", ex);
+		}
+	}
+
 	public <T> T getConfig(Class<T> clazz)
 	{
 		if (!Modifier.isPublic(clazz.getModifiers()))
@@ -302,23 +369,14 @@ public class ConfigManager
 			return;
 		}
 
+		handler.invalidate(groupName, key);
+
 		synchronized (pendingChanges)
 		{
 			pendingChanges.put(groupName + "." + key, value);
 		}
 
-		Runnable task = () ->
-		{
-			try
-			{
-				saveToFile();
-			}
-			catch (IOException ex)
-			{
-				log.warn("unable to save configuration file", ex);
-			}
-		};
-		executor.execute(task);
+		scheduleSave();
 
 		ConfigChanged configChanged = new ConfigChanged();
 		configChanged.setGroup(groupName);
@@ -345,23 +403,14 @@ public class ConfigManager
 			return;
 		}
 
+		handler.invalidate(groupName, key);
+
 		synchronized (pendingChanges)
 		{
 			pendingChanges.put(groupName + "." + key, null);
 		}
 
-		Runnable task = () ->
-		{
-			try
-			{
-				saveToFile();
-			}
-			catch (IOException ex)
-			{
-				log.warn("unable to save configuration file", ex);
-			}
-		};
-		executor.execute(task);
+		scheduleSave();
 
 		ConfigChanged configChanged = new ConfigChanged();
 		configChanged.setGroup(groupName);
@@ -561,8 +610,13 @@ public class ConfigManager
 		return object.toString();
 	}
 
+	/**
+	 * Writes pending changes to disk and sends them to the config service
+	 */
 	public void sendConfig()
 	{
+		saveIfScheduled();
+
 		synchronized (pendingChanges)
 		{
 			if (client != null)
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded queue of pending {@link Subscribe#async()} deliveries for a single subscriber object, drained in
+ * order by one worker thread. When the queue is full further events are dropped instead of blocking the
+ * posting thread.
+ */
+@Slf4j
+class AsyncSubscriberQueue
+{
+	static final int CAPACITY = 256;
+
+	private final String name;
+	private final ThreadPoolExecutor executor;
+	private final LongAdder dropped = new LongAdder();
+
+	AsyncSubscriberQueue(Class<?> subscriber)
+	{
+		this.name = subscriber.getName();
+		this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(CAPACITY),
+			new ThreadFactoryBuilder()
+				.setNameFormat("EventBus-" + subscriber.getSimpleName() + "-%d")
+				.setDaemon(true)
+				.build(),
+			(r, e) -> drop());
+	}
+
+	void submit(Runnable delivery)
+	{
+		executor.execute(delivery);
+	}
+
+	/**
+	 * Stops accepting events. Deliveries which are already queued are still run.
+	 */
+	void shutdown()
+	{
+		executor.shutdown();
+	}
+
+	String getName()
+	{
+		return name;
+	}
+
+	long getDropped()
+	{
+		return dropped.sum();
+	}
+
+	private void drop()
+	{
+		dropped.increment();
+		log.debug("Async event queue for {} is full, dropping event", name);
+	}
+}
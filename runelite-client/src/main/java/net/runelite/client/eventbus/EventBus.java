@@ -26,7 +26,8 @@
 package net.runelite.client.eventbus;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
 import java.lang.invoke.CallSite;
@@ -38,6 +39,14 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -49,7 +58,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 @ThreadSafe
-public class EventBus
+public class EventBus implements EventBusMXBean
 {
 	@FunctionalInterface
 	public interface SubscriberMethod
@@ -63,24 +72,35 @@ public class EventBus
 		private final Object object;
 		private final Method method;
 		@EqualsAndHashCode.Exclude
+		private final float priority;
+		@EqualsAndHashCode.Exclude
+		private final boolean async;
+		@EqualsAndHashCode.Exclude
 		private final SubscriberMethod lamda;
+	}
 
-		void invoke(final Object arg) throws Exception
-		{
-			if (lamda != null)
-			{
-				lamda.invoke(arg);
-			}
-			else
-			{
-				method.invoke(object, arg);
-			}
-		}
+	@Value
+	private static class StatsKey
+	{
+		private final Class<?> subscriber;
+		private final Class<?> event;
 	}
 
+	private static final SubscriberMethod[] NO_SUBSCRIBERS = new SubscriberMethod[0];
+
 	private final Consumer<Throwable> exceptionHandler;
 	private ImmutableMultimap<Class, Subscriber> subscribers = ImmutableMultimap.of();
 
+	/**
+	 * Dispatch table compiled from {@link #subscribers} on every register/unregister. The map and the arrays
+	 * it holds are never modified after being published, so {@link #post(Object)} can read them without locking.
+	 */
+	private volatile Map<Class<?>, SubscriberMethod[]> dispatch = Collections.emptyMap();
+
+	private final Map<StatsKey, SubscriberStats> stats = new ConcurrentHashMap<>();
+	private final Map<Object, AsyncSubscriberQueue> asyncQueues = new IdentityHashMap<>();
+	private boolean instrumented;
+
 	/**
 	 * Instantiates EventBus with default exception handler
 	 */
@@ -105,6 +125,8 @@ public class EventBus
 			builder.putAll(subscribers);
 		}
 
+		boolean async = false;
+
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
 		{
 			for (final Method method : clazz.getDeclaredMethods())
@@ -158,15 +180,24 @@ public class EventBus
 				catch (Throwable e)
 				{
 					log.warn("Unable to create lambda for method {}", method, e);
+					lambda = reflectiveInvoker(object, method);
 				}
 
-				final Subscriber subscriber = new Subscriber(object, method, lambda);
+				final Subscriber subscriber = new Subscriber(object, method, sub.priority(), sub.async(), lambda);
 				builder.put(parameterClazz, subscriber);
 				log.debug("Registering {} - {}", parameterClazz, subscriber);
+				async |= sub.async();
 			}
 		}
 
+		// only start the worker once every method has been validated, so a rejected subscriber does not leak it
+		if (async)
+		{
+			asyncQueues.computeIfAbsent(object, o -> new AsyncSubscriberQueue(o.getClass()));
+		}
+
 		subscribers = builder.build();
+		dispatch = compile();
 	}
 
 	/**
@@ -181,7 +212,7 @@ public class EventBus
 			return;
 		}
 
-		final Multimap<Class, Subscriber> map = HashMultimap.create();
+		final Multimap<Class, Subscriber> map = ArrayListMultimap.create();
 		map.putAll(subscribers);
 
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
@@ -196,26 +227,36 @@ public class EventBus
 				}
 
 				final Class<?> parameterClazz = method.getParameterTypes()[0];
-				map.remove(parameterClazz, new Subscriber(object, method, null));
+				map.remove(parameterClazz, new Subscriber(object, method, 0, false, null));
 			}
 		}
 
 		subscribers = ImmutableMultimap.copyOf(map);
+		dispatch = compile();
+
+		final AsyncSubscriberQueue queue = asyncQueues.remove(object);
+		if (queue != null)
+		{
+			queue.shutdown();
+		}
 	}
 
 	/**
-	 * Posts provided event to all registered subscribers. Subscriber calls are invoked immediately and in order
-	 * in which subscribers were registered.
+	 * Posts provided event to all registered subscribers. Subscriber calls are invoked immediately, ordered by
+	 * {@link Subscribe#priority()} and then by the order in which subscribers were registered. Calls to
+	 * {@link Subscribe#async()} subscribers are only queued here and run later on the subscriber's own thread.
 	 *
 	 * @param event event to post
 	 */
 	public void post(@Nonnull final Object event)
 	{
-		for (final Subscriber subscriber : subscribers.get(event.getClass()))
+		final SubscriberMethod[] methods = dispatch.getOrDefault(event.getClass(), NO_SUBSCRIBERS);
+
+		for (final SubscriberMethod method : methods)
 		{
 			try
 			{
-				subscriber.invoke(event);
+				method.invoke(event);
 			}
 			catch (Exception e)
 			{
@@ -224,6 +265,131 @@ public class EventBus
 		}
 	}
 
+	@Override
+	public synchronized boolean isInstrumented()
+	{
+		return instrumented;
+	}
+
+	/**
+	 * Enables or disables collection of per subscriber invocation count and timings. This is off by default
+	 * as timing every subscriber call is not free.
+	 *
+	 * @param instrumented whether to instrument subscriber calls
+	 */
+	@Override
+	public synchronized void setInstrumented(boolean instrumented)
+	{
+		if (this.instrumented != instrumented)
+		{
+			this.instrumented = instrumented;
+			dispatch = compile();
+		}
+	}
+
+	@Override
+	public List<SubscriberStats> getSubscriberStats()
+	{
+		return new ArrayList<>(stats.values());
+	}
+
+	@Override
+	public void resetSubscriberStats()
+	{
+		stats.values().forEach(SubscriberStats::reset);
+	}
+
+	@Override
+	public synchronized Map<String, Long> getDroppedEvents()
+	{
+		final Map<String, Long> dropped = new HashMap<>();
+		for (final AsyncSubscriberQueue queue : asyncQueues.values())
+		{
+			dropped.merge(queue.getName(), queue.getDropped(), Long::sum);
+		}
+		return dropped;
+	}
+
+	private Map<Class<?>, SubscriberMethod[]> compile()
+	{
+		final Map<Class<?>, SubscriberMethod[]> table = new IdentityHashMap<>(subscribers.keySet().size() * 2);
+
+		for (final Map.Entry<Class, Collection<Subscriber>> entry : subscribers.asMap().entrySet())
+		{
+			final Class<?> event = entry.getKey();
+			final SubscriberMethod[] methods = entry.getValue().stream()
+				.sorted((a, b) -> Float.compare(b.getPriority(), a.getPriority()))
+				.map(subscriber ->
+				{
+					final SubscriberMethod method = instrumented ? instrument(subscriber, event) : subscriber.getLamda();
+					return subscriber.isAsync() ? enqueue(asyncQueues.get(subscriber.getObject()), method) : method;
+				})
+				.toArray(SubscriberMethod[]::new);
+
+			table.put(entry.getKey(), methods);
+		}
+
+		return table;
+	}
+
+	private SubscriberMethod instrument(final Subscriber subscriber, final Class<?> event)
+	{
+		final Class<?> subscriberClass = subscriber.getObject().getClass();
+		final SubscriberStats subscriberStats = stats.computeIfAbsent(new StatsKey(subscriberClass, event),
+			k -> new SubscriberStats(subscriberClass, event));
+		final SubscriberMethod method = subscriber.getLamda();
+
+		return e ->
+		{
+			final long start = System.nanoTime();
+			try
+			{
+				method.invoke(e);
+			}
+			finally
+			{
+				subscriberStats.record(System.nanoTime() - start);
+			}
+		};
+	}
+
+	private SubscriberMethod enqueue(final AsyncSubscriberQueue queue, final SubscriberMethod method)
+	{
+		return e -> queue.submit(() ->
+		{
+			try
+			{
+				method.invoke(e);
+			}
+			catch (Exception ex)
+			{
+				exceptionHandler.accept(ex);
+			}
+		});
+	}
+
+	private static SubscriberMethod reflectiveInvoker(final Object object, final Method method)
+	{
+		return event ->
+		{
+			try
+			{
+				method.invoke(object, event);
+			}
+			catch (InvocationTargetException e)
+			{
+				// rethrow what the subscriber threw so that both invokers report the same exception
+				final Throwable cause = e.getCause();
+				Throwables.throwIfUnchecked(cause);
+				throw new RuntimeException(cause);
+			}
+			catch (IllegalAccessException e)
+			{
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
 	private static MethodHandles.Lookup privateLookupIn(Class clazz) throws IllegalAccessException, NoSuchFieldException, InvocationTargetException
 	{
 		try
@@ -38,4 +38,16 @@ import java.lang.annotation.Target;
 @Documented
 public @interface Subscribe
 {
+	/**
+	 * Priority relative to other subscribers of the same event. Subscribers with a higher priority are
+	 * invoked first, subscribers with equal priority are invoked in the order in which they were registered.
+	 */
+	float priority() default 0;
+
+	/**
+	 * Deliver events to this subscriber on a worker thread owned by the subscribing object instead of on the
+	 * posting thread. Async deliveries to the same object run in the order they were posted, and are dropped
+	 * if too many are already pending. Only use this for handlers which do not need to run on the client thread.
+	 */
+	boolean async() default false;
 }
@@ -26,26 +26,20 @@ package net.runelite.client.game;
 
 import com.google.common.cache.CacheLoader;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
-import java.io.IOException;
-import java.util.concurrent.ScheduledExecutorService;
+import com.google.common.util.concurrent.SettableFuture;
 import lombok.extern.slf4j.Slf4j;
 import static net.runelite.client.game.HiscoreManager.EMPTY;
 import static net.runelite.client.game.HiscoreManager.NONE;
 import net.runelite.http.api.hiscore.HiscoreClient;
-import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
 
 @Slf4j
 class HiscoreLoader extends CacheLoader<HiscoreManager.HiscoreKey, HiscoreResult>
 {
-	private final ListeningExecutorService executorService;
 	private final HiscoreClient hiscoreClient;
 
-	HiscoreLoader(ScheduledExecutorService executor, HiscoreClient client)
+	HiscoreLoader(HiscoreClient client)
 	{
-		this.executorService = MoreExecutors.listeningDecorator(executor);
 		this.hiscoreClient = client;
 	}
 
@@ -60,29 +54,20 @@ class HiscoreLoader extends CacheLoader<HiscoreManager.HiscoreKey, HiscoreResult
 	{
 		log.debug("Submitting hiscore lookup for {} type {}", hiscoreKey.getUsername(), hiscoreKey.getType());
 
-		return executorService.submit(() -> fetch(hiscoreKey));
-	}
-
-	private HiscoreResult fetch(HiscoreManager.HiscoreKey hiscoreKey)
-	{
-		String username = hiscoreKey.getUsername();
-		HiscoreEndpoint endpoint = hiscoreKey.getType();
-
-		try
+		SettableFuture<HiscoreResult> future = SettableFuture.create();
+		hiscoreClient.lookupAsync(hiscoreKey.getUsername(), hiscoreKey.getType()).whenComplete((result, ex) ->
 		{
-			HiscoreResult result = hiscoreClient.lookup(username, endpoint);
-			if (result == null)
+			if (ex != null)
 			{
-				return NONE;
+				log.warn("Unable to look up hiscore!", ex);
+				future.set(NONE);
 			}
-			return result;
-		}
-		catch (IOException ex)
-		{
-			log.warn("Unable to look up hiscore!", ex);
-			return NONE;
-		}
+			else
+			{
+				future.set(result == null ? NONE : result);
+			}
+		});
+		return future;
 	}
-
 }
 
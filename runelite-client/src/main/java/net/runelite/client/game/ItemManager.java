@@ -56,7 +56,10 @@ import net.runelite.client.callback.ClientThread;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.http.api.item.ItemClient;
 import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPriceDelta;
+import net.runelite.http.api.item.ItemPrices;
 import net.runelite.http.api.item.ItemStats;
+import okhttp3.OkHttpClient;
 
 @Singleton
 @Slf4j
@@ -82,8 +85,11 @@ public class ItemManager
 	private final ScheduledExecutorService scheduledExecutorService;
 	private final ClientThread clientThread;
 
-	private final ItemClient itemClient = new ItemClient();
-	private Map<Integer, ItemPrice> itemPrices = Collections.emptyMap();
+	private final ItemClient itemClient;
+	// names and prices as of the last full load, for searching
+	private ItemPrices itemPrices = ItemPrices.EMPTY;
+	// current prices, kept up to date with deltas
+	private volatile ItemPriceStore priceStore = ItemPriceStore.EMPTY;
 	private Map<String, ItemStats> itemStats = Collections.emptyMap();
 	private final LoadingCache<ImageKey, AsyncBufferedImage> itemImages;
 	private final LoadingCache<Integer, ItemComposition> itemCompositions;
@@ -153,13 +159,14 @@ public class ItemManager
 		build();
 
 	@Inject
-	public ItemManager(Client client, ScheduledExecutorService executor, ClientThread clientThread)
+	public ItemManager(Client client, ScheduledExecutorService executor, ClientThread clientThread, OkHttpClient httpClient)
 	{
 		this.client = client;
 		this.scheduledExecutorService = executor;
 		this.clientThread = clientThread;
+		this.itemClient = new ItemClient(httpClient);
 
-		scheduledExecutorService.scheduleWithFixedDelay(this::loadPrices, 0, 30, TimeUnit.MINUTES);
+		scheduledExecutorService.scheduleWithFixedDelay(this::loadPrices, 0, 5, TimeUnit.MINUTES);
 		scheduledExecutorService.submit(this::loadStats);
 
 		itemImages = CacheBuilder.newBuilder()
@@ -203,15 +210,33 @@ public class ItemManager
 	{
 		try
 		{
-			ItemPrice[] prices = itemClient.getPrices();
+			ItemPriceStore store = priceStore;
+			if (store.getVersion() != 0)
+			{
+				ItemPriceDelta delta = itemClient.getPriceDelta(store.getVersion());
+				if (delta != null && !delta.isReset())
+				{
+					priceStore = store.update(delta.getIds(), delta.getPrices(), delta.getVersion());
+					log.debug("Updated {} prices", delta.getIds().length);
+					return;
+				}
+			}
+
+			ItemPrices prices = itemClient.getPrices();
 			if (prices != null)
 			{
-				ImmutableMap.Builder<Integer, ItemPrice> map = ImmutableMap.builderWithExpectedSize(prices.length);
-				for (ItemPrice price : prices)
+				int[] ids = new int[prices.size()];
+				int[] values = new int[prices.size()];
+				int i = 0;
+				for (ItemPrice itemPrice : prices)
 				{
-					map.put(price.getId(), price);
+					ids[i] = itemPrice.getId();
+					values[i] = itemPrice.getPrice();
+					++i;
 				}
-				itemPrices = map.build();
+
+				itemPrices = prices;
+				priceStore = ItemPriceStore.of(ids, values, prices.getVersion());
 			}
 
 			log.debug("Loaded {} prices", itemPrices.size());
@@ -279,14 +304,11 @@ public class ItemManager
 			return getItemPrice(p.getPriceID()) * p.getQuantity();
 		}
 
+		ItemPriceStore store = priceStore;
 		int price = 0;
 		for (int mappedID : ItemMapping.map(itemID))
 		{
-			ItemPrice ip = itemPrices.get(mappedID);
-			if (ip != null)
-			{
-				price += ip.getPrice();
-			}
+			price += store.get(mappedID);
 		}
 
 		return price;
@@ -321,11 +343,12 @@ public class ItemManager
 		itemName = itemName.toLowerCase();
 
 		List<ItemPrice> result = new ArrayList<>();
-		for (ItemPrice itemPrice : itemPrices.values())
+		for (ItemPrice itemPrice : itemPrices)
 		{
 			final String name = itemPrice.getName();
 			if (name.toLowerCase().contains(itemName))
 			{
+				itemPrice.setPrice(priceStore.get(itemPrice.getId()));
 				result.add(itemPrice);
 			}
 		}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.Arrays;
+
+/**
+ * An immutable map of item id to price, stored in an open addressed table of primitive ints so
+ * lookups neither box nor allocate. Updates copy the table, so readers never need to lock.
+ */
+class ItemPriceStore
+{
+	private static final int EMPTY_KEY = -1;
+
+	static final ItemPriceStore EMPTY = new ItemPriceStore(new int[]{EMPTY_KEY}, new int[1], 0, 0);
+
+	private final int[] keys;
+	private final int[] values;
+	private final int mask;
+	private final int size;
+	/**
+	 * the price snapshot version these prices are from
+	 */
+	private final long version;
+
+	private ItemPriceStore(int[] keys, int[] values, int size, long version)
+	{
+		this.keys = keys;
+		this.values = values;
+		this.mask = keys.length - 1;
+		this.size = size;
+		this.version = version;
+	}
+
+	static ItemPriceStore of(int[] ids, int[] prices, long version)
+	{
+		int capacity = tableSize(ids.length);
+		int[] keys = new int[capacity];
+		Arrays.fill(keys, EMPTY_KEY);
+		int[] values = new int[capacity];
+		int size = 0;
+		for (int i = 0; i < ids.length; ++i)
+		{
+			size += put(keys, values, ids[i], prices[i]);
+		}
+		return new ItemPriceStore(keys, values, size, version);
+	}
+
+	/**
+	 * Copy this store with prices updated or added
+	 */
+	ItemPriceStore update(int[] ids, int[] prices, long version)
+	{
+		int capacity = tableSize(size + ids.length);
+		int[] newKeys;
+		int[] newValues;
+		int newSize;
+		if (capacity == keys.length)
+		{
+			newKeys = keys.clone();
+			newValues = values.clone();
+			newSize = size;
+		}
+		else
+		{
+			newKeys = new int[capacity];
+			Arrays.fill(newKeys, EMPTY_KEY);
+			newValues = new int[capacity];
+			newSize = 0;
+			for (int i = 0; i < keys.length; ++i)
+			{
+				if (keys[i] != EMPTY_KEY)
+				{
+					newSize += put(newKeys, newValues, keys[i], values[i]);
+				}
+			}
+		}
+
+		for (int i = 0; i < ids.length; ++i)
+		{
+			newSize += put(newKeys, newValues, ids[i], prices[i]);
+		}
+		return new ItemPriceStore(newKeys, newValues, newSize, version);
+	}
+
+	/**
+	 * @return the item's price, or 0 if it has none
+	 */
+	int get(int itemId)
+	{
+		int idx = hash(itemId) & mask;
+		int key;
+		// the table is at most half full, so this almost always ends at the first or second slot
+		while ((key = keys[idx]) != itemId)
+		{
+			if (key == EMPTY_KEY)
+			{
+				return 0;
+			}
+			idx = (idx + 1) & mask;
+		}
+		return values[idx];
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	long getVersion()
+	{
+		return version;
+	}
+
+	/**
+	 * @return 1 if the key was added, 0 if it was replaced
+	 */
+	private static int put(int[] keys, int[] values, int key, int value)
+	{
+		int mask = keys.length - 1;
+		int idx = hash(key) & mask;
+		while (keys[idx] != EMPTY_KEY)
+		{
+			if (keys[idx] == key)
+			{
+				values[idx] = value;
+				return 0;
+			}
+			idx = (idx + 1) & mask;
+		}
+		keys[idx] = key;
+		values[idx] = value;
+		return 1;
+	}
+
+	private static int tableSize(int entries)
+	{
+		// keep the load factor at or under 0.5
+		return Math.max(2, Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1);
+	}
+
+	private static int hash(int key)
+	{
+		// item ids are mostly sequential, so spread them to avoid long runs of occupied slots
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -50,6 +50,7 @@ import net.runelite.api.vars.AccountType;
 import net.runelite.api.widgets.Widget;
 import static net.runelite.api.widgets.WidgetID.KILL_LOGS_GROUP_ID;
 import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.chat.ChatColorType;
 import net.runelite.client.chat.ChatCommandManager;
 import net.runelite.client.chat.ChatMessageBuilder;
@@ -101,6 +102,9 @@ public class ChatCommandsPlugin extends Plugin
 	@Inject
 	private Client client;
 
+	@Inject
+	private ClientThread clientThread;
+
 	@Inject
 	private ChatCommandsConfig config;
 
@@ -324,33 +328,41 @@ public class ChatCommandsPlugin extends Plugin
 			player = sanitize(setMessage.getName());
 		}
 
-		search = longBossName(search);
+		final String boss = longBossName(search);
 
-		final int kc;
-		try
-		{
-			kc = chatClient.getKc(player, search);
-		}
-		catch (IOException ex)
+		// lookups from busy chats are coalesced into batch requests by the chat client
+		chatClient.getKcAsync(player, boss).whenComplete((kc, ex) ->
 		{
-			log.debug("unable to lookup killcount", ex);
-			return;
-		}
+			if (ex != null)
+			{
+				log.debug("unable to lookup killcount", ex);
+				return;
+			}
 
-		String response = new ChatMessageBuilder()
-			.append(ChatColorType.HIGHLIGHT)
-			.append(search)
-			.append(ChatColorType.NORMAL)
-			.append(" kill count: ")
-			.append(ChatColorType.HIGHLIGHT)
-			.append(Integer.toString(kc))
-			.build();
-
-		log.debug("Setting response {}", response);
-		final MessageNode messageNode = setMessage.getMessageNode();
-		messageNode.setRuneLiteFormatMessage(response);
-		chatMessageManager.update(messageNode);
-		client.refreshChat();
+			if (kc == null)
+			{
+				return;
+			}
+
+			String response = new ChatMessageBuilder()
+				.append(ChatColorType.HIGHLIGHT)
+				.append(boss)
+				.append(ChatColorType.NORMAL)
+				.append(" kill count: ")
+				.append(ChatColorType.HIGHLIGHT)
+				.append(Integer.toString(kc))
+				.build();
+
+			log.debug("Setting response {}", response);
+			final MessageNode messageNode = setMessage.getMessageNode();
+			// the lookup completes on an http thread, so update the chat from the client thread
+			clientThread.invoke(() ->
+			{
+				messageNode.setRuneLiteFormatMessage(response);
+				chatMessageManager.update(messageNode);
+				client.refreshChat();
+			});
+		});
 	}
 
 	private void questPointsLookup(SetMessage setMessage, String message)
@@ -372,29 +384,36 @@ public class ChatCommandsPlugin extends Plugin
 			player = sanitize(setMessage.getName());
 		}
 
-		int qp;
-		try
-		{
-			qp = chatClient.getQp(player);
-		}
-		catch (IOException ex)
+		chatClient.getQpAsync(player).whenComplete((qp, ex) ->
 		{
-			log.debug("unable to lookup quest points", ex);
-			return;
-		}
+			if (ex != null)
+			{
+				log.debug("unable to lookup quest points", ex);
+				return;
+			}
 
-		String response = new ChatMessageBuilder()
-			.append(ChatColorType.NORMAL)
-			.append("Quest points: ")
-			.append(ChatColorType.HIGHLIGHT)
-			.append(Integer.toString(qp))
-			.build();
+			if (qp == null)
+			{
+				return;
+			}
 
-		log.debug("Setting response {}", response);
-		final MessageNode messageNode = setMessage.getMessageNode();
-		messageNode.setRuneLiteFormatMessage(response);
-		chatMessageManager.update(messageNode);
-		client.refreshChat();
+			String response = new ChatMessageBuilder()
+				.append(ChatColorType.NORMAL)
+				.append("Quest points: ")
+				.append(ChatColorType.HIGHLIGHT)
+				.append(Integer.toString(qp))
+				.build();
+
+			log.debug("Setting response {}", response);
+			final MessageNode messageNode = setMessage.getMessageNode();
+			// the lookup completes on an http thread, so update the chat from the client thread
+			clientThread.invoke(() ->
+			{
+				messageNode.setRuneLiteFormatMessage(response);
+				chatMessageManager.update(messageNode);
+				client.refreshChat();
+			});
+		});
 	}
 
 	private boolean questPointsSubmit(ChatInput chatInput, String value)
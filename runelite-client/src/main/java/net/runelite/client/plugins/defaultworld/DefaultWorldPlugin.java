@@ -40,6 +40,7 @@ import net.runelite.client.util.WorldUtil;
 import net.runelite.http.api.worlds.World;
 import net.runelite.http.api.worlds.WorldClient;
 import net.runelite.http.api.worlds.WorldResult;
+import okhttp3.OkHttpClient;
 
 @PluginDescriptor(
 	name = "Default World",
@@ -54,7 +55,9 @@ public class DefaultWorldPlugin extends Plugin
 	@Inject
 	private DefaultWorldConfig config;
 
-	private final WorldClient worldClient = new WorldClient();
+	@Inject
+	private OkHttpClient httpClient;
+
 	private int worldCache;
 	private boolean worldChangeRequired;
 
@@ -110,7 +113,7 @@ public class DefaultWorldPlugin extends Plugin
 
 		try
 		{
-			final WorldResult worldResult = worldClient.lookupWorlds();
+			final WorldResult worldResult = new WorldClient(httpClient).lookupWorlds();
 			final World world = worldResult.findWorld(correctedWorld);
 
 			if (world != null)
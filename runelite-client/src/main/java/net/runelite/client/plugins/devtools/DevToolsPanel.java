@@ -39,15 +39,19 @@ class DevToolsPanel extends PluginPanel
 
 	private final WidgetInspector widgetInspector;
 	private final VarInspector varInspector;
+	private final EventProfiler eventProfiler;
+	private final HttpProfiler httpProfiler;
 
 	@Inject
-	private DevToolsPanel(Client client, DevToolsPlugin plugin, WidgetInspector widgetInspector, VarInspector varInspector)
+	private DevToolsPanel(Client client, DevToolsPlugin plugin, WidgetInspector widgetInspector, VarInspector varInspector, EventProfiler eventProfiler, HttpProfiler httpProfiler)
 	{
 		super();
 		this.client = client;
 		this.plugin = plugin;
 		this.widgetInspector = widgetInspector;
 		this.varInspector = varInspector;
+		this.eventProfiler = eventProfiler;
+		this.httpProfiler = httpProfiler;
 
 		setBackground(ColorScheme.DARK_GRAY_COLOR);
 
@@ -119,6 +123,32 @@ class DevToolsPanel extends PluginPanel
 			}
 		});
 
+		container.add(plugin.getEventProfiler());
+		plugin.getEventProfiler().addActionListener((ev) ->
+		{
+			if (plugin.getEventProfiler().isActive())
+			{
+				eventProfiler.close();
+			}
+			else
+			{
+				eventProfiler.open();
+			}
+		});
+
+		container.add(plugin.getHttpProfiler());
+		plugin.getHttpProfiler().addActionListener((ev) ->
+		{
+			if (plugin.getHttpProfiler().isActive())
+			{
+				httpProfiler.close();
+			}
+			else
+			{
+				httpProfiler.open();
+			}
+		});
+
 		return container;
 	}
 }
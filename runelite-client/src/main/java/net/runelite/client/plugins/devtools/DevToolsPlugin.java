@@ -124,6 +124,8 @@ public class DevToolsPlugin extends Plugin
 	private DevToolsButton detachedCamera;
 	private DevToolsButton widgetInspector;
 	private DevToolsButton varInspector;
+	private DevToolsButton eventProfiler;
+	private DevToolsButton httpProfiler;
 	private NavigationButton navButton;
 
 	@Provides
@@ -164,6 +166,8 @@ public class DevToolsPlugin extends Plugin
 		detachedCamera = new DevToolsButton("Detached Camera");
 		widgetInspector = new DevToolsButton("Widget Inspector");
 		varInspector = new DevToolsButton("Var Inspector");
+		eventProfiler = new DevToolsButton("Event Profiler");
+		httpProfiler = new DevToolsButton("HTTP Profiler");
 
 		overlayManager.add(overlay);
 		overlayManager.add(locationOverlay);
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.SubscriberStats;
+
+class EventProfiler extends ProfilerFrame<SubscriberStats>
+{
+	private static final String[] COLUMNS = {"Subscriber", "Event", "Calls", "Total (ms)", "Avg (µs)", "Max (µs)"};
+
+	private final EventBus eventBus;
+
+	@Inject
+	EventProfiler(EventBus eventBus, DevToolsPlugin plugin)
+	{
+		super("RuneLite Event Profiler", COLUMNS, 2, () -> plugin.getEventProfiler().setActive(false));
+		this.eventBus = eventBus;
+	}
+
+	@Override
+	List<SubscriberStats> getStats()
+	{
+		return eventBus.getSubscriberStats();
+	}
+
+	@Override
+	void resetStats()
+	{
+		eventBus.resetSubscriberStats();
+	}
+
+	@Override
+	Object getValue(SubscriberStats s, int col)
+	{
+		switch (col)
+		{
+			case 0:
+				return s.getSubscriber();
+			case 1:
+				return s.getEvent();
+			case 2:
+				return s.getInvocations();
+			case 3:
+				return TimeUnit.NANOSECONDS.toMillis(s.getTotalNanos());
+			case 4:
+				return s.getInvocations() == 0 ? 0L : TimeUnit.NANOSECONDS.toMicros(s.getTotalNanos() / s.getInvocations());
+			case 5:
+				return TimeUnit.NANOSECONDS.toMicros(s.getMaxNanos());
+			default:
+				return null;
+		}
+	}
+
+	@Override
+	public void open()
+	{
+		eventBus.setInstrumented(true);
+		super.open();
+	}
+
+	@Override
+	public void close()
+	{
+		super.close();
+		eventBus.setInstrumented(false);
+	}
+}
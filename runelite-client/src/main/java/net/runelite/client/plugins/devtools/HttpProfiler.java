@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import net.runelite.http.api.EndpointStats;
+import net.runelite.http.api.RuneLiteAPI;
+
+class HttpProfiler extends ProfilerFrame<EndpointStats>
+{
+	private static final String[] COLUMNS = {"Endpoint", "Requests", "Errors", "Avg (ms)", "Max (ms)"};
+
+	@Inject
+	HttpProfiler(DevToolsPlugin plugin)
+	{
+		super("RuneLite HTTP Profiler", COLUMNS, 1, () -> plugin.getHttpProfiler().setActive(false));
+	}
+
+	@Override
+	List<EndpointStats> getStats()
+	{
+		return RuneLiteAPI.getEndpointStats();
+	}
+
+	@Override
+	void resetStats()
+	{
+		RuneLiteAPI.resetEndpointStats();
+	}
+
+	@Override
+	Object getValue(EndpointStats s, int col)
+	{
+		switch (col)
+		{
+			case 0:
+				return s.getEndpoint();
+			case 1:
+				return s.getRequests();
+			case 2:
+				return s.getErrors();
+			case 3:
+				return s.getRequests() == 0 ? 0L : TimeUnit.NANOSECONDS.toMillis(s.getTotalNanos() / s.getRequests());
+			case 4:
+				return TimeUnit.NANOSECONDS.toMillis(s.getMaxNanos());
+			default:
+				return null;
+		}
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import net.runelite.client.ui.ClientUI;
+
+/**
+ * A window with a sortable table of stats, refreshed while it is open, and a button to reset them
+ *
+ * @param <T> the stats of one row
+ */
+abstract class ProfilerFrame<T> extends JFrame
+{
+	private static final int REFRESH_INTERVAL_MS = 1000;
+
+	private final StatsTableModel model;
+	private final Timer refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refresh());
+
+	/**
+	 * @param columns      column names, the first {@code textColumns} hold strings and the rest longs
+	 * @param windowClosed run after the window is closed by the user
+	 */
+	ProfilerFrame(String title, String[] columns, int textColumns, Runnable windowClosed)
+	{
+		model = new StatsTableModel(columns, textColumns);
+
+		setTitle(title);
+		setIconImage(ClientUI.ICON);
+
+		setLayout(new BorderLayout());
+
+		setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+		addWindowListener(new WindowAdapter()
+		{
+			@Override
+			public void windowClosing(WindowEvent e)
+			{
+				close();
+				windowClosed.run();
+			}
+		});
+
+		final JTable table = new JTable(model);
+		table.setAutoCreateRowSorter(true);
+
+		final JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.setPreferredSize(new Dimension(700, 400));
+		add(scrollPane, BorderLayout.CENTER);
+
+		final JPanel options = new JPanel();
+		options.setLayout(new FlowLayout());
+
+		final JButton resetBtn = new JButton("Reset");
+		resetBtn.addActionListener(e ->
+		{
+			resetStats();
+			refresh();
+		});
+		options.add(resetBtn);
+
+		add(options, BorderLayout.SOUTH);
+
+		pack();
+	}
+
+	abstract List<T> getStats();
+
+	abstract void resetStats();
+
+	abstract Object getValue(T stats, int col);
+
+	private void refresh()
+	{
+		model.setStats(getStats());
+	}
+
+	public void open()
+	{
+		refresh();
+		refreshTimer.start();
+		setVisible(true);
+		toFront();
+		repaint();
+	}
+
+	public void close()
+	{
+		refreshTimer.stop();
+		setVisible(false);
+	}
+
+	private class StatsTableModel extends AbstractTableModel
+	{
+		private final String[] columns;
+		private final int textColumns;
+
+		private List<T> stats = Collections.emptyList();
+
+		StatsTableModel(String[] columns, int textColumns)
+		{
+			this.columns = columns;
+			this.textColumns = textColumns;
+		}
+
+		void setStats(List<T> stats)
+		{
+			this.stats = stats;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public String getColumnName(int col)
+		{
+			return columns[col];
+		}
+
+		@Override
+		public Class<?> getColumnClass(int col)
+		{
+			return col < textColumns ? String.class : Long.class;
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return stats.size();
+		}
+
+		@Override
+		public int getColumnCount()
+		{
+			return columns.length;
+		}
+
+		@Override
+		public Object getValueAt(int row, int col)
+		{
+			return getValue(stats.get(row), col);
+		}
+	}
+}
@@ -39,6 +39,7 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -60,6 +61,7 @@ import net.runelite.client.util.ImageUtil;
 import net.runelite.client.util.StackFormatter;
 import net.runelite.http.api.hiscore.HiscoreClient;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
+import net.runelite.http.api.hiscore.HiscoreEndpointResult;
 import net.runelite.http.api.hiscore.HiscoreResult;
 import net.runelite.http.api.hiscore.HiscoreSkill;
 import static net.runelite.http.api.hiscore.HiscoreSkill.AGILITY;
@@ -112,6 +114,13 @@ public class HiscorePanel extends PluginPanel
 		CONSTRUCTION, HUNTER
 	);
 
+	/**
+	 * Hiscores a player can be on because of their account type, most specific first
+	 */
+	private static final HiscoreEndpoint[] ACCOUNT_TYPE_ENDPOINTS = {
+		HiscoreEndpoint.ULTIMATE_IRONMAN, HiscoreEndpoint.HARDCORE_IRONMAN, HiscoreEndpoint.IRONMAN, HiscoreEndpoint.NORMAL
+	};
+
 	@Inject
 	ScheduledExecutorService executor;
 
@@ -140,6 +149,9 @@ public class HiscorePanel extends PluginPanel
 	/* Used to prevent users from switching endpoint tabs while the results are loading */
 	private boolean loading = false;
 
+	/* Whether the next lookup should select the endpoint of the player's account type */
+	private boolean detectEndpoint = false;
+
 	@Inject
 	public HiscorePanel(HiscoreConfig config)
 	{
@@ -329,6 +341,7 @@ public class HiscorePanel extends PluginPanel
 	{
 		searchBar.setText(username);
 		resetEndpoints();
+		detectEndpoint = true;
 		lookup();
 	}
 
@@ -367,12 +380,32 @@ public class HiscorePanel extends PluginPanel
 			selectedEndPoint = HiscoreEndpoint.NORMAL;
 		}
 
+		final boolean detect = detectEndpoint;
+		detectEndpoint = false;
+
 		try
 		{
-			log.debug("Hiscore endpoint " + selectedEndPoint.name() + " selected");
-			result = hiscoreClient.lookup(lookup, selectedEndPoint);
+			if (detect)
+			{
+				// show the hiscores of the player's account type
+				HiscoreEndpointResult found = hiscoreClient.lookupFirst(lookup, ACCOUNT_TYPE_ENDPOINTS).join();
+				if (found != null)
+				{
+					selectedEndPoint = found.getEndpoint();
+					result = found.getResult();
+				}
+				else
+				{
+					result = null;
+				}
+			}
+			else
+			{
+				log.debug("Hiscore endpoint " + selectedEndPoint.name() + " selected");
+				result = hiscoreClient.lookup(lookup, selectedEndPoint);
+			}
 		}
-		catch (IOException ex)
+		catch (IOException | CompletionException ex)
 		{
 			log.warn("Error fetching Hiscore data " + ex.getMessage());
 			searchBar.setIcon(IconTextField.Icon.ERROR);
@@ -394,6 +427,11 @@ public class HiscorePanel extends PluginPanel
 		searchBar.setEditable(true);
 		loading = false;
 
+		if (detect)
+		{
+			tabGroup.select(tabGroup.getTab(selectedEndPoint.ordinal()));
+		}
+
 		int index = 0;
 		for (JLabel label : skillLabels)
 		{
@@ -118,9 +118,10 @@ class LootTrackerBox extends JPanel
 	 */
 	private long getTotalKills()
 	{
-		return hideIgnoredItems
-			? records.stream().filter(r -> !Arrays.stream(r.getItems()).allMatch(LootTrackerItem::isIgnored)).count()
-			: records.size();
+		return records.stream()
+			.filter(r -> !hideIgnoredItems || !Arrays.stream(r.getItems()).allMatch(LootTrackerItem::isIgnored))
+			.mapToLong(LootTrackerRecord::getKills)
+			.sum();
 	}
 
 	/**
@@ -334,7 +334,7 @@ class LootTrackerPanel extends PluginPanel
 	void add(final String eventName, final int actorLevel, LootTrackerItem[] items)
 	{
 		final String subTitle = actorLevel > -1 ? "(lvl-" + actorLevel + ")" : "";
-		final LootTrackerRecord record = new LootTrackerRecord(eventName, subTitle, items, System.currentTimeMillis());
+		final LootTrackerRecord record = new LootTrackerRecord(eventName, subTitle, items, System.currentTimeMillis(), 1);
 		records.add(record);
 		LootTrackerBox box = buildBox(record);
 		if (box != null)
@@ -531,7 +531,7 @@ class LootTrackerPanel extends PluginPanel
 
 			if (present > 0)
 			{
-				overallKills++;
+				overallKills += record.getKills();
 			}
 		}
 
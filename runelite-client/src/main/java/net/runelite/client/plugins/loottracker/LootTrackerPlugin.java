@@ -30,12 +30,14 @@ import com.google.common.base.Splitter;
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -47,6 +49,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
+import net.runelite.api.GameState;
 import net.runelite.api.InventoryID;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.ItemContainer;
@@ -56,6 +59,7 @@ import net.runelite.api.SpriteID;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.ConfigChanged;
+import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.SessionClose;
 import net.runelite.api.events.SessionOpen;
 import net.runelite.api.events.WidgetLoaded;
@@ -65,6 +69,7 @@ import net.runelite.client.account.SessionManager;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ClientShutdown;
 import net.runelite.client.events.NpcLootReceived;
 import net.runelite.client.events.PlayerLootReceived;
 import net.runelite.client.game.ItemManager;
@@ -72,11 +77,13 @@ import net.runelite.client.game.ItemStack;
 import net.runelite.client.game.SpriteManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.task.Schedule;
 import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.util.ImageUtil;
 import net.runelite.client.util.Text;
 import net.runelite.http.api.loottracker.GameItem;
+import net.runelite.http.api.loottracker.LootAggregate;
 import net.runelite.http.api.loottracker.LootRecord;
 import net.runelite.http.api.loottracker.LootRecordType;
 import net.runelite.http.api.loottracker.LootTrackerClient;
@@ -101,6 +108,10 @@ public class LootTrackerPlugin extends Plugin
 
 	private static final Joiner COMMA_JOINER = Joiner.on(",").skipNulls();
 
+	// loot is queued and submitted in batches, at most this often unless the queue fills
+	private static final int SUBMIT_PERIOD = 5;
+	private static final int MAX_QUEUED_LOOT = 50;
+
 	@Inject
 	private ClientToolbar clientToolbar;
 
@@ -134,6 +145,8 @@ public class LootTrackerPlugin extends Plugin
 	@Getter(AccessLevel.PACKAGE)
 	private LootTrackerClient lootTrackerClient;
 
+	private final List<LootRecord> queuedLoots = new ArrayList<>();
+
 	private static Collection<ItemStack> stack(Collection<ItemStack> items)
 	{
 		final List<ItemStack> list = new ArrayList<>();
@@ -186,9 +199,25 @@ public class LootTrackerPlugin extends Plugin
 	@Subscribe
 	public void onSessionClose(SessionClose sessionClose)
 	{
+		submitLoot();
 		lootTrackerClient = null;
 	}
 
+	@Subscribe
+	public void onClientShutdown(ClientShutdown event)
+	{
+		event.waitFor(submitLoot());
+	}
+
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged event)
+	{
+		if (event.getGameState() == GameState.LOGIN_SCREEN)
+		{
+			submitLoot();
+		}
+	}
+
 	@Subscribe
 	public void onConfigChanged(ConfigChanged event)
 	{
@@ -233,7 +262,7 @@ public class LootTrackerPlugin extends Plugin
 
 				executor.submit(() ->
 				{
-					Collection<LootRecord> lootRecords;
+					Collection<LootAggregate> lootAggregates;
 
 					if (!config.saveLoot())
 					{
@@ -243,7 +272,7 @@ public class LootTrackerPlugin extends Plugin
 
 					try
 					{
-						lootRecords = lootTrackerClient.get();
+						lootAggregates = lootTrackerClient.getAggregate();
 					}
 					catch (IOException e)
 					{
@@ -251,11 +280,16 @@ public class LootTrackerPlugin extends Plugin
 						return;
 					}
 
-					log.debug("Loaded {} data entries", lootRecords.size());
+					if (lootAggregates == null)
+					{
+						return;
+					}
+
+					log.debug("Loaded {} loot totals", lootAggregates.size());
 
 					clientThread.invokeLater(() ->
 					{
-						Collection<LootTrackerRecord> records = convertToLootTrackerRecord(lootRecords);
+						Collection<LootTrackerRecord> records = convertToLootTrackerRecord(lootAggregates);
 						SwingUtilities.invokeLater(() -> panel.addRecords(records));
 					});
 				});
@@ -267,10 +301,64 @@ public class LootTrackerPlugin extends Plugin
 	@Override
 	protected void shutDown()
 	{
+		submitLoot();
 		clientToolbar.removeNavigation(navButton);
 		lootTrackerClient = null;
 	}
 
+	@Schedule(
+		period = SUBMIT_PERIOD,
+		unit = ChronoUnit.MINUTES,
+		asynchronous = true
+	)
+	public void submitLootTask()
+	{
+		submitLoot();
+	}
+
+	private void queueLoot(LootRecord lootRecord)
+	{
+		boolean full;
+		synchronized (queuedLoots)
+		{
+			queuedLoots.add(lootRecord);
+			full = queuedLoots.size() >= MAX_QUEUED_LOOT;
+		}
+
+		if (full)
+		{
+			submitLoot();
+		}
+	}
+
+	/**
+	 * Submits the queued loot records in one request
+	 *
+	 * @return a future completed once the submission has finished
+	 */
+	private CompletableFuture<Void> submitLoot()
+	{
+		List<LootRecord> lootRecords;
+		synchronized (queuedLoots)
+		{
+			if (queuedLoots.isEmpty())
+			{
+				return CompletableFuture.completedFuture(null);
+			}
+
+			lootRecords = new ArrayList<>(queuedLoots);
+			queuedLoots.clear();
+		}
+
+		LootTrackerClient lootTrackerClient = this.lootTrackerClient;
+		if (lootTrackerClient != null)
+		{
+			log.debug("Submitting {} loot records", lootRecords.size());
+			return lootTrackerClient.submit(lootRecords);
+		}
+		return CompletableFuture.completedFuture(null);
+	}
+
 	@Subscribe
 	public void onNpcLootReceived(final NpcLootReceived npcLootReceived)
 	{
@@ -284,7 +372,7 @@ public class LootTrackerPlugin extends Plugin
 		if (lootTrackerClient != null && config.saveLoot())
 		{
 			LootRecord lootRecord = new LootRecord(name, LootRecordType.NPC, toGameItems(items));
-			lootTrackerClient.submit(lootRecord);
+			queueLoot(lootRecord);
 		}
 	}
 
@@ -301,7 +389,7 @@ public class LootTrackerPlugin extends Plugin
 		if (lootTrackerClient != null && config.saveLoot())
 		{
 			LootRecord lootRecord = new LootRecord(name, LootRecordType.PLAYER, toGameItems(items));
-			lootTrackerClient.submit(lootRecord);
+			queueLoot(lootRecord);
 		}
 	}
 
@@ -360,7 +448,7 @@ public class LootTrackerPlugin extends Plugin
 		if (lootTrackerClient != null && config.saveLoot())
 		{
 			LootRecord lootRecord = new LootRecord(eventType, LootRecordType.EVENT, toGameItems(items));
-			lootTrackerClient.submit(lootRecord);
+			queueLoot(lootRecord);
 		}
 	}
 
@@ -449,16 +537,16 @@ public class LootTrackerPlugin extends Plugin
 			.collect(Collectors.toList());
 	}
 
-	private Collection<LootTrackerRecord> convertToLootTrackerRecord(final Collection<LootRecord> records)
+	private Collection<LootTrackerRecord> convertToLootTrackerRecord(final Collection<LootAggregate> aggregates)
 	{
 		Collection<LootTrackerRecord> trackerRecords = new ArrayList<>();
-		for (LootRecord record : records)
+		for (LootAggregate aggregate : aggregates)
 		{
-			LootTrackerItem[] drops = record.getDrops().stream().map(itemStack ->
+			LootTrackerItem[] drops = aggregate.getDrops().stream().map(itemStack ->
 				buildLootTrackerItem(itemStack.getId(), itemStack.getQty())
 			).toArray(LootTrackerItem[]::new);
 
-			trackerRecords.add(new LootTrackerRecord(record.getEventId(), "", drops, -1));
+			trackerRecords.add(new LootTrackerRecord(aggregate.getEventId(), "", drops, -1, aggregate.getKills()));
 		}
 
 		return trackerRecords;
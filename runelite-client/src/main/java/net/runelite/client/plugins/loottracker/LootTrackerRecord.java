@@ -33,6 +33,10 @@ class LootTrackerRecord
 	private final String subTitle;
 	private final LootTrackerItem[] items;
 	private final long timestamp;
+	/**
+	 * number of kills this record is the loot of, more than one if it is a loot total
+	 */
+	private final int kills;
 
 	/**
 	 * Checks if this record matches specified id
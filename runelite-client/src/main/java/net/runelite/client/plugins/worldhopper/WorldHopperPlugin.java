@@ -84,8 +84,10 @@ import net.runelite.client.util.Text;
 import net.runelite.client.util.WorldUtil;
 import net.runelite.http.api.worlds.World;
 import net.runelite.http.api.worlds.WorldClient;
+import net.runelite.http.api.worlds.WorldDelta;
 import net.runelite.http.api.worlds.WorldResult;
 import net.runelite.http.api.worlds.WorldType;
+import okhttp3.OkHttpClient;
 import org.apache.commons.lang3.ArrayUtils;
 
 @PluginDescriptor(
@@ -131,6 +133,9 @@ public class WorldHopperPlugin extends Plugin
 	@Inject
 	private WorldHopperConfig config;
 
+	@Inject
+	private OkHttpClient httpClient;
+
 	private final ScheduledExecutorService hopperExecutorService = new ExecutorServiceExceptionLogger(Executors.newSingleThreadScheduledExecutor());
 
 	private NavigationButton navButton;
@@ -458,7 +463,23 @@ public class WorldHopperPlugin extends Plugin
 
 		try
 		{
-			WorldResult worldResult = new WorldClient().lookupWorlds();
+			WorldClient worldClient = new WorldClient(httpClient);
+			WorldResult worldResult = null;
+
+			// only player counts usually change between fetches, so try to update the current list in place
+			if (this.worldResult != null && this.worldResult.getVersion() != 0)
+			{
+				WorldDelta delta = worldClient.lookupWorldDelta(this.worldResult.getVersion(), false);
+				if (delta != null && !delta.isReset())
+				{
+					worldResult = this.worldResult.apply(delta);
+				}
+			}
+
+			if (worldResult == null)
+			{
+				worldResult = worldClient.lookupWorlds();
+			}
 
 			if (worldResult != null)
 			{
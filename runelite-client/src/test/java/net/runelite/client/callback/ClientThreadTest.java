@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.callback;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClientThreadTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Inject
+	ClientThread clientThread;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		when(client.isClientThread()).thenReturn(true);
+	}
+
+	@Test
+	public void testPriority()
+	{
+		final List<String> calls = new ArrayList<>();
+		clientThread.invokeLater(() -> calls.add("a"));
+		clientThread.invokeLater(() -> calls.add("b"), ClientThread.PRIORITY_LOW);
+		clientThread.invokeLater(() -> calls.add("c"), ClientThread.PRIORITY_HIGH);
+		clientThread.invokeLater(() -> calls.add("d"));
+
+		clientThread.invoke();
+
+		assertEquals(4, calls.size());
+		assertEquals("c", calls.get(0));
+		assertEquals("a", calls.get(1));
+		assertEquals("d", calls.get(2));
+		assertEquals("b", calls.get(3));
+	}
+
+	@Test
+	public void testRetryNotRunTwicePerFrame()
+	{
+		final int[] calls = new int[1];
+		clientThread.invokeLater(() -> ++calls[0] > 1);
+
+		clientThread.invoke();
+		assertEquals(1, calls[0]);
+	}
+
+	@Test
+	public void testNextTick()
+	{
+		final int[] calls = new int[1];
+		clientThread.invokeAtNextTick(() -> ++calls[0]);
+
+		clientThread.invoke();
+		assertEquals(0, calls[0]);
+
+		clientThread.tick();
+		clientThread.invoke();
+		assertEquals(1, calls[0]);
+
+		clientThread.tick();
+		clientThread.invoke();
+		assertEquals(1, calls[0]);
+	}
+}
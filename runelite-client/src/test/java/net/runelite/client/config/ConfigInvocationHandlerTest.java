@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import java.lang.reflect.Proxy;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConfigInvocationHandlerTest
+{
+	@Mock
+	private ConfigManager manager;
+
+	private ConfigInvocationHandler handler;
+	private TestConfig config;
+
+	@Before
+	public void before()
+	{
+		handler = new ConfigInvocationHandler(manager);
+		config = (TestConfig) Proxy.newProxyInstance(TestConfig.class.getClassLoader(), new Class<?>[]{TestConfig.class}, handler);
+	}
+
+	@Test
+	public void testCached()
+	{
+		when(manager.getConfiguration("test", "key")).thenReturn("moo");
+
+		assertEquals("moo", config.key());
+		assertEquals("moo", config.key());
+		verify(manager, times(1)).getConfiguration("test", "key");
+	}
+
+	@Test
+	public void testInvalidate()
+	{
+		when(manager.getConfiguration("test", "key")).thenReturn("moo");
+		assertEquals("moo", config.key());
+
+		// other keys leave the value cached
+		handler.invalidate("test", "other");
+		handler.invalidate("other", "key");
+		assertEquals("moo", config.key());
+		verify(manager, times(1)).getConfiguration("test", "key");
+
+		when(manager.getConfiguration("test", "key")).thenReturn("moo2");
+		handler.invalidate("test", "key");
+		assertEquals("moo2", config.key());
+		verify(manager, times(2)).getConfiguration("test", "key");
+
+		handler.invalidateAll();
+		assertEquals("moo2", config.key());
+		verify(manager, times(3)).getConfiguration("test", "key");
+	}
+}
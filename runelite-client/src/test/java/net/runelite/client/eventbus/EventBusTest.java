@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import net.runelite.api.events.GameTick;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class EventBusTest
+{
+	@RequiredArgsConstructor
+	private static class TickSubscriber
+	{
+		private final List<Object> calls;
+
+		@Subscribe
+		public void onGameTick(GameTick tick)
+		{
+			calls.add(this);
+		}
+	}
+
+	@Test
+	public void testRegistrationOrder()
+	{
+		final List<Object> calls = new ArrayList<>();
+		final EventBus eventBus = new EventBus();
+		final TickSubscriber a = new TickSubscriber(calls);
+		final TickSubscriber b = new TickSubscriber(calls);
+		final TickSubscriber c = new TickSubscriber(calls);
+
+		eventBus.register(a);
+		eventBus.register(b);
+		eventBus.register(c);
+		eventBus.unregister(b);
+		eventBus.register(b);
+
+		eventBus.post(new GameTick());
+
+		assertEquals(3, calls.size());
+		assertEquals(a, calls.get(0));
+		assertEquals(c, calls.get(1));
+		assertEquals(b, calls.get(2));
+	}
+
+	@Test
+	public void testPriority()
+	{
+		final List<Object> calls = new ArrayList<>();
+		final EventBus eventBus = new EventBus();
+		final TickSubscriber normal = new TickSubscriber(calls);
+		final Object high = new Object()
+		{
+			@Subscribe(priority = 1)
+			public void onGameTick(GameTick tick)
+			{
+				calls.add(this);
+			}
+		};
+
+		eventBus.register(normal);
+		eventBus.register(high);
+		eventBus.post(new GameTick());
+
+		assertEquals(2, calls.size());
+		assertEquals(high, calls.get(0));
+		assertEquals(normal, calls.get(1));
+	}
+
+	@Test
+	public void testInstrumentation()
+	{
+		final EventBus eventBus = new EventBus();
+		eventBus.register(new TickSubscriber(new ArrayList<>()));
+		eventBus.setInstrumented(true);
+
+		eventBus.post(new GameTick());
+		eventBus.post(new GameTick());
+
+		final List<SubscriberStats> stats = eventBus.getSubscriberStats();
+		assertEquals(1, stats.size());
+		assertEquals(TickSubscriber.class.getName(), stats.get(0).getSubscriber());
+		assertEquals(2, stats.get(0).getInvocations());
+
+		eventBus.setInstrumented(false);
+		eventBus.post(new GameTick());
+		assertEquals(2, stats.get(0).getInvocations());
+	}
+
+	@Test
+	public void testAsync() throws InterruptedException
+	{
+		final CountDownLatch latch = new CountDownLatch(2);
+		final List<Thread> threads = new CopyOnWriteArrayList<>();
+		final EventBus eventBus = new EventBus();
+
+		eventBus.register(new Object()
+		{
+			@Subscribe(async = true)
+			public void onGameTick(GameTick tick)
+			{
+				threads.add(Thread.currentThread());
+				latch.countDown();
+			}
+		});
+		eventBus.post(new GameTick());
+		eventBus.post(new GameTick());
+
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals(2, threads.size());
+		assertNotEquals(Thread.currentThread(), threads.get(0));
+		assertEquals(threads.get(0), threads.get(1));
+	}
+
+	@Test
+	public void testUnregister()
+	{
+		final List<Object> calls = new ArrayList<>();
+		final EventBus eventBus = new EventBus();
+		final TickSubscriber subscriber = new TickSubscriber(calls);
+
+		eventBus.register(subscriber);
+		eventBus.unregister(subscriber);
+		eventBus.post(new GameTick());
+
+		assertTrue(calls.isEmpty());
+	}
+
+	@Test
+	public void testExceptionHandler()
+	{
+		final List<Throwable> exceptions = new ArrayList<>();
+		final EventBus eventBus = new EventBus(exceptions::add);
+
+		eventBus.register(new Object()
+		{
+			@Subscribe
+			public void onGameTick(GameTick tick)
+			{
+				throw new IllegalStateException();
+			}
+		});
+		eventBus.post(new GameTick());
+
+		assertEquals(1, exceptions.size());
+		assertTrue(exceptions.get(0) instanceof IllegalStateException);
+	}
+
+	@Test
+	public void testRejectedAsyncSubscriber()
+	{
+		final EventBus eventBus = new EventBus();
+
+		try
+		{
+			eventBus.register(new Object()
+			{
+				@Subscribe(async = true)
+				public void onGameTick(GameTick tick)
+				{
+				}
+
+				@Subscribe
+				public void tick(GameTick tick)
+				{
+				}
+			});
+			fail();
+		}
+		catch (IllegalArgumentException e)
+		{
+			// expected
+		}
+
+		assertTrue(eventBus.getDroppedEvents().isEmpty());
+	}
+}
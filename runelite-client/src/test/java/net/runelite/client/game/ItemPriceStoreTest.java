@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class ItemPriceStoreTest
+{
+	@Test
+	public void testGet()
+	{
+		ItemPriceStore store = ItemPriceStore.of(new int[]{0, 2, 4151}, new int[]{5, 180, 1_500_000}, 100L);
+
+		assertEquals(3, store.size());
+		assertEquals(100L, store.getVersion());
+		assertEquals(5, store.get(0));
+		assertEquals(180, store.get(2));
+		assertEquals(1_500_000, store.get(4151));
+		assertEquals(0, store.get(995));
+		assertEquals(0, ItemPriceStore.EMPTY.get(995));
+	}
+
+	@Test
+	public void testUpdate()
+	{
+		ItemPriceStore store = ItemPriceStore.of(new int[]{2, 4151}, new int[]{180, 1_500_000}, 100L);
+
+		int[] ids = new int[1000];
+		int[] prices = new int[1000];
+		for (int i = 0; i < ids.length; ++i)
+		{
+			ids[i] = 10_000 + i;
+			prices[i] = i;
+		}
+		ItemPriceStore updated = store.update(ids, prices, 110L)
+			.update(new int[]{2}, new int[]{200}, 120L);
+
+		assertEquals(1002, updated.size());
+		assertEquals(120L, updated.getVersion());
+		assertEquals(200, updated.get(2));
+		assertEquals(1_500_000, updated.get(4151));
+		for (int i = 0; i < ids.length; ++i)
+		{
+			assertEquals(i, updated.get(10_000 + i));
+		}
+
+		// the original is unchanged
+		assertEquals(180, store.get(2));
+		assertEquals(0, store.get(10_000));
+	}
+}